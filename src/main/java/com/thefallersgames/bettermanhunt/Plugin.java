@@ -3,9 +3,20 @@ package com.thefallersgames.bettermanhunt;
 import com.thefallersgames.bettermanhunt.commands.*;
 import com.thefallersgames.bettermanhunt.listeners.*;
 import com.thefallersgames.bettermanhunt.managers.*;
+import com.thefallersgames.bettermanhunt.services.ChunkTicketService;
+import com.thefallersgames.bettermanhunt.services.GameJournal;
 import com.thefallersgames.bettermanhunt.services.GameTaskService;
+import com.thefallersgames.bettermanhunt.services.ItemClassifier;
 import com.thefallersgames.bettermanhunt.services.LobbyService;
+import com.thefallersgames.bettermanhunt.services.PlayerNameIndex;
+import com.thefallersgames.bettermanhunt.services.PlayerStateStore;
+import com.thefallersgames.bettermanhunt.services.SchedulerService;
+import com.thefallersgames.bettermanhunt.services.TeleportService;
+import com.thefallersgames.bettermanhunt.services.WorldFileService;
+import com.thefallersgames.bettermanhunt.services.WorldJournal;
+import com.thefallersgames.bettermanhunt.services.WorldDeletionQueue;
 import com.thefallersgames.bettermanhunt.services.WorldManagementService;
+import com.thefallersgames.bettermanhunt.services.WorldPoolService;
 import org.bukkit.Bukkit;
 import org.mvplugins.multiverse.core.MultiverseCoreApi;
 import org.mvplugins.multiverse.inventories.MultiverseInventoriesApi;
@@ -26,11 +37,23 @@ public class Plugin extends JavaPlugin {
     private LobbyProtectionListener lobbyProtectionListener;
     private GameItemProtectionListener gameItemProtectionListener;
     private HeadstartListener headstartListener;
+    private PortalListener portalListener;
+    private GameEventDispatcher gameEventDispatcher;
+    private SchedulerService schedulerService;
     private WorldManagementService worldManagementService;
+    private WorldFileService worldFileService;
+    private WorldPoolService worldPoolService;
+    private WorldDeletionQueue worldDeletionQueue;
+    private GameJournal gameJournal;
     private LobbyService lobbyService;
+    private TeleportService teleportService;
+    private ChunkTicketService chunkTicketService;
+    private PlayerStateStore playerStateStore;
+    private ItemClassifier itemClassifier;
     private GameTaskService gameTaskService;
     private HeadstartManager headstartManager;
     private StatsManager statsManager;
+    private PlayerNameIndex playerNameIndex;
     private MultiverseInventoriesApi inventoriesApi;
     private boolean multiverseAvailable = false;
 
@@ -39,6 +62,12 @@ public class Plugin extends JavaPlugin {
         // Create config if it doesn't exist
         saveDefaultConfig();
         
+        // Dispatch tasks to Folia's region schedulers when available, or the Bukkit scheduler otherwise
+        schedulerService = new SchedulerService(this);
+        
+        // Read the games a crash may have interrupted before anything touches their worlds
+        gameJournal = new GameJournal(this);
+        
         // Check for Multiverse-Core
         if (Bukkit.getPluginManager().getPlugin("Multiverse-Core") == null) {
             LOGGER.warning("Multiverse-Core not found. Custom world generation will be disabled.");
@@ -64,18 +93,43 @@ public class Plugin extends JavaPlugin {
             }
             
             // Initialize services that require Multiverse
-            worldManagementService = new WorldManagementService(this, MultiverseCoreApi.get(), inventoriesApi);
+            worldFileService = new WorldFileService(this);
+            worldManagementService = new WorldManagementService(this, MultiverseCoreApi.get(), inventoriesApi,
+                    worldFileService, new WorldJournal(this));
+            
+            // Keep retrying game world deletions until they succeed, also across restarts,
+            // including the folders a shutdown had no time left to delete
+            worldDeletionQueue = new WorldDeletionQueue(this, worldManagementService, worldFileService);
+            
+            // The worlds of games interrupted by a crash go first, in the order the games were created
+            gameJournal.queueWorldDeletions(worldDeletionQueue, worldManagementService.getWorldsFolder());
+            
+            // Clean up worlds that a previous server run left behind
+            worldManagementService.cleanupOrphanedWorlds();
+            worldDeletionQueue.start();
             
-            // Clean up any leftover worlds from previous server runs
-            worldManagementService.cleanupAllManhuntWorlds(false);
+            // Keep a pool of pre-generated worlds ready for new games
+            if (getConfig().getBoolean("world-pool.enabled", true)) {
+                worldPoolService = new WorldPoolService(this, worldManagementService);
+                worldPoolService.start();
+            }
         }
         
         // Continue with normal initialization
+        chunkTicketService = new ChunkTicketService(this);
+        teleportService = new TeleportService(this);
         lobbyService = new LobbyService(this);
-        headstartManager = new HeadstartManager(this);
+        headstartManager = new HeadstartManager(this, schedulerService);
+        
+        // Plugin items are recognised by a tag rather than their names
+        itemClassifier = new ItemClassifier(this);
         
         // Initialize stats manager
         statsManager = new StatsManager(this);
+        playerNameIndex = new PlayerNameIndex(this, statsManager);
+        
+        // Saved player states live on disk while their players are in a game
+        playerStateStore = new PlayerStateStore(this);
         
         // Initialize GameTaskService with a supplier to avoid circular dependency
         gameTaskService = new GameTaskService(this, () -> gameManager, headstartManager);
@@ -85,28 +139,49 @@ public class Plugin extends JavaPlugin {
         guiManager = new GuiManager(this, gameManager);
         teamChatManager = new TeamChatManager(this);
         
+        // Give the players of interrupted games their state back and start a fresh game journal
+        gameJournal.recoverInterruptedGames(gameManager.getPlayerStateManager());
+        
         // Initialize listeners
         playerListener = new PlayerListener(this, gameManager, teamChatManager, statsManager);
         guiListener = new GuiListener(this, gameManager, guiManager);
-        lobbyProtectionListener = new LobbyProtectionListener(gameManager);
-        gameItemProtectionListener = new GameItemProtectionListener(gameManager);
+        lobbyProtectionListener = new LobbyProtectionListener(gameManager, itemClassifier);
+        gameItemProtectionListener = new GameItemProtectionListener(gameManager, itemClassifier);
         headstartListener = new HeadstartListener(this, headstartManager);
         
+        // Events several listeners handle are dispatched once, with the player's game resolved up front
+        gameEventDispatcher = new GameEventDispatcher(gameManager);
+        playerListener.registerRoutes(gameEventDispatcher);
+        guiListener.registerRoutes(gameEventDispatcher);
+        gameItemProtectionListener.registerRoutes(gameEventDispatcher);
+        lobbyProtectionListener.registerRoutes(gameEventDispatcher);
+        
         // Register event listeners
         getServer().getPluginManager().registerEvents(playerListener, this);
         getServer().getPluginManager().registerEvents(guiListener, this);
         getServer().getPluginManager().registerEvents(lobbyProtectionListener, this);
         getServer().getPluginManager().registerEvents(gameItemProtectionListener, this);
         getServer().getPluginManager().registerEvents(headstartListener, this);
+        getServer().getPluginManager().registerEvents(gameEventDispatcher, this);
+        
+        // Portals inside game worlds need Multiverse to create the nether and end
+        if (worldManagementService != null) {
+            portalListener = new PortalListener(this, gameManager, worldManagementService);
+            getServer().getPluginManager().registerEvents(portalListener, this);
+        }
         
         // Register commands
-        getCommand("manhunt").setExecutor(new ManhuntCommand(this, gameManager, guiManager));
+        ManhuntCommand manhuntCommand = new ManhuntCommand(this, gameManager, guiManager);
+        getCommand("manhunt").setExecutor(manhuntCommand);
+        getCommand("manhunt").setTabCompleter(manhuntCommand);
         getCommand("teamhunters").setExecutor(new TeamHuntersCommand(gameManager, guiManager));
         getCommand("teamrunners").setExecutor(new TeamRunnersCommand(gameManager, guiManager));
         getCommand("quitgame").setExecutor(new QuitGameCommand(gameManager, guiManager));
         getCommand("toall").setExecutor(new ChatToggleCommands.ToAllCommand(playerListener, gameManager));
         getCommand("toteam").setExecutor(new ChatToggleCommands.ToTeamCommand(playerListener, gameManager));
-        getCommand("stats").setExecutor(new StatsCommand(statsManager));
+        StatsCommand statsCommand = new StatsCommand(statsManager, playerNameIndex);
+        getCommand("stats").setExecutor(statsCommand);
+        getCommand("stats").setTabCompleter(statsCommand);
         
         LOGGER.info("Manhunt Deluxe plugin has been enabled!");
     }
@@ -116,6 +191,16 @@ public class Plugin extends JavaPlugin {
         try {
             LOGGER.info("Starting Manhunt Deluxe shutdown...");
             
+            // Stop refilling the world pool
+            if (worldPoolService != null) {
+                worldPoolService.stop();
+            }
+            
+            // Leave the remaining world deletions to the next startup
+            if (worldDeletionQueue != null) {
+                worldDeletionQueue.stop();
+            }
+            
             // Clean up active games
             if (gameManager != null) {
                 try {
@@ -125,6 +210,21 @@ public class Plugin extends JavaPlugin {
                 }
             }
             
+            // Finish writing the world deletion queue, including the worlds the game cleanup just queued
+            if (worldDeletionQueue != null) {
+                worldDeletionQueue.shutdown();
+            }
+            
+            // Finish writing the game journal
+            if (gameJournal != null) {
+                gameJournal.shutdown();
+            }
+            
+            // Finish writing saved player states
+            if (playerStateStore != null) {
+                playerStateStore.shutdown();
+            }
+            
             // Save stats before disabling
             if (statsManager != null) {
                 try {
@@ -136,11 +236,21 @@ public class Plugin extends JavaPlugin {
 
             // Cancel any potentially running tasks explicitly
             try {
-                Bukkit.getScheduler().cancelTasks(this);
+                schedulerService.cancelTasks();
             } catch (Exception e) {
                 LOGGER.severe("Error canceling scheduled tasks: " + e.getMessage());
             }
             
+            // Let running world folder deletions finish; the rest resumes on the next startup
+            if (worldFileService != null) {
+                worldFileService.shutdown();
+            }
+            
+            // Finish writing the world journal, including the deletions that just finished
+            if (worldManagementService != null) {
+                worldManagementService.getWorldJournal().shutdown();
+            }
+            
             LOGGER.info("Manhunt Deluxe plugin has been disabled!");
         } catch (Exception e) {
             LOGGER.severe("Unexpected error during plugin shutdown: " + e.getMessage());
@@ -175,6 +285,15 @@ public class Plugin extends JavaPlugin {
         return teamChatManager;
     }
 
+    /**
+     * Gets the scheduler service.
+     * 
+     * @return The scheduler service
+     */
+    public SchedulerService getSchedulerService() {
+        return schedulerService;
+    }
+    
     /**
      * Gets the world management service.
      * 
@@ -184,6 +303,33 @@ public class Plugin extends JavaPlugin {
         return worldManagementService;
     }
     
+    /**
+     * Gets the world pool service.
+     * 
+     * @return The world pool service, or null if the pool is disabled or Multiverse is unavailable
+     */
+    public WorldPoolService getWorldPoolService() {
+        return worldPoolService;
+    }
+    
+    /**
+     * Gets the game journal.
+     * 
+     * @return The game journal
+     */
+    public GameJournal getGameJournal() {
+        return gameJournal;
+    }
+    
+    /**
+     * Gets the world deletion queue.
+     * 
+     * @return The world deletion queue, or null if Multiverse is unavailable
+     */
+    public WorldDeletionQueue getWorldDeletionQueue() {
+        return worldDeletionQueue;
+    }
+    
     /**
      * Gets the lobby service.
      * 
@@ -193,6 +339,42 @@ public class Plugin extends JavaPlugin {
         return lobbyService;
     }
     
+    /**
+     * Gets the chunk ticket service.
+     * 
+     * @return The chunk ticket service
+     */
+    public ChunkTicketService getChunkTicketService() {
+        return chunkTicketService;
+    }
+    
+    /**
+     * Gets the teleport service.
+     * 
+     * @return The teleport service
+     */
+    public TeleportService getTeleportService() {
+        return teleportService;
+    }
+    
+    /**
+     * Gets the player state store.
+     * 
+     * @return The player state store
+     */
+    public PlayerStateStore getPlayerStateStore() {
+        return playerStateStore;
+    }
+    
+    /**
+     * Gets the item classifier.
+     * 
+     * @return The item classifier
+     */
+    public ItemClassifier getItemClassifier() {
+        return itemClassifier;
+    }
+    
     /**
      * Gets the game task service.
      * 
@@ -220,6 +402,15 @@ public class Plugin extends JavaPlugin {
         return statsManager;
     }
     
+    /**
+     * Gets the index of player names used for tab completion.
+     * 
+     * @return The player name index
+     */
+    public PlayerNameIndex getPlayerNameIndex() {
+        return playerNameIndex;
+    }
+    
     /**
      * Checks if Multiverse-Core is available.
      * 
@@ -5,24 +5,32 @@ import com.thefallersgames.bettermanhunt.managers.GameManager;
 import com.thefallersgames.bettermanhunt.managers.GuiManager;
 import com.thefallersgames.bettermanhunt.models.Game;
 import com.thefallersgames.bettermanhunt.models.GameState;
+import com.thefallersgames.bettermanhunt.models.WorldDeletion;
 import com.thefallersgames.bettermanhunt.services.LobbyService;
+import com.thefallersgames.bettermanhunt.services.WorldDeletionQueue;
 import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 import org.bukkit.World;
 import org.bukkit.WorldCreator;
 import org.bukkit.World.Environment;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 /**
  * Command handler for the main /manhunt command.
  */
-public class ManhuntCommand implements CommandExecutor {
+public class ManhuntCommand implements CommandExecutor, TabCompleter {
+    private static final List<String> SUBCOMMANDS = Arrays.asList(
+            "create", "join", "list", "lobby", "delete", "start");
+    private static final List<String> ADMIN_SUBCOMMANDS = Arrays.asList("currentworld", "setlobby", "deletions");
+    
     private final Plugin plugin;
     private final GameManager gameManager;
     private final GuiManager guiManager;
@@ -92,6 +100,10 @@ public class ManhuntCommand implements CommandExecutor {
                 handleLobbyCommand(player);
                 break;
                 
+            case "deletions":
+                handleDeletionsCommand(player);
+                break;
+                
                 
             default:
                 sendHelpMessage(player);
@@ -178,7 +190,7 @@ public class ManhuntCommand implements CommandExecutor {
         boolean created = gameManager.createGame(gameName, player, playerWorld);
         
         if (created) {
-            boolean teleportSuccess = lobbyService.teleportToLobbyCapsule(player, gameManager.getGame(gameName));
+            lobbyService.teleportToLobbyCapsule(player, gameManager.getGame(gameName));
             player.sendMessage(ChatColor.GREEN + "Created new game in the current world with name: " + 
                     ChatColor.GOLD + gameName);
             
@@ -456,6 +468,79 @@ public class ManhuntCommand implements CommandExecutor {
         player.sendMessage(ChatColor.YELLOW + "To join a game: /manhunt join <name>");
     }
     
+    /**
+     * Handles the /manhunt deletions command, which lists the queued world deletions
+     * and the disk space each world still holds.
+     */
+    private void handleDeletionsCommand(Player player) {
+        if (!player.hasPermission("bettermanhunt.admin")) {
+            player.sendMessage(ChatColor.RED + "You don't have permission to view world deletions.");
+            return;
+        }
+        
+        WorldDeletionQueue deletionQueue = plugin.getWorldDeletionQueue();
+        if (deletionQueue == null) {
+            player.sendMessage(ChatColor.RED + "World deletion is not available without Multiverse-Core.");
+            return;
+        }
+        
+        List<WorldDeletion> deletions = deletionQueue.getDeletions();
+        if (deletions.isEmpty()) {
+            player.sendMessage(ChatColor.GREEN + "No game worlds are waiting to be deleted.");
+            return;
+        }
+        
+        // Measuring the folders walks their files, so it happens in the background
+        List<CompletableFuture<Long>> sizes = new ArrayList<>();
+        for (WorldDeletion deletion : deletions) {
+            sizes.add(deletionQueue.measureSize(deletion.getWorldName()));
+        }
+        
+        CompletableFuture.allOf(sizes.toArray(new CompletableFuture[0])).whenComplete((ignored, error) ->
+            plugin.getSchedulerService().runTask(() -> {
+                if (!player.isOnline()) {
+                    return;
+                }
+                
+                long now = System.currentTimeMillis();
+                long totalBytes = 0;
+                player.sendMessage(ChatColor.GREEN + "===== World Deletions =====");
+                for (int i = 0; i < deletions.size(); i++) {
+                    WorldDeletion deletion = deletions.get(i);
+                    long bytes = sizes.get(i).isCompletedExceptionally() ? 0 : sizes.get(i).join();
+                    totalBytes += bytes;
+                    
+                    String status;
+                    if (deletionQueue.isInFlight(deletion.getWorldName())) {
+                        status = ChatColor.YELLOW + "deleting";
+                    } else if (deletion.hasFailed()) {
+                        long retryIn = Math.max(0, (deletion.getNextAttemptAt() - now) / 1000L);
+                        status = ChatColor.RED + "failed " + deletion.getAttempts() + "x, retry in " + retryIn + "s";
+                    } else {
+                        status = ChatColor.GRAY + "pending";
+                    }
+                    
+                    player.sendMessage(ChatColor.GOLD + deletion.getWorldName() + ChatColor.GRAY + " - " + status
+                            + ChatColor.GRAY + " - " + ChatColor.YELLOW + formatSize(bytes));
+                }
+                player.sendMessage(ChatColor.GREEN + "Total: " + ChatColor.YELLOW + formatSize(totalBytes)
+                        + ChatColor.GREEN + " in " + deletions.size() + " world(s)");
+            }));
+    }
+    
+    /**
+     * Formats a number of bytes for display.
+     */
+    private String formatSize(long bytes) {
+        if (bytes < 1024L * 1024L) {
+            return String.format("%.1f KB", bytes / 1024.0);
+        }
+        if (bytes < 1024L * 1024L * 1024L) {
+            return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+        }
+        return String.format("%.2f GB", bytes / (1024.0 * 1024.0 * 1024.0));
+    }
+    
     /**
      * Handles the /manhunt setlobby command.
      */
@@ -523,6 +608,36 @@ public class ManhuntCommand implements CommandExecutor {
             player.sendMessage(ChatColor.YELLOW + "/manhunt currentworld" + ChatColor.WHITE + " - Create a new manhunt game in the current world");
             player.sendMessage(ChatColor.YELLOW + "/manhunt delete <name>" + ChatColor.WHITE + " - Delete any manhunt game");
             player.sendMessage(ChatColor.YELLOW + "/manhunt start <name>" + ChatColor.WHITE + " - Start any manhunt game");
+            player.sendMessage(ChatColor.YELLOW + "/manhunt deletions" + ChatColor.WHITE + " - Show game worlds waiting to be deleted");
+        }
+    }
+
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        List<String> completions = new ArrayList<>();
+        
+        if (args.length == 1) {
+            String input = args[0].toLowerCase();
+            for (String subCommand : SUBCOMMANDS) {
+                if (subCommand.startsWith(input)) {
+                    completions.add(subCommand);
+                }
+            }
+            if (sender.hasPermission("bettermanhunt.admin")) {
+                for (String subCommand : ADMIN_SUBCOMMANDS) {
+                    if (subCommand.startsWith(input)) {
+                        completions.add(subCommand);
+                    }
+                }
+            }
+        } else if (args.length == 2) {
+            String subCommand = args[0].toLowerCase();
+            if (subCommand.equals("join") || subCommand.equals("delete") || subCommand.equals("start")) {
+                // Game names are looked up by prefix in the registry's index
+                completions.addAll(gameManager.completeGameNames(args[1]));
+            }
         }
+        
+        return completions;
     }
-} 
\ No newline at end of file
+}
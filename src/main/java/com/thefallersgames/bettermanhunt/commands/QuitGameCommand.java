@@ -44,9 +44,8 @@ public class QuitGameCommand implements CommandExecutor {
         }
         
         // Close any open GUI
-        if (guiManager.getOpenInventoryType(player) != null) {
+        if (guiManager.hasGuiOpen(player)) {
             player.closeInventory();
-            guiManager.removeOpenInventory(player);
         }
         
         // Notify other players in the game
@@ -2,6 +2,7 @@ package com.thefallersgames.bettermanhunt.commands;
 
 import com.thefallersgames.bettermanhunt.managers.StatsManager;
 import com.thefallersgames.bettermanhunt.models.PlayerStats;
+import com.thefallersgames.bettermanhunt.services.PlayerNameIndex;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
@@ -19,15 +20,21 @@ import java.util.stream.Collectors;
  * Command to display player statistics.
  */
 public class StatsCommand implements CommandExecutor, TabCompleter {
+    private static final List<String> STAT_TYPES = Arrays.asList(
+            "runnerwins", "hunterwins", "kills", "deaths", "games", "dragonkills");
+    
     private final StatsManager statsManager;
+    private final PlayerNameIndex playerNameIndex;
     
     /**
      * Creates a new stats command.
      *
      * @param statsManager The stats manager to use
+     * @param playerNameIndex The player names to offer for tab completion
      */
-    public StatsCommand(StatsManager statsManager) {
+    public StatsCommand(StatsManager statsManager, PlayerNameIndex playerNameIndex) {
         this.statsManager = statsManager;
+        this.playerNameIndex = playerNameIndex;
     }
     
     @Override
@@ -35,7 +42,7 @@ public class StatsCommand implements CommandExecutor, TabCompleter {
         if (args.length == 0) {
             if (sender instanceof Player) {
                 // Show player's own stats
-                showPlayerStats(sender, (Player) sender);
+                showPlayerStats(sender, statsManager.getPlayerStats((Player) sender));
             } else {
                 // Console needs to provide player name
                 sender.sendMessage(ChatColor.RED + "Please specify a player name or use 'stats top <statType>'");
@@ -66,15 +73,17 @@ public class StatsCommand implements CommandExecutor, TabCompleter {
             return true;
         }
         
-        // Look up another player's stats
-        Player targetPlayer = Bukkit.getPlayer(args[0]);
-        if (targetPlayer == null) {
-            sender.sendMessage(ChatColor.RED + "Player not found: " + args[0]);
-            sender.sendMessage(ChatColor.YELLOW + "Note: You can only look up online players.");
+        // Look up another player's stats, by their last known name if they are offline
+        Player targetPlayer = Bukkit.getPlayerExact(args[0]);
+        PlayerStats targetStats = targetPlayer != null
+                ? statsManager.getPlayerStats(targetPlayer)
+                : statsManager.findPlayerStatsByName(args[0]);
+        if (targetStats == null) {
+            sender.sendMessage(ChatColor.RED + "No stats found for player: " + args[0]);
             return true;
         }
         
-        showPlayerStats(sender, targetPlayer);
+        showPlayerStats(sender, targetStats);
         return true;
     }
     
@@ -82,12 +91,10 @@ public class StatsCommand implements CommandExecutor, TabCompleter {
      * Shows a player's stats to a command sender.
      *
      * @param sender The command sender to show stats to
-     * @param player The player whose stats to show
+     * @param stats The stats to show
      */
-    private void showPlayerStats(CommandSender sender, Player player) {
-        PlayerStats stats = statsManager.getPlayerStats(player);
-        
-        sender.sendMessage(ChatColor.GOLD + "=== " + player.getName() + "'s Manhunt Stats ===");
+    private void showPlayerStats(CommandSender sender, PlayerStats stats) {
+        sender.sendMessage(ChatColor.GOLD + "=== " + stats.getPlayerName() + "'s Manhunt Stats ===");
         sender.sendMessage(ChatColor.YELLOW + "Games played: " + ChatColor.WHITE + stats.getGamesPlayed());
         sender.sendMessage(ChatColor.BLUE + "Runner wins: " + ChatColor.WHITE + stats.getRunnerWins());
         sender.sendMessage(ChatColor.RED + "Hunter wins: " + ChatColor.WHITE + stats.getHunterWins());
@@ -213,17 +220,14 @@ public class StatsCommand implements CommandExecutor, TabCompleter {
     @Override
     public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
         if (args.length == 1) {
-            List<String> completions = new ArrayList<>();
-            completions.add("top");
-            
-            // Add online player names
-            Bukkit.getOnlinePlayers().forEach(player -> completions.add(player.getName()));
-            
-            return filterCompletions(completions, args[0]);
+            // Online players and players with stats, looked up by prefix
+            List<String> completions = playerNameIndex.complete(args[0]);
+            if ("top".startsWith(args[0].toLowerCase())) {
+                completions.add(0, "top");
+            }
+            return completions;
         } else if (args.length == 2 && args[0].equalsIgnoreCase("top")) {
-            List<String> statTypes = Arrays.asList(
-                    "runnerwins", "hunterwins", "kills", "deaths", "games", "dragonkills");
-            return filterCompletions(statTypes, args[1]);
+            return filterCompletions(STAT_TYPES, args[1]);
         }
         
         return new ArrayList<>();
@@ -239,7 +243,7 @@ public class StatsCommand implements CommandExecutor, TabCompleter {
     private List<String> filterCompletions(List<String> completions, String currentInput) {
         String lowerInput = currentInput.toLowerCase();
         return completions.stream()
-                .filter(s -> s.toLowerCase().startsWith(lowerInput))
+                .filter(s -> s.startsWith(lowerInput))
                 .collect(Collectors.toList());
     }
-} 
\ No newline at end of file
+}
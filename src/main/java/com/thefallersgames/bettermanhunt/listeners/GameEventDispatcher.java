@@ -0,0 +1,366 @@
+package com.thefallersgames.bettermanhunt.listeners;
+
+import com.thefallersgames.bettermanhunt.managers.GameManager;
+import com.thefallersgames.bettermanhunt.models.Game;
+import com.thefallersgames.bettermanhunt.models.GameState;
+import com.thefallersgames.bettermanhunt.models.PlayerRole;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Receives events that several listeners care about, and resolves the player's game, role and
+ * game state once per event instead of once per listener.
+ * Each event type has a route table per event priority that maps every (game state, role) pair
+ * to the handlers for it, built when the handlers are registered, so dispatching is a table lookup.
+ * Handlers run at {@link EventPriority#NORMAL} unless they register for {@link EventPriority#HIGH},
+ * which protection filters use to see what the normal handlers left behind. The context resolved
+ * for an event at the normal priority is reused at the high priority, so both see the same game,
+ * role and state.
+ */
+public class GameEventDispatcher implements Listener {
+    private static final Set<EventPriority> PRIORITIES = EnumSet.of(EventPriority.NORMAL, EventPriority.HIGH);
+    private static final EventPriority LAST_PRIORITY = EventPriority.HIGH;
+
+    private final GameManager gameManager;
+    private final Map<EventPriority, Routes<InventoryClickEvent>> inventoryClickRoutes = new EnumMap<>(EventPriority.class);
+    private final Map<EventPriority, Routes<PlayerDeathEvent>> playerDeathRoutes = new EnumMap<>(EventPriority.class);
+
+    // The event being dispatched and its context, kept from its first priority until its last
+    private Event contextEvent;
+    private GameContext context;
+
+    /**
+     * Creates a new GameEventDispatcher.
+     *
+     * @param gameManager The game manager
+     */
+    public GameEventDispatcher(GameManager gameManager) {
+        this.gameManager = gameManager;
+        for (EventPriority priority : PRIORITIES) {
+            inventoryClickRoutes.put(priority, new Routes<>());
+            playerDeathRoutes.put(priority, new Routes<>());
+        }
+    }
+
+    /**
+     * Gets the routes for inventory clicks by players that run at normal priority.
+     *
+     * @return The inventory click routes
+     */
+    public Routes<InventoryClickEvent> getInventoryClickRoutes() {
+        return getInventoryClickRoutes(EventPriority.NORMAL);
+    }
+
+    /**
+     * Gets the routes for inventory clicks by players that run at a given priority.
+     *
+     * @param priority {@link EventPriority#NORMAL} or {@link EventPriority#HIGH}
+     * @return The inventory click routes
+     */
+    public Routes<InventoryClickEvent> getInventoryClickRoutes(EventPriority priority) {
+        return getRoutes(inventoryClickRoutes, priority);
+    }
+
+    /**
+     * Gets the routes for player deaths that run at normal priority.
+     *
+     * @return The player death routes
+     */
+    public Routes<PlayerDeathEvent> getPlayerDeathRoutes() {
+        return getPlayerDeathRoutes(EventPriority.NORMAL);
+    }
+
+    /**
+     * Gets the routes for player deaths that run at a given priority.
+     *
+     * @param priority {@link EventPriority#NORMAL} or {@link EventPriority#HIGH}
+     * @return The player death routes
+     */
+    public Routes<PlayerDeathEvent> getPlayerDeathRoutes(EventPriority priority) {
+        return getRoutes(playerDeathRoutes, priority);
+    }
+
+    /**
+     * Dispatches inventory clicks by players to the normal priority routes.
+     */
+    @EventHandler(priority = EventPriority.NORMAL)
+    public void onInventoryClick(InventoryClickEvent event) {
+        dispatchInventoryClick(event, EventPriority.NORMAL);
+    }
+
+    /**
+     * Dispatches inventory clicks by players to the high priority routes.
+     */
+    @EventHandler(priority = EventPriority.HIGH)
+    public void onInventoryClickHigh(InventoryClickEvent event) {
+        dispatchInventoryClick(event, EventPriority.HIGH);
+    }
+
+    /**
+     * Dispatches player deaths to the normal priority routes.
+     */
+    @EventHandler(priority = EventPriority.NORMAL)
+    public void onPlayerDeath(PlayerDeathEvent event) {
+        dispatchPlayerDeath(event, EventPriority.NORMAL);
+    }
+
+    /**
+     * Dispatches player deaths to the high priority routes.
+     */
+    @EventHandler(priority = EventPriority.HIGH)
+    public void onPlayerDeathHigh(PlayerDeathEvent event) {
+        dispatchPlayerDeath(event, EventPriority.HIGH);
+    }
+
+    /**
+     * Dispatches an inventory click by a player to the routes of one priority.
+     */
+    private void dispatchInventoryClick(InventoryClickEvent event, EventPriority priority) {
+        Routes<InventoryClickEvent> routes = inventoryClickRoutes.get(priority);
+        if (!routes.isEmpty() && event.getWhoClicked() instanceof Player) {
+            routes.dispatch(event, contextFor(event, (Player) event.getWhoClicked()));
+        }
+        if (priority == LAST_PRIORITY) {
+            forgetContext();
+        }
+    }
+
+    /**
+     * Dispatches a player death to the routes of one priority.
+     */
+    private void dispatchPlayerDeath(PlayerDeathEvent event, EventPriority priority) {
+        Routes<PlayerDeathEvent> routes = playerDeathRoutes.get(priority);
+        if (!routes.isEmpty()) {
+            routes.dispatch(event, contextFor(event, event.getEntity()));
+        }
+        if (priority == LAST_PRIORITY) {
+            forgetContext();
+        }
+    }
+
+    /**
+     * Gets the routes of one priority.
+     */
+    private static <E extends Event> Routes<E> getRoutes(Map<EventPriority, Routes<E>> routes, EventPriority priority) {
+        Routes<E> result = routes.get(priority);
+        if (result == null) {
+            throw new IllegalArgumentException("Events are only dispatched at " + PRIORITIES + ", not " + priority);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the context of an event, resolving it the first time the event is dispatched.
+     */
+    private GameContext contextFor(Event event, Player player) {
+        if (event != contextEvent) {
+            contextEvent = event;
+            context = resolve(player);
+        }
+        return context;
+    }
+
+    /**
+     * Drops the context of the event whose last priority has been dispatched.
+     * The last priority runs even for cancelled events, so no event is kept beyond its dispatch.
+     */
+    private void forgetContext() {
+        contextEvent = null;
+        context = null;
+    }
+
+    /**
+     * Looks up the game and role of a player.
+     */
+    private GameContext resolve(Player player) {
+        Game game = gameManager.getPlayerGame(player);
+        PlayerRole role = game != null ? game.getRole(player) : PlayerRole.NONE;
+        return new GameContext(player, game, role);
+    }
+
+    /**
+     * Handles an event for a player whose game has already been resolved.
+     *
+     * @param <E> The event type
+     */
+    @FunctionalInterface
+    public interface GameEventHandler<E extends Event> {
+        /**
+         * Handles the event.
+         *
+         * @param event The event
+         * @param context The player's game, role and game state when the event was dispatched
+         */
+        void handle(E event, GameContext context);
+    }
+
+    /**
+     * The game, role and game state of the player an event is about, resolved once per event.
+     */
+    public static class GameContext {
+        private final Player player;
+        private final Game game;
+        private final PlayerRole role;
+        private final GameState state;
+
+        /**
+         * Creates a new GameContext.
+         *
+         * @param player The player the event is about
+         * @param game The player's game, or null if they are not in one
+         * @param role The player's role
+         */
+        GameContext(Player player, Game game, PlayerRole role) {
+            this.player = player;
+            this.game = game;
+            this.role = role;
+            this.state = game != null ? game.getState() : null;
+        }
+
+        public Player getPlayer() {
+            return player;
+        }
+
+        /**
+         * Gets the player's game.
+         *
+         * @return The game, or null if the player is not in one
+         */
+        public Game getGame() {
+            return game;
+        }
+
+        public PlayerRole getRole() {
+            return role;
+        }
+
+        /**
+         * Gets the state the game was in when the event was dispatched.
+         *
+         * @return The game state, or null if the player is not in a game
+         */
+        public GameState getState() {
+            return state;
+        }
+    }
+
+    /**
+     * The route table of one event type.
+     * Handlers run in the order they were registered.
+     *
+     * @param <E> The event type
+     */
+    public static class Routes<E extends Event> {
+        private final Map<GameState, Map<PlayerRole, List<GameEventHandler<E>>>> table;
+        private List<GameEventHandler<E>> outsideGame;
+        private boolean empty = true;
+
+        /**
+         * Creates an empty route table.
+         */
+        Routes() {
+            this.table = new EnumMap<>(GameState.class);
+            for (GameState state : GameState.values()) {
+                Map<PlayerRole, List<GameEventHandler<E>>> cells = new EnumMap<>(PlayerRole.class);
+                for (PlayerRole role : PlayerRole.values()) {
+                    cells.put(role, Collections.emptyList());
+                }
+                table.put(state, cells);
+            }
+            this.outsideGame = Collections.emptyList();
+        }
+
+        /**
+         * Routes events for players with one of the given roles in a game in one of the given states.
+         *
+         * @param states The game states
+         * @param roles The player roles
+         * @param handler The handler
+         */
+        public void register(Set<GameState> states, Set<PlayerRole> roles, GameEventHandler<E> handler) {
+            for (GameState state : states) {
+                Map<PlayerRole, List<GameEventHandler<E>>> cells = table.get(state);
+                for (PlayerRole role : roles) {
+                    cells.put(role, append(cells.get(role), handler));
+                }
+            }
+            empty = false;
+        }
+
+        /**
+         * Routes events for players in a game in one of the given states, whatever their role.
+         *
+         * @param states The game states
+         * @param handler The handler
+         */
+        public void register(Set<GameState> states, GameEventHandler<E> handler) {
+            register(states, EnumSet.allOf(PlayerRole.class), handler);
+        }
+
+        /**
+         * Routes events for players who are not in a game.
+         *
+         * @param handler The handler
+         */
+        public void registerOutsideGame(GameEventHandler<E> handler) {
+            outsideGame = append(outsideGame, handler);
+            empty = false;
+        }
+
+        /**
+         * Routes all events, whether the player is in a game or not.
+         *
+         * @param handler The handler
+         */
+        public void registerAll(GameEventHandler<E> handler) {
+            register(EnumSet.allOf(GameState.class), handler);
+            registerOutsideGame(handler);
+        }
+
+        /**
+         * Checks whether no handler has been registered, so events need not be resolved at all.
+         *
+         * @return True if the table is empty
+         */
+        boolean isEmpty() {
+            return empty;
+        }
+
+        /**
+         * Runs the handlers routed to a player's game state and role.
+         */
+        void dispatch(E event, GameContext context) {
+            List<GameEventHandler<E>> handlers = context.getGame() != null
+                    ? table.get(context.getState()).get(context.getRole())
+                    : outsideGame;
+
+            for (GameEventHandler<E> handler : handlers) {
+                handler.handle(event, context);
+            }
+        }
+
+        /**
+         * Copies a handler list with one more handler, so the lists in the table never change
+         * once built.
+         */
+        private List<GameEventHandler<E>> append(List<GameEventHandler<E>> handlers, GameEventHandler<E> handler) {
+            List<GameEventHandler<E>> extended = new ArrayList<>(handlers.size() + 1);
+            extended.addAll(handlers);
+            extended.add(handler);
+            return Collections.unmodifiableList(extended);
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.thefallersgames.bettermanhunt.listeners;
 
+import com.thefallersgames.bettermanhunt.listeners.GameEventDispatcher.GameContext;
 import com.thefallersgames.bettermanhunt.models.Game;
 import com.thefallersgames.bettermanhunt.models.GameState;
+import com.thefallersgames.bettermanhunt.models.PluginItem;
 import com.thefallersgames.bettermanhunt.managers.GameManager;
-import com.thefallersgames.bettermanhunt.tasks.CompassTask;
+import com.thefallersgames.bettermanhunt.services.ItemClassifier;
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -12,52 +14,55 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.entity.PlayerDeathEvent;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.player.PlayerDropItemEvent;
-import org.bukkit.inventory.ItemStack;
 
-import java.util.Iterator;
+import java.util.EnumSet;
 
 /**
  * Listener for protecting special game items like compasses during active gameplay.
  */
 public class GameItemProtectionListener implements Listener {
     private final GameManager gameManager;
+    private final ItemClassifier itemClassifier;
 
     /**
      * Constructs a new GameItemProtectionListener.
      *
      * @param gameManager The game manager
+     * @param itemClassifier The item classifier
      */
-    public GameItemProtectionListener(GameManager gameManager) {
+    public GameItemProtectionListener(GameManager gameManager, ItemClassifier itemClassifier) {
         this.gameManager = gameManager;
+        this.itemClassifier = itemClassifier;
     }
 
     /**
-     * Prevents compass items from dropping when players die.
+     * Registers this listener's death and inventory click handlers with the event dispatcher.
+     * They run at high priority, after the normal death and click handling.
+     *
+     * @param dispatcher The game event dispatcher
      */
-    @EventHandler(priority = EventPriority.HIGH)
-    public void onPlayerDeath(PlayerDeathEvent event) {
-        Player player = event.getEntity();
-        Game game = gameManager.getPlayerGame(player);
-        
-        if (game == null || game.getState() != GameState.ACTIVE) {
-            return;
-        }
-        
-        // Remove compass items from drops when a player dies during active gameplay
-        Iterator<ItemStack> iterator = event.getDrops().iterator();
-        while (iterator.hasNext()) {
-            ItemStack item = iterator.next();
-            if (item.getType().name().contains("COMPASS")) {
-                iterator.remove();
-            }
-        }
+    public void registerRoutes(GameEventDispatcher dispatcher) {
+        dispatcher.getPlayerDeathRoutes(EventPriority.HIGH).register(EnumSet.of(GameState.ACTIVE), this::removeCompassDrops);
+        dispatcher.getInventoryClickRoutes(EventPriority.HIGH).register(EnumSet.of(GameState.ACTIVE), this::protectCompassClick);
+    }
+
+    /**
+     * Prevents tracking compasses from dropping when players die during active gameplay.
+     */
+    private void removeCompassDrops(PlayerDeathEvent event, GameContext context) {
+        event.getDrops().removeIf(item -> itemClassifier.is(item, PluginItem.TRACKING_COMPASS));
     }
     
     /**
-     * Prevents players from dropping compass items.
+     * Prevents players from dropping tracking compasses.
      */
     @EventHandler(priority = EventPriority.HIGH)
     public void onPlayerDropItem(PlayerDropItemEvent event) {
+        // Most drops are ordinary items, so classify the item before looking up the game
+        if (!itemClassifier.is(event.getItemDrop().getItemStack(), PluginItem.TRACKING_COMPASS)) {
+            return;
+        }
+        
         Player player = event.getPlayer();
         Game game = gameManager.getPlayerGame(player);
         
@@ -66,44 +71,19 @@ public class GameItemProtectionListener implements Listener {
             return;
         }
         
-        // Prevent dropping compass items
-        ItemStack item = event.getItemDrop().getItemStack();
-        if (item.getType().name().contains("COMPASS")) {
-            event.setCancelled(true);
-            player.sendMessage(ChatColor.RED + "You cannot drop your tracking compass!");
-        }
+        event.setCancelled(true);
+        player.sendMessage(ChatColor.RED + "You cannot drop your tracking compass!");
     }
     
     /**
      * Prevents moving tracking compasses between inventory slots via click.
      */
-    @EventHandler(priority = EventPriority.HIGH)
-    public void onInventoryClick(InventoryClickEvent event) {
-        if (!(event.getWhoClicked() instanceof Player)) {
-            return;
-        }
-        
-        Player player = (Player) event.getWhoClicked();
-        Game game = gameManager.getPlayerGame(player);
-        
-        if (game == null || game.getState() != GameState.ACTIVE) {
-            return;
-        }
-        
-        // Get the compass task
-        CompassTask compassTask = gameManager.getCompassTask(game.getName());
-        if (compassTask == null) {
-            return;
-        }
-        
+    private void protectCompassClick(InventoryClickEvent event, GameContext context) {
         // Protect tracking compass from specific inventory actions
-        ItemStack item = event.getCurrentItem();
-        if (item != null && item.getType().name().contains("COMPASS")) {
-            if (compassTask.isTrackingCompass(item) && 
-                (event.getClick().isShiftClick() || event.isRightClick())) {
-                event.setCancelled(true);
-                player.sendMessage(ChatColor.RED + "You cannot move the tracking compass!");
-            }
+        if ((event.getClick().isShiftClick() || event.isRightClick())
+                && itemClassifier.is(event.getCurrentItem(), PluginItem.TRACKING_COMPASS)) {
+            event.setCancelled(true);
+            context.getPlayer().sendMessage(ChatColor.RED + "You cannot move the tracking compass!");
         }
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
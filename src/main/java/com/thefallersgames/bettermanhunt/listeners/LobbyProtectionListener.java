@@ -1,8 +1,10 @@
 package com.thefallersgames.bettermanhunt.listeners;
 
+import com.thefallersgames.bettermanhunt.listeners.GameEventDispatcher.GameContext;
 import com.thefallersgames.bettermanhunt.models.Game;
 import com.thefallersgames.bettermanhunt.models.GameState;
 import com.thefallersgames.bettermanhunt.managers.GameManager;
+import com.thefallersgames.bettermanhunt.services.ItemClassifier;
 import org.bukkit.ChatColor;
 import org.bukkit.GameMode;
 import org.bukkit.entity.Player;
@@ -14,48 +16,43 @@ import org.bukkit.event.entity.EntityDamageByEntityEvent;
 import org.bukkit.event.entity.EntityDamageEvent;
 import org.bukkit.event.entity.FoodLevelChangeEvent;
 import org.bukkit.event.entity.PlayerDeathEvent;
-import org.bukkit.inventory.ItemStack;
 
-import java.util.Iterator;
-import java.util.List;
+import java.util.EnumSet;
 
 /**
  * Listener for protecting players and items in the lobby.
  */
 public class LobbyProtectionListener implements Listener {
     private final GameManager gameManager;
+    private final ItemClassifier itemClassifier;
 
     /**
      * Constructs a new LobbyProtectionListener.
      *
      * @param gameManager The game manager
+     * @param itemClassifier The item classifier
      */
-    public LobbyProtectionListener(GameManager gameManager) {
+    public LobbyProtectionListener(GameManager gameManager, ItemClassifier itemClassifier) {
         this.gameManager = gameManager;
+        this.itemClassifier = itemClassifier;
+    }
+
+    /**
+     * Registers this listener's death handler with the event dispatcher.
+     * It runs at high priority, after the normal death handling.
+     *
+     * @param dispatcher The game event dispatcher
+     */
+    public void registerRoutes(GameEventDispatcher dispatcher) {
+        dispatcher.getPlayerDeathRoutes(EventPriority.HIGH).register(EnumSet.of(GameState.LOBBY), this::removeLobbyItemDrops);
     }
 
     /**
      * Prevents lobby items from dropping on death.
      */
-    @EventHandler(priority = EventPriority.HIGH)
-    public void onPlayerDeath(PlayerDeathEvent event) {
-        Player player = event.getEntity();
-        Game game = gameManager.getPlayerGame(player);
-        
-        if (game == null || game.getState() != GameState.LOBBY) {
-            return;
-        }
-        
+    private void removeLobbyItemDrops(PlayerDeathEvent event, GameContext context) {
         // Remove lobby items from drops when in lobby
-        Iterator<ItemStack> iterator = event.getDrops().iterator();
-        while (iterator.hasNext()) {
-            ItemStack item = iterator.next();
-            
-            // Remove lobby items
-            if (isLobbyItem(item)) {
-                iterator.remove();
-            }
-        }
+        event.getDrops().removeIf(itemClassifier::isLobbyItem);
     }
     
     /**
@@ -135,22 +132,4 @@ public class LobbyProtectionListener implements Listener {
             player.sendMessage(ChatColor.RED + "You cannot break blocks in the lobby!");
         }
     }
-    
-    /**
-     * Checks if an item is a lobby item.
-     *
-     * @param item The item to check
-     * @return True if the item is a lobby item, false otherwise
-     */
-    private boolean isLobbyItem(ItemStack item) {
-        if (item == null || !item.hasItemMeta() || !item.getItemMeta().hasDisplayName()) {
-            return false;
-        }
-        
-        String name = ChatColor.stripColor(item.getItemMeta().getDisplayName());
-        return name.equals("Switch Team") || 
-               name.equals("Leave Game") || 
-               name.equals("Force Start") || 
-               name.equals("Delete Game");
-    }
-} 
\ No newline at end of file
+}
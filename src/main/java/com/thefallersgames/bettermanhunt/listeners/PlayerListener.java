@@ -1,17 +1,21 @@
 package com.thefallersgames.bettermanhunt.listeners;
 
 import com.thefallersgames.bettermanhunt.Plugin;
+import com.thefallersgames.bettermanhunt.listeners.GameEventDispatcher.GameContext;
 import com.thefallersgames.bettermanhunt.managers.GameManager;
+import com.thefallersgames.bettermanhunt.managers.PlayerStateManager;
 import com.thefallersgames.bettermanhunt.managers.StatsManager;
 import com.thefallersgames.bettermanhunt.managers.TeamChatManager;
 import com.thefallersgames.bettermanhunt.models.Game;
 import com.thefallersgames.bettermanhunt.models.GameState;
+import com.thefallersgames.bettermanhunt.models.PlayerRole;
+import com.thefallersgames.bettermanhunt.models.PluginItem;
+import com.thefallersgames.bettermanhunt.services.ItemClassifier;
 import com.thefallersgames.bettermanhunt.tasks.CompassTask;
 import com.thefallersgames.bettermanhunt.utils.GameUtils;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.GameMode;
-import org.bukkit.Material;
 import org.bukkit.Sound;
 import org.bukkit.entity.EnderDragon;
 import org.bukkit.entity.Player;
@@ -24,12 +28,15 @@ import org.bukkit.event.entity.PlayerDeathEvent;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.player.AsyncPlayerChatEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.player.PlayerRespawnEvent;
 import org.bukkit.inventory.ItemStack;
 
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -40,6 +47,7 @@ public class PlayerListener implements Listener {
     private final GameManager gameManager;
     private final TeamChatManager teamChatManager;
     private final StatsManager statsManager;
+    private final ItemClassifier itemClassifier;
     private final Map<UUID, Long> compassCooldowns;
     
     /**
@@ -55,16 +63,32 @@ public class PlayerListener implements Listener {
         this.gameManager = gameManager;
         this.teamChatManager = teamChatManager;
         this.statsManager = statsManager;
+        this.itemClassifier = plugin.getItemClassifier();
         this.compassCooldowns = new HashMap<>();
     }
     
     /**
-     * Handles player death events.
+     * Registers this listener's death and inventory click handlers with the event dispatcher.
+     *
+     * @param dispatcher The game event dispatcher
      */
-    @EventHandler(priority = EventPriority.NORMAL)
-    public void onPlayerDeath(PlayerDeathEvent event) {
-        Player player = event.getEntity();
-        Game game = gameManager.getPlayerGame(player);
+    public void registerRoutes(GameEventDispatcher dispatcher) {
+        // Game states in which the game is still ongoing
+        Set<GameState> ongoing = EnumSet.of(GameState.HEADSTART, GameState.ACTIVE,
+                GameState.RUNNERS_WON, GameState.HUNTERS_WON);
+        
+        dispatcher.getPlayerDeathRoutes().registerAll(this::recordDeath);
+        dispatcher.getPlayerDeathRoutes().register(ongoing, EnumSet.of(PlayerRole.RUNNER), this::handleRunnerDeath);
+        dispatcher.getPlayerDeathRoutes().register(ongoing, this::scheduleRespawn);
+        
+        dispatcher.getInventoryClickRoutes().register(EnumSet.of(GameState.LOBBY), this::preventLobbyInventoryClick);
+    }
+    
+    /**
+     * Records deaths and kills for statistics.
+     */
+    private void recordDeath(PlayerDeathEvent event, GameContext context) {
+        Player player = context.getPlayer();
         
         // Record death for statistics
         statsManager.recordDeath(player);
@@ -73,29 +97,36 @@ public class PlayerListener implements Listener {
         if (player.getKiller() != null) {
             statsManager.recordKill(player.getKiller());
         }
+    }
+    
+    /**
+     * Handles the death of a runner while the game is still ongoing.
+     */
+    private void handleRunnerDeath(PlayerDeathEvent event, GameContext context) {
+        Player player = context.getPlayer();
+        Game game = context.getGame();
         
-        // Handle runner deaths in active game or any game state where the game is still ongoing
-        if (game != null && (game.getState() == GameState.ACTIVE || 
-                             game.getState() == GameState.HEADSTART ||
-                             game.getState() == GameState.RUNNERS_WON || 
-                             game.getState() == GameState.HUNTERS_WON)) {
-            if (game.isRunner(player)) {
-                // Handle runner death
-                gameManager.handleRunnerDeath(player);
-                
-                // Update the active game boss bar to reflect fewer runners
-                gameManager.updateActiveGameBossBar(game);
-                
-                // Broadcast death message
-                String deathMessage = ChatColor.RED + player.getName() + " has died! They are now spectating.";
-                GameUtils.broadcastMessageToGame(plugin, game, deathMessage);
-            }
-            
-            // Schedule immediate respawn for all players in the game
-            plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
-                player.spigot().respawn();
-            }, 1L);
-        }
+        // Handle runner death
+        gameManager.handleRunnerDeath(player);
+        
+        // Update the active game boss bar to reflect fewer runners
+        gameManager.updateActiveGameBossBar(game);
+        
+        // Broadcast death message
+        String deathMessage = ChatColor.RED + player.getName() + " has died! They are now spectating.";
+        GameUtils.broadcastMessageToGame(plugin, game, deathMessage);
+    }
+    
+    /**
+     * Respawns players who died while their game is still ongoing right away.
+     */
+    private void scheduleRespawn(PlayerDeathEvent event, GameContext context) {
+        Player player = context.getPlayer();
+        
+        // Schedule immediate respawn for all players in the game
+        plugin.getSchedulerService().runForEntityLater(player, () -> {
+            player.spigot().respawn();
+        }, 1L);
     }
     
     /**
@@ -124,8 +155,8 @@ public class PlayerListener implements Listener {
      * Helper method to check and give a new compass after a delay
      */
     private void scheduleCompassCheck(Player player, Game game) {
-        plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
-            if (GameUtils.hasCompass(player)) return;
+        plugin.getSchedulerService().runForEntityLater(player, () -> {
+            if (GameUtils.hasTrackingCompass(player, itemClassifier)) return;
             
             CompassTask compassTask = gameManager.getCompassTask(game.getName());
             if (compassTask != null) {
@@ -134,6 +165,22 @@ public class PlayerListener implements Listener {
         }, 5L); // Slight delay to ensure inventory is set up
     }
     
+    /**
+     * Handles player join events.
+     * Players who left or lost connection during a game, or were in a game when the server
+     * crashed, get their saved state back.
+     */
+    @EventHandler(priority = EventPriority.NORMAL)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        Player player = event.getPlayer();
+        PlayerStateManager playerStateManager = gameManager.getPlayerStateManager();
+        plugin.getPlayerNameIndex().playerJoined(player);
+        
+        if (gameManager.getPlayerGame(player) == null && playerStateManager.hasSavedState(player.getUniqueId())) {
+            playerStateManager.restorePlayerState(player);
+        }
+    }
+    
     /**
      * Handles player quit events.
      */
@@ -159,6 +206,7 @@ public class PlayerListener implements Listener {
         // Clean up team chat preference and compass cooldown
         teamChatManager.removePlayer(player);
         compassCooldowns.remove(player.getUniqueId());
+        plugin.getPlayerNameIndex().playerQuit(player);
     }
     
     /**
@@ -177,7 +225,7 @@ public class PlayerListener implements Listener {
         ItemStack item = event.getItem();
         
         // Check if this is a tracking compass
-        if (item == null || item.getType() != Material.COMPASS) {
+        if (!itemClassifier.is(item, PluginItem.TRACKING_COMPASS)) {
             return;
         }
         
@@ -190,7 +238,7 @@ public class PlayerListener implements Listener {
         
         // Get the compass task
         CompassTask compassTask = gameManager.getCompassTask(game.getName());
-        if (compassTask == null || !compassTask.isTrackingCompass(item)) {
+        if (compassTask == null) {
             return;
         }
         
@@ -230,19 +278,8 @@ public class PlayerListener implements Listener {
     /**
      * Prevents inventory interaction in lobby.
      */
-    @EventHandler(priority = EventPriority.NORMAL)
-    public void onInventoryClick(InventoryClickEvent event) {
-        if (!(event.getWhoClicked() instanceof Player)) {
-            return;
-        }
-        
-        Player player = (Player) event.getWhoClicked();
-        Game game = gameManager.getPlayerGame(player);
-        
-        // Prevent moving items in lobby state only
-        if (game != null && game.getState() == GameState.LOBBY) {
-            event.setCancelled(true);
-        }
+    private void preventLobbyInventoryClick(InventoryClickEvent event, GameContext context) {
+        event.setCancelled(true);
     }
     
     /**
@@ -0,0 +1,311 @@
+package com.thefallersgames.bettermanhunt.listeners;
+
+import com.thefallersgames.bettermanhunt.Plugin;
+import com.thefallersgames.bettermanhunt.managers.GameManager;
+import com.thefallersgames.bettermanhunt.models.Game;
+import com.thefallersgames.bettermanhunt.services.SchedulerService;
+import com.thefallersgames.bettermanhunt.services.WorldManagementService;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.boss.BarColor;
+import org.bukkit.boss.BarStyle;
+import org.bukkit.boss.BossBar;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerPortalEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerTeleportEvent.TeleportCause;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Listener that sends players through the portals of their game's worlds.
+ * When the target nether or end doesn't exist yet, it is created on demand while the
+ * player is held at the portal with a boss bar that shows how long it has been generating.
+ * Players crossing between the overworld and the nether arrive at a safe spot near the
+ * scaled coordinates.
+ */
+public class PortalListener implements Listener {
+    // The nether's bedrock roof; players must arrive below it
+    private static final int NETHER_ROOF_Y = 127;
+
+    private final Plugin plugin;
+    private final GameManager gameManager;
+    private final WorldManagementService worldManagementService;
+    private final Map<UUID, HeldPlayer> heldPlayers = new HashMap<>();
+    private SchedulerService.Task progressTask;
+
+    /**
+     * A player waiting at a portal for a dimension to be created.
+     */
+    private static class HeldPlayer {
+        private final Location location;
+        private final BossBar bossBar;
+        private final String dimensionLabel;
+        private final long startTime;
+
+        private HeldPlayer(Location location, BossBar bossBar, String dimensionLabel) {
+            this.location = location;
+            this.bossBar = bossBar;
+            this.dimensionLabel = dimensionLabel;
+            this.startTime = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Constructs a new PortalListener.
+     *
+     * @param plugin The plugin instance
+     * @param gameManager The game manager to use
+     * @param worldManagementService The service that creates the dimensions
+     */
+    public PortalListener(Plugin plugin, GameManager gameManager, WorldManagementService worldManagementService) {
+        this.plugin = plugin;
+        this.gameManager = gameManager;
+        this.worldManagementService = worldManagementService;
+    }
+
+    /**
+     * Routes portal use inside a game's worlds to the matching dimension of that game,
+     * creating the nether or end first if needed.
+     */
+    @EventHandler(priority = EventPriority.LOW)
+    public void onPlayerPortal(PlayerPortalEvent event) {
+        Player player = event.getPlayer();
+        Game game = gameManager.getPlayerGame(player);
+        if (game == null) {
+            return;
+        }
+
+        String baseWorldName = game.getWorld().getName();
+        World fromWorld = event.getFrom().getWorld();
+        if (fromWorld == null || !isGameWorld(fromWorld.getName(), baseWorldName)) {
+            return;
+        }
+
+        World.Environment targetEnvironment = getTargetEnvironment(fromWorld.getEnvironment(), event.getCause());
+        if (targetEnvironment == null) {
+            return;
+        }
+
+        // The overworld always exists; the nether and end may not have been created yet
+        World targetWorld = targetEnvironment == World.Environment.NORMAL
+            ? game.getWorld()
+            : Bukkit.getWorld(baseWorldName + (targetEnvironment == World.Environment.NETHER ? "_nether" : "_the_end"));
+
+        if (targetWorld == null) {
+            event.setCancelled(true);
+            holdPlayer(player, event.getFrom(), baseWorldName, targetEnvironment);
+            return;
+        }
+
+        // Make sure the portal leads into this game's dimension rather than the server's default one
+        Location to = event.getTo();
+        if (to == null || to.getWorld() == null || !to.getWorld().equals(targetWorld)) {
+            event.setTo(getDestination(event.getFrom(), targetWorld, game));
+        }
+    }
+
+    /**
+     * Keeps held players at the portal, only allowing them to look around.
+     */
+    @EventHandler(priority = EventPriority.NORMAL)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        HeldPlayer held = heldPlayers.get(event.getPlayer().getUniqueId());
+        if (held == null) {
+            return;
+        }
+
+        Location from = event.getFrom();
+        Location to = event.getTo();
+        if (to != null && (from.getX() != to.getX() || from.getY() != to.getY() || from.getZ() != to.getZ())) {
+            Location back = held.location.clone();
+            back.setYaw(to.getYaw());
+            back.setPitch(to.getPitch());
+            event.setTo(back);
+        }
+    }
+
+    /**
+     * Releases held players when they leave the server.
+     */
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        release(event.getPlayer());
+    }
+
+    /**
+     * Holds a player at the portal until the target dimension exists.
+     */
+    private void holdPlayer(Player player, Location portalLocation, String baseWorldName, World.Environment environment) {
+        UUID playerId = player.getUniqueId();
+        if (heldPlayers.containsKey(playerId)) {
+            return;
+        }
+
+        String label = environment == World.Environment.NETHER ? "the Nether" : "the End";
+        BossBar bossBar = Bukkit.createBossBar("Generating " + label + "...", BarColor.PURPLE, BarStyle.SOLID);
+        bossBar.setProgress(1.0);
+        bossBar.addPlayer(player);
+        heldPlayers.put(playerId, new HeldPlayer(portalLocation.clone(), bossBar, label));
+        startProgressTask();
+
+        worldManagementService.ensureDimension(baseWorldName, environment).thenAccept(world ->
+            plugin.getSchedulerService().runTask(() -> {
+                if (!heldPlayers.containsKey(playerId)) {
+                    return;
+                }
+                release(player);
+
+                if (!player.isOnline()) {
+                    return;
+                }
+
+                // The player is still standing in the portal, so the next portal event takes them through
+                // and lets the server place the arrival portal
+                if (world == null) {
+                    player.sendMessage("§c" + capitalize(label) + " could not be created.");
+                } else {
+                    player.sendMessage("§a" + capitalize(label) + " is ready!");
+                }
+            }));
+    }
+
+    /**
+     * Stops holding a player and removes their progress bar.
+     */
+    private void release(Player player) {
+        HeldPlayer held = heldPlayers.remove(player.getUniqueId());
+        if (held != null) {
+            held.bossBar.removeAll();
+        }
+
+        if (heldPlayers.isEmpty() && progressTask != null) {
+            progressTask.cancel();
+            progressTask = null;
+        }
+    }
+
+    /**
+     * Starts the task that updates the boss bars of held players with the time spent generating.
+     * A single dimension is created in one step and reports no intermediate progress, so the bar
+     * stays full instead of guessing how far along it is.
+     */
+    private void startProgressTask() {
+        if (progressTask != null) {
+            return;
+        }
+
+        progressTask = plugin.getSchedulerService().runTaskTimer(() -> {
+            long now = System.currentTimeMillis();
+            for (HeldPlayer held : heldPlayers.values()) {
+                long elapsed = now - held.startTime;
+                held.bossBar.setTitle("Generating " + held.dimensionLabel + "... " + (elapsed / 1000) + "s");
+            }
+        }, 0L, 20L);
+    }
+
+    /**
+     * Checks whether a world is the overworld, nether or end of a game.
+     */
+    private boolean isGameWorld(String worldName, String baseWorldName) {
+        return worldName.equals(baseWorldName)
+            || worldName.equals(baseWorldName + "_nether")
+            || worldName.equals(baseWorldName + "_the_end");
+    }
+
+    /**
+     * Capitalizes the first letter of a text.
+     */
+    private String capitalize(String text) {
+        return text.substring(0, 1).toUpperCase() + text.substring(1);
+    }
+
+    /**
+     * Gets the dimension a portal leads to from a given dimension.
+     *
+     * @return The target environment, or null if the portal is not handled
+     */
+    private World.Environment getTargetEnvironment(World.Environment from, TeleportCause cause) {
+        if (cause == TeleportCause.NETHER_PORTAL) {
+            if (from == World.Environment.NORMAL) {
+                return World.Environment.NETHER;
+            }
+            if (from == World.Environment.NETHER) {
+                return World.Environment.NORMAL;
+            }
+        } else if (cause == TeleportCause.END_PORTAL) {
+            if (from == World.Environment.NORMAL) {
+                return World.Environment.THE_END;
+            }
+            if (from == World.Environment.THE_END) {
+                return World.Environment.NORMAL;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets where a player arrives in the target dimension.
+     * Nether travel scales coordinates by 8 and lands on a safe spot near them, entering the end
+     * lands on the obsidian platform, and leaving the end returns to the overworld spawn.
+     */
+    private Location getDestination(Location from, World targetWorld, Game game) {
+        World.Environment fromEnvironment = from.getWorld().getEnvironment();
+
+        switch (targetWorld.getEnvironment()) {
+            case NETHER:
+                return findSafeLocation(targetWorld, from.getX() / 8.0, from.getY(), from.getZ() / 8.0, from.getYaw(), from.getPitch());
+            case THE_END:
+                return new Location(targetWorld, 100.5, 49, 0.5, 90f, 0f);
+            default:
+                if (fromEnvironment == World.Environment.NETHER) {
+                    return findSafeLocation(targetWorld, from.getX() * 8.0, from.getY(), from.getZ() * 8.0, from.getYaw(), from.getPitch());
+                }
+                return game.getWorld().getSpawnLocation();
+        }
+    }
+
+    /**
+     * Finds a spot to stand in a column of a world, starting at a height clamped to the world
+     * (below the roof in the nether) and searching alternately down and up from there.
+     * If the whole column is unsafe, the clamped height is used.
+     */
+    private Location findSafeLocation(World world, double x, double y, double z, float yaw, float pitch) {
+        int blockX = (int) Math.floor(x);
+        int blockZ = (int) Math.floor(z);
+        int top = world.getEnvironment() == World.Environment.NETHER ? NETHER_ROOF_Y : world.getMaxHeight();
+        int minY = 1;
+        int maxY = top - 2;
+        int startY = Math.max(minY, Math.min(maxY, (int) Math.floor(y)));
+
+        for (int offset = 0; offset <= maxY - minY; offset++) {
+            int below = startY - offset;
+            if (below >= minY && isSafe(world, blockX, below, blockZ)) {
+                return new Location(world, blockX + 0.5, below, blockZ + 0.5, yaw, pitch);
+            }
+            int above = startY + offset;
+            if (offset > 0 && above <= maxY && isSafe(world, blockX, above, blockZ)) {
+                return new Location(world, blockX + 0.5, above, blockZ + 0.5, yaw, pitch);
+            }
+        }
+        return new Location(world, x, startY, z, yaw, pitch);
+    }
+
+    /**
+     * Checks whether a player can stand at a block: solid ground that doesn't burn, and air for feet and head.
+     */
+    private boolean isSafe(World world, int x, int y, int z) {
+        Material ground = world.getBlockAt(x, y - 1, z).getType();
+        return ground.isSolid() && ground != Material.MAGMA_BLOCK
+            && world.getBlockAt(x, y, z).getType().isAir()
+            && world.getBlockAt(x, y + 1, z).getType().isAir();
+    }
+}
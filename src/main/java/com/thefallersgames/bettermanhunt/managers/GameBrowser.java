@@ -0,0 +1,292 @@
+package com.thefallersgames.bettermanhunt.managers;
+
+import com.thefallersgames.bettermanhunt.Plugin;
+import com.thefallersgames.bettermanhunt.models.Game;
+import com.thefallersgames.bettermanhunt.models.GameState;
+import com.thefallersgames.bettermanhunt.models.PluginItem;
+import com.thefallersgames.bettermanhunt.services.ItemClassifier;
+import com.thefallersgames.bettermanhunt.utils.GuiMenu;
+import com.thefallersgames.bettermanhunt.utils.GuiUtil;
+import org.bukkit.Material;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * The game selection GUI, shared by every player who opens it.
+ * Games are listed in the order they were created, over as many pages as needed. Each page is a
+ * single inventory that all of its viewers look at, and only the slots of games whose state or
+ * team sizes changed are redrawn, as games notify the browser of their changes.
+ * Must only be used on the main thread.
+ */
+public class GameBrowser {
+    private static final int SIZE = 45;
+    private static final int[] GAME_SLOTS = {
+            10, 11, 12, 13, 14, 15, 16,
+            19, 20, 21, 22, 23, 24, 25,
+            28, 29, 30, 31, 32, 33, 34
+    };
+    private static final int GAMES_PER_PAGE = GAME_SLOTS.length;
+    private static final int EMPTY_NOTICE_SLOT = 22;
+    private static final int PREVIOUS_PAGE_SLOT = 39;
+    private static final int CREATE_GAME_SLOT = 40;
+    private static final int NEXT_PAGE_SLOT = 41;
+    private static final Material BORDER = Material.GLASS;
+    private static final Material FILLER = Material.LIGHT_GRAY_STAINED_GLASS_PANE;
+
+    // The position of the empty notice in the listing
+    private static final int EMPTY_NOTICE_POSITION = Arrays.binarySearch(GAME_SLOTS, EMPTY_NOTICE_SLOT);
+
+    private final ItemClassifier itemClassifier;
+    private final boolean canCreateGames;
+    private final BiConsumer<Player, Game> joinAction;
+    private final GuiMenu.ClickAction createAction;
+
+    private final List<Game> games = new ArrayList<>();
+    private final Map<String, Integer> positions = new HashMap<>();
+    private final Map<String, Listing> listings = new HashMap<>();
+    private final List<GuiMenu> pages = new ArrayList<>();
+
+    /**
+     * Creates a new GameBrowser.
+     *
+     * @param plugin The plugin instance
+     * @param joinAction What happens when a player clicks a listed game
+     * @param createAction What happens when a player clicks the create game button
+     */
+    public GameBrowser(Plugin plugin, BiConsumer<Player, Game> joinAction, GuiMenu.ClickAction createAction) {
+        this.itemClassifier = plugin.getItemClassifier();
+        this.canCreateGames = plugin.isMultiverseAvailable();
+        this.joinAction = joinAction;
+        this.createAction = createAction;
+        updatePageCount();
+    }
+
+    /**
+     * Opens a page of the browser for a player.
+     *
+     * @param player The player
+     * @param page The page index, clamped to the existing pages
+     */
+    public void open(Player player, int page) {
+        pages.get(Math.max(0, Math.min(page, pages.size() - 1))).open(player);
+    }
+
+    /**
+     * Adds a newly created game to the end of the listing.
+     *
+     * @param game The game
+     */
+    public void addGame(Game game) {
+        if (positions.containsKey(game.getName())) {
+            return;
+        }
+
+        positions.put(game.getName(), games.size());
+        games.add(game);
+        updatePageCount();
+        renderIndex(games.size() - 1);
+
+        // The notice that there are no games goes away with the first one
+        if (games.size() == 1) {
+            renderIndex(EMPTY_NOTICE_POSITION);
+        }
+    }
+
+    /**
+     * Removes a deleted game. The games listed after it move up one slot.
+     *
+     * @param game The game
+     */
+    public void removeGame(Game game) {
+        Integer index = positions.remove(game.getName());
+        if (index == null) {
+            return;
+        }
+
+        games.remove((int) index);
+        listings.remove(game.getName());
+        for (int i = index; i < games.size(); i++) {
+            positions.put(games.get(i).getName(), i);
+        }
+
+        // Redraw the games that moved and the slot that is now empty
+        for (int i = index; i <= games.size(); i++) {
+            renderIndex(i);
+        }
+        if (games.isEmpty()) {
+            renderIndex(EMPTY_NOTICE_POSITION);
+        }
+        updatePageCount();
+    }
+
+    /**
+     * Redraws a game's slot if its state or team sizes changed since it was last drawn.
+     *
+     * @param game The game
+     */
+    public void updateGame(Game game) {
+        Integer index = positions.get(game.getName());
+        if (index != null && !Listing.of(game).equals(listings.get(game.getName()))) {
+            renderIndex(index);
+        }
+    }
+
+    /**
+     * Draws the slot for a position in the listing.
+     */
+    private void renderIndex(int index) {
+        int page = index / GAMES_PER_PAGE;
+        if (page >= pages.size()) {
+            return;
+        }
+
+        int slot = GAME_SLOTS[index % GAMES_PER_PAGE];
+        GuiMenu menu = pages.get(page);
+        if (index < games.size()) {
+            Game game = games.get(index);
+            Listing listing = Listing.of(game);
+            listings.put(game.getName(), listing);
+            menu.setItem(slot, createGameItem(game.getName(), listing));
+        } else if (games.isEmpty() && slot == EMPTY_NOTICE_SLOT && page == 0) {
+            menu.setItem(slot, GuiUtil.createItem(Material.BARRIER, "&c&lNo Active Games",
+                    "&7There are no active games.",
+                    canCreateGames ? "&7Click 'Create New Game' to make one!" : "&7Ask an admin to create one!"));
+        } else {
+            menu.setItem(slot, GuiUtil.createItem(FILLER, " "));
+        }
+    }
+
+    /**
+     * Adds or removes pages so every game has a slot, and updates the page buttons.
+     * Players looking at a page that is removed are moved to the last page.
+     */
+    private void updatePageCount() {
+        int required = Math.max(1, (games.size() + GAMES_PER_PAGE - 1) / GAMES_PER_PAGE);
+        if (required == pages.size()) {
+            return;
+        }
+
+        while (pages.size() < required) {
+            int page = pages.size();
+            pages.add(createPage(page));
+            for (int position = 0; position < GAMES_PER_PAGE; position++) {
+                renderIndex(page * GAMES_PER_PAGE + position);
+            }
+        }
+
+        List<HumanEntity> displaced = new ArrayList<>();
+        while (pages.size() > required) {
+            displaced.addAll(pages.remove(pages.size() - 1).getInventory().getViewers());
+        }
+
+        for (int i = 0; i < pages.size(); i++) {
+            renderPageButtons(i);
+        }
+
+        Inventory lastPage = pages.get(pages.size() - 1).getInventory();
+        for (HumanEntity viewer : displaced) {
+            viewer.openInventory(lastPage);
+        }
+    }
+
+    /**
+     * Creates an empty page with its border and the create game button, and binds its game slots
+     * to the games listed there.
+     */
+    private GuiMenu createPage(int page) {
+        GuiMenu menu = new GuiMenu("&8&lManhunt - Game Selection", SIZE, BORDER);
+
+        if (canCreateGames) {
+            menu.setItem(CREATE_GAME_SLOT, itemClassifier.createItem(PluginItem.CREATE_GAME, "&a&lCreate New Game",
+                    "&7Click to create a new Manhunt game"), createAction);
+        }
+
+        // A game slot always stands for the same position in the listing, whichever game is there now
+        for (int position = 0; position < GAMES_PER_PAGE; position++) {
+            int index = page * GAMES_PER_PAGE + position;
+            menu.setAction(GAME_SLOTS[position], player -> {
+                if (index < games.size()) {
+                    joinAction.accept(player, games.get(index));
+                }
+            });
+        }
+        return menu;
+    }
+
+    /**
+     * Shows the previous and next page buttons where those pages exist.
+     */
+    private void renderPageButtons(int page) {
+        GuiMenu menu = pages.get(page);
+        ItemStack border = GuiUtil.createItem(BORDER, " ");
+
+        if (page > 0) {
+            menu.setItem(PREVIOUS_PAGE_SLOT, itemClassifier.createItem(PluginItem.PREVIOUS_PAGE, "&e&lPrevious Page",
+                    "&7Go to page " + page + " of " + pages.size()), player -> open(player, page - 1));
+        } else {
+            menu.setItem(PREVIOUS_PAGE_SLOT, border);
+        }
+
+        if (page < pages.size() - 1) {
+            menu.setItem(NEXT_PAGE_SLOT, itemClassifier.createItem(PluginItem.NEXT_PAGE, "&e&lNext Page",
+                    "&7Go to page " + (page + 2) + " of " + pages.size()), player -> open(player, page + 1));
+        } else {
+            menu.setItem(NEXT_PAGE_SLOT, border);
+        }
+    }
+
+    /**
+     * Creates the item that lists a game.
+     */
+    private ItemStack createGameItem(String gameName, Listing listing) {
+        String stateColor = listing.state == GameState.LOBBY ? "&a" : "&c";
+        return itemClassifier.createItem(PluginItem.JOIN_GAME, "&b" + gameName,
+                "&7Status: " + stateColor + listing.state.name(),
+                "&7Runners: &e" + listing.runners,
+                "&7Hunters: &e" + listing.hunters,
+                "",
+                "&eClick to join");
+    }
+
+    /**
+     * What a game's slot shows, used to skip redrawing slots that haven't changed.
+     */
+    private static final class Listing {
+        private final GameState state;
+        private final int runners;
+        private final int hunters;
+
+        private Listing(GameState state, int runners, int hunters) {
+            this.state = state;
+            this.runners = runners;
+            this.hunters = hunters;
+        }
+
+        private static Listing of(Game game) {
+            return new Listing(game.getState(), game.getRunners().size(), game.getHunters().size());
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Listing)) {
+                return false;
+            }
+            Listing listing = (Listing) other;
+            return state == listing.state && runners == listing.runners && hunters == listing.hunters;
+        }
+
+        @Override
+        public int hashCode() {
+            return (state.hashCode() * 31 + runners) * 31 + hunters;
+        }
+    }
+}
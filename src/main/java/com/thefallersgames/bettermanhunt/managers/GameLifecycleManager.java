@@ -2,19 +2,29 @@ package com.thefallersgames.bettermanhunt.managers;
 
 import com.thefallersgames.bettermanhunt.Plugin;
 import com.thefallersgames.bettermanhunt.services.WorldManagementService;
+import com.thefallersgames.bettermanhunt.services.GameJournal;
 import com.thefallersgames.bettermanhunt.services.GameTaskService;
+import com.thefallersgames.bettermanhunt.services.LobbyService;
+import com.thefallersgames.bettermanhunt.services.SchedulerService;
+import com.thefallersgames.bettermanhunt.services.TeleportService;
+import com.thefallersgames.bettermanhunt.services.WorldDeletionQueue;
+import com.thefallersgames.bettermanhunt.services.WorldPoolService;
 import com.thefallersgames.bettermanhunt.models.Game;
+import com.thefallersgames.bettermanhunt.models.GameCleanup;
 import com.thefallersgames.bettermanhunt.models.GameState;
+import com.thefallersgames.bettermanhunt.tasks.GameCleanupTask;
 import org.bukkit.Bukkit;
 import org.bukkit.GameMode;
 import org.bukkit.World;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.ChatColor;
+import org.bukkit.boss.BossBar;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.logging.Logger;
@@ -24,6 +34,7 @@ import java.util.logging.Logger;
  */
 public class GameLifecycleManager {
     private final Plugin plugin;
+    private final SchedulerService scheduler;
     private final Logger logger;
     private final GameRegistry gameRegistry;
     private final GameTaskService gameTaskService;
@@ -31,7 +42,13 @@ public class GameLifecycleManager {
     private final HeadstartManager headstartManager;
     private final GameSetupManager gameSetupManager;
     private final WorldManagementService worldManagementService;
+    private final LobbyService lobbyService;
+    private final TeleportService teleportService;
     private final String worldsFolder;
+    private final int cleanupPlayersPerTick;
+    private final long cleanupBudgetMillis;
+    private final GameCleanupTask.Steps cleanupSteps = new CleanupSteps();
+    private GameCleanupTask cleanupTask;
 
     /**
      * Constructs a new GameLifecycleManager.
@@ -51,6 +68,7 @@ public class GameLifecycleManager {
             HeadstartManager headstartManager,
             GameSetupManager gameSetupManager) {
         this.plugin = plugin;
+        this.scheduler = plugin.getSchedulerService();
         this.logger = plugin.getLogger();
         this.gameRegistry = gameRegistry;
         this.gameTaskService = gameTaskService;
@@ -58,7 +76,11 @@ public class GameLifecycleManager {
         this.headstartManager = headstartManager;
         this.gameSetupManager = gameSetupManager;
         this.worldManagementService = plugin.getWorldManagementService();
+        this.lobbyService = plugin.getLobbyService();
+        this.teleportService = plugin.getTeleportService();
         this.worldsFolder = plugin.getConfig().getString("custom-worlds-folder", "ManhuntWorlds");
+        this.cleanupPlayersPerTick = plugin.getConfig().getInt("cleanup.max-players-per-tick", 5);
+        this.cleanupBudgetMillis = plugin.getConfig().getLong("cleanup.tick-budget-ms", 5L);
     }
 
     /**
@@ -75,8 +97,25 @@ public class GameLifecycleManager {
         }
 
         Game game = new Game(name, owner, world);
+        
+        // Keep the team chat audiences, the game browser and the game journal in step with the game
+        TeamChatManager teamChatManager = plugin.getTeamChatManager();
+        GameBrowser gameBrowser = plugin.getGuiManager().getGameBrowser();
+        GameJournal gameJournal = plugin.getGameJournal();
+        gameJournal.gameCreated(game);
+        game.setRosterListener(changed -> {
+            gameJournal.rosterChanged(changed);
+            teamChatManager.publishAudiences(changed);
+            gameBrowser.updateGame(changed);
+        });
+        game.setStateListener(changed -> {
+            gameJournal.stateChanged(changed);
+            gameBrowser.updateGame(changed);
+        });
+        
         gameRegistry.registerGame(game, owner);
         game.addRunner(owner); // Default to runner team
+        gameBrowser.addGame(game);
         
         // Create lobby boss bar
         gameTaskService.createLobbyBossBar(game);
@@ -87,9 +126,12 @@ public class GameLifecycleManager {
 
     /**
      * Deletes a Manhunt game.
+     * Its players are restored over the following ticks by the cleanup task, after which the game
+     * is unregistered and its boss bar and world are torn down. While the plugin is disabling, all
+     * of that happens right away.
      *
      * @param gameName The name of the game to delete
-     * @return True if the game was deleted, false if the game doesn't exist
+     * @return True if the game was deleted or is already being deleted, false if the game doesn't exist
      */
     public boolean deleteGame(String gameName) {
         Game game = gameRegistry.getGame(gameName);
@@ -97,96 +139,152 @@ public class GameLifecycleManager {
             return false;
         }
 
-        // Get the world name before cleaning up players
-        String worldName = game.getWorld().getName();
-        boolean isDynamicallyGenerated = worldName.contains(worldsFolder + "/");
-
         // Set game state to DELETING if not already in ENDING or DELETING state
         if (game.getState() != GameState.ENDING && game.getState() != GameState.DELETING) {
             game.setState(GameState.DELETING);
         }
 
-        // Create a copy of player UUIDs to avoid concurrent modification
-        Set<UUID> allPlayers = new HashSet<>(game.getAllPlayers());
-        
-        // Clean up players in the game
-        for (UUID playerId : allPlayers) {
+        queueCleanup(game, true);
+        logger.info("Deleting game: " + gameName);
+        return true;
+    }
+
+    /**
+     * Queues the cleanup of a game unless it is already queued, starting the cleanup task if needed.
+     */
+    private void queueCleanup(Game game, boolean notifyPlayers) {
+        if (cleanupTask == null || cleanupTask.isCancelled()) {
+            cleanupTask = new GameCleanupTask(logger, cleanupSteps, cleanupPlayersPerTick, cleanupBudgetMillis);
+            if (plugin.isEnabled()) {
+                cleanupTask.runTaskTimer(scheduler, 1L, 1L);
+            }
+        }
+
+        if (!cleanupTask.contains(game.getName())) {
+            cleanupTask.add(new GameCleanup(game, notifyPlayers));
+        }
+
+        // No further ticks will run while the plugin is disabling
+        if (!plugin.isEnabled()) {
+            cleanupTask.completeAll();
+        }
+    }
+
+    /**
+     * The stages of a game cleanup, run by the cleanup task.
+     */
+    private class CleanupSteps implements GameCleanupTask.Steps {
+        @Override
+        public CompletableFuture<Boolean> restorePlayer(GameCleanup cleanup, UUID playerId) {
+            Game game = cleanup.getGame();
+            gameRegistry.removePlayerFromGame(playerId);
+
+            // Players who left the game or went offline since the cleanup was queued are restored elsewhere
             Player player = Bukkit.getPlayer(playerId);
-            if (player != null) {
-                // Make sure player is unfrozen if they were a hunter
-                if (headstartManager.isPlayerFrozen(playerId)) {
-                    headstartManager.unfreezeHunter(player);
-                }
-                
-                // First remove player from the game to ensure no more game events affect them
-                game.removePlayer(player);
-                gameRegistry.removePlayerFromGame(playerId);
-                
-                // Then restore their state
-                playerStateManager.restorePlayerState(player);
-                
-                // Remove from boss bar
-                gameTaskService.removePlayerFromBossBar(gameName, player);
-                
+            if (player == null || !game.getAllPlayers().contains(playerId)) {
+                return null;
+            }
+
+            // Make sure player is unfrozen if they were a hunter
+            if (headstartManager.isPlayerFrozen(playerId)) {
+                headstartManager.unfreezeHunter(player);
+            }
+
+            // First remove player from the game to ensure no more game events affect them
+            game.removePlayer(player);
+            gameTaskService.removePlayerFromBossBar(game.getName(), player);
+            if (cleanup.isNotifyPlayers()) {
                 player.sendMessage("§cThe game has been deleted.");
             }
+
+            // Then restore their state (which will teleport them to lobby/restore location)
+            return playerStateManager.restorePlayerState(player);
         }
-        
-        // Clean up game resources
-        gameTaskService.cleanupGameTasks(gameName);
-        gameRegistry.unregisterGame(gameName);
-        
-        // If this was a dynamically generated world, delete it
-        if (isDynamicallyGenerated) {
+
+        @Override
+        public void unregister(GameCleanup cleanup) {
+            Game game = cleanup.getGame();
+            String gameName = game.getName();
+            lobbyService.releaseCapsule(gameName);
+            gameRegistry.unregisterGame(gameName);
+            game.setRosterListener(null);
+            game.setStateListener(null);
+            plugin.getTeamChatManager().removeAudiences(gameName);
+            plugin.getGuiManager().getGameBrowser().removeGame(game);
+            plugin.getGameJournal().gameEnded(gameName);
+        }
+
+        @Override
+        public void removeBossBar(GameCleanup cleanup) {
+            gameTaskService.cleanupGameTasks(cleanup.getGameName());
+        }
+
+        @Override
+        public void tearDownWorld(GameCleanup cleanup) {
+            String worldName = cleanup.getWorldName();
+            
+            // Only dynamically generated worlds are deleted or reset for reuse
+            if (!worldName.contains(worldsFolder + "/")) {
+                return;
+            }
+            
             // Check if the plugin is being disabled
             if (!plugin.isEnabled()) {
-                // Plugin is being disabled, delete the world synchronously
+                // Plugin is being disabled: the world is unloaded now and its files are queued for the next startup
                 try {
-                    // Still async but we'll wait for the result
-                    boolean deleted = worldManagementService.deleteWorld(worldName).get();
-                    if (deleted) {
-                        logger.info("Deleted dynamically generated world during shutdown: " + worldName);
+                    boolean unloaded = worldManagementService.deleteWorld(worldName).get();
+                    if (unloaded) {
+                        logger.info("Unloaded dynamically generated world during shutdown, its deletion is queued for the next startup: " + worldName);
                     } else {
-                        logger.warning("Failed to delete dynamically generated world during shutdown: " + worldName + 
-                                    ". The server might need to clean it up on next restart.");
+                        logger.warning("Failed to unload dynamically generated world during shutdown: " + worldName + 
+                                    ". Its deletion will be retried on the next startup.");
+                        queueWorldDeletion(worldName);
                     }
                 } catch (Exception e) {
                     logger.severe("Error deleting world during shutdown: " + worldName + " - " + e.getMessage());
+                    queueWorldDeletion(worldName);
                 }
             } else {
-                // Plugin is still enabled, schedule world deletion after a short delay
-                Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                    worldManagementService.deleteWorld(worldName)
-                        .thenAccept(deleted -> {
-                            if (deleted) {
-                                logger.info("Deleted dynamically generated world: " + worldName);
-                            } else {
-                                logger.warning("Failed to delete dynamically generated world: " + worldName);
-                                
-                                // Only attempt a second time if the plugin is still enabled
-                                if (plugin.isEnabled()) {
-                                    // Attempt to force delete after an additional delay if first attempt failed
-                                    Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                                        if (plugin.isEnabled()) {
-                                            worldManagementService.deleteWorld(worldName)
-                                                .thenAccept(forcedDelete -> {
-                                                    if (forcedDelete) {
-                                                        logger.info("Successfully force-deleted world: " + worldName);
-                                                    } else {
-                                                        logger.severe("Failed to force-delete world: " + worldName + ". Manual cleanup may be required.");
-                                                    }
-                                                });
-                                        }
-                                    }, 100L); // 5 second additional delay
-                                }
-                            }
-                        });
-                }, 40L); // 2 second delay
+                // Plugin is still enabled, schedule world cleanup after a short delay
+                scheduler.runTaskLater(() -> recycleOrDeleteWorld(worldName), 40L); // 2 second delay
             }
         }
+    }
+
+    /**
+     * Resets a finished game's world and returns it to the world pool when world reset is enabled,
+     * and deletes it otherwise or when the reset fails.
+     *
+     * @param worldName The name of the game world
+     */
+    private void recycleOrDeleteWorld(String worldName) {
+        WorldPoolService worldPoolService = plugin.getWorldPoolService();
+        if (worldPoolService == null 
+                || !worldManagementService.isWorldResetEnabled() 
+                || !worldManagementService.hasSnapshot(worldName)) {
+            queueWorldDeletion(worldName);
+            return;
+        }
         
-        logger.info("Deleted game: " + gameName);
-        return true;
+        worldManagementService.resetWorld(worldName).thenAccept(world -> {
+            if (world == null || !worldPoolService.returnWorld(world)) {
+                queueWorldDeletion(worldName);
+            }
+        });
+    }
+    
+    /**
+     * Hands a game world to the deletion queue, which retries the deletion until it succeeds.
+     *
+     * @param worldName The name of the game world
+     */
+    private void queueWorldDeletion(String worldName) {
+        WorldDeletionQueue deletionQueue = plugin.getWorldDeletionQueue();
+        if (deletionQueue != null) {
+            deletionQueue.enqueue(worldName);
+        } else {
+            worldManagementService.deleteWorld(worldName);
+        }
     }
 
     /**
@@ -211,13 +309,89 @@ public class GameLifecycleManager {
         // Set to STARTING state
         game.setState(GameState.STARTING);
         
-        // Get all players before teleportation starts
-        Set<UUID> allPlayers = new HashSet<>(game.getAllPlayers());
-        AtomicInteger pendingTeleports = new AtomicInteger(allPlayers.size());
-        
         // Set up boss bar for the starting state
         gameTaskService.setupStartingBossBar(game);
         
+        // Don't let anyone in before the nether and end exist
+        CompletableFuture<Boolean> worldReady = worldManagementService != null
+            ? worldManagementService.getReadiness(game.getWorld().getName())
+            : CompletableFuture.completedFuture(true);
+        
+        if (worldReady.isDone()) {
+            pregenerateAndTeleport(game, result);
+        } else {
+            BossBar bossBar = gameTaskService.getBossBar(game.getName());
+            if (bossBar != null) {
+                bossBar.setTitle("Game starting - Creating the Nether and End...");
+            }
+            
+            worldReady.thenAccept(ready -> scheduler.runTask(() -> {
+                // The game may have been deleted while we were waiting
+                if (game.getState() != GameState.STARTING) {
+                    result.complete(false);
+                    return;
+                }
+                if (!ready) {
+                    logger.warning("Starting game " + game.getName() + " although not every dimension could be created");
+                }
+                pregenerateAndTeleport(game, result);
+            }));
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Waits for running world deletions to finish, generates the spawn area and then moves the players into the game.
+     */
+    private void pregenerateAndTeleport(Game game, CompletableFuture<Boolean> result) {
+        // Unloading and deleting a world must not overlap the start; new deletions wait while the game is starting
+        WorldDeletionQueue deletionQueue = plugin.getWorldDeletionQueue();
+        CompletableFuture<Void> deletionsIdle = deletionQueue != null
+            ? deletionQueue.whenIdle()
+            : CompletableFuture.completedFuture(null);
+        
+        if (!deletionsIdle.isDone()) {
+            BossBar bossBar = gameTaskService.getBossBar(game.getName());
+            if (bossBar != null) {
+                bossBar.setTitle("Game starting - Waiting for an old world to be deleted...");
+            }
+            
+            deletionsIdle.thenRun(() -> {
+                // The game may have been deleted while we were waiting
+                if (game.getState() != GameState.STARTING) {
+                    result.complete(false);
+                    return;
+                }
+                pregenerate(game, result);
+            });
+            return;
+        }
+        
+        pregenerate(game, result);
+    }
+    
+    /**
+     * Generates the spawn area and then teleports the players.
+     */
+    private void pregenerate(Game game, CompletableFuture<Boolean> result) {
+        // Generate the spawn area first so the teleport and the hunters' release don't stall the server
+        game.setState(GameState.PREGENERATING);
+        // If the game is deleted or cancelled meanwhile, the start fails
+        gameTaskService.startPregeneration(game, () -> teleportPlayersToSpawn(game, result), () -> result.complete(false));
+    }
+    
+    /**
+     * Teleports all players from the lobby capsule to the game spawn and starts the game
+     * once every teleport has been attempted.
+     * The teleports go through the teleport service, which loads the spawn chunks first and
+     * spreads large games over several ticks.
+     */
+    private void teleportPlayersToSpawn(Game game, CompletableFuture<Boolean> result) {
+        // Get all players before teleportation starts
+        Set<UUID> allPlayers = new HashSet<>(game.getAllPlayers());
+        List<CompletableFuture<Boolean>> teleports = new ArrayList<>();
+        
         // Now teleport all players from the lobby capsule to the spawn position
         game.setState(GameState.TELEPORTING);
         
@@ -227,48 +401,47 @@ public class GameLifecycleManager {
         for (UUID playerId : allPlayers) {
             Player player = Bukkit.getPlayer(playerId);
             if (player == null) {
-                // Decrement counter for invalid players
-                if (pendingTeleports.decrementAndGet() == 0) {
-                    finalizeGameStart(game, result);
-                }
                 continue;
             }
             
-            // Schedule teleport on the main thread - from lobby capsule to spawn position
-            Bukkit.getScheduler().runTask(plugin, () -> {
-                boolean teleportSuccess = player.teleport(spawnLocation);
-                
-                if (!teleportSuccess) {
+            teleports.add(teleportService.teleport(player, spawnLocation).whenComplete((teleportSuccess, error) -> {
+                if (error == null && !teleportSuccess && player.isOnline()) {
                     player.sendMessage("§cFailed to teleport to the game spawn position!");
                     // Handle teleport failure - don't remove from game, but log the issue
                     logger.warning("Failed to teleport player " + player.getName() + " to spawn position");
                 }
-                
-                // Continue with remaining teleports regardless
-                if (pendingTeleports.decrementAndGet() == 0) {
-                    // All teleports attempted, check if we still have enough players
-                    if (game.getRunners().isEmpty() || game.getHunters().isEmpty()) {
-                        // Not enough players after teleportation, cancel game
-                        Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                            game.setState(GameState.ENDING);
-                            deleteGame(game.getName());
-                            result.complete(false);
-                        }, 1L);
-                    } else {
-                        // Proceed with game start
-                        finalizeGameStart(game, result);
-                    }
-                }
-            });
+            }));
         }
         
-        return result;
+        if (teleports.isEmpty()) {
+            finalizeGameStart(game, result);
+            return;
+        }
+        
+        // Continue once every teleport has been attempted, whatever the outcome
+        CompletableFuture.allOf(teleports.toArray(new CompletableFuture[0])).whenComplete((ignored, error) -> {
+            // All teleports attempted, check if we still have enough players
+            if (game.getRunners().isEmpty() || game.getHunters().isEmpty()) {
+                // Not enough players after teleportation, cancel game
+                scheduler.runTaskLater(() -> {
+                    game.setState(GameState.ENDING);
+                    deleteGame(game.getName());
+                    result.complete(false);
+                }, 1L);
+            } else {
+                // Proceed with game start
+                finalizeGameStart(game, result);
+            }
+        });
     }
     
     /**
      * Finalizes the game start after all teleportations are complete
      */
     private void finalizeGameStart(Game game, CompletableFuture<Boolean> result) {
+        // Everyone has left the lobby capsule
+        lobbyService.releaseCapsule(game.getName());
+        
         // Switch to headstart mode if headstart is enabled
         if (game.getHeadstartDuration() > 0) {
             game.setState(GameState.HEADSTART);
@@ -281,11 +454,13 @@ public class GameLifecycleManager {
                 // This will be called when headstart completes
                 game.setState(GameState.ACTIVE);
                 gameTaskService.transitionToActiveState(game);
+                gameTaskService.releasePregeneratedChunks(game);
             });
         } else {
             // No headstart - go directly to active state
             game.setState(GameState.ACTIVE);
             gameTaskService.setupGameStart(game, (g, player, isHunter) -> gameSetupManager.setupPlayer(g, player, isHunter));
+            gameTaskService.releasePregeneratedChunks(game);
         }
         
         // Mark the start as successful
@@ -340,7 +515,7 @@ public class GameLifecycleManager {
         }
         
         // Schedule task to clean up the game after showing results
-        Bukkit.getScheduler().runTaskLater(plugin, () -> {
+        scheduler.runTaskLater(() -> {
             // Transition to ENDING state
             game.setState(GameState.ENDING);
             
@@ -352,92 +527,15 @@ public class GameLifecycleManager {
     }
     
     /**
-     * Cleans up a game and removes all players
+     * Cleans up a game that ended and removes all players.
+     * The game is deleted through the cleanup task once every player has been moved out of its worlds.
      */
     private void cleanup(Game game) {
-        // Make a copy of all players to avoid concurrent modification issues
-        Set<UUID> allPlayers = new HashSet<>(game.getAllPlayers());
-        
-        // Track how many players we're attempting to teleport out
-        AtomicInteger pendingTeleports = new AtomicInteger(allPlayers.size());
-        
-        if (pendingTeleports.get() == 0) {
-            // No players to teleport, proceed to delete game
-            deleteGame(game.getName());
+        // The game may have been deleted while the results were shown
+        if (gameRegistry.getGame(game.getName()) != game) {
             return;
         }
-        
-        // Process all players
-        for (UUID playerId : allPlayers) {
-            Player player = Bukkit.getPlayer(playerId);
-            if (player != null) {
-                // Only schedule if plugin is enabled
-                if (plugin.isEnabled()) {
-                    // Schedule restoration on main thread
-                    Bukkit.getScheduler().runTask(plugin, () -> {
-                        // First remove from the game
-                        game.removePlayer(player);
-                        gameRegistry.removePlayerFromGame(player.getUniqueId());
-                        
-                        // Then restore player state (which will teleport them to lobby/restore location)
-                        playerStateManager.restorePlayerState(player);
-                        
-                        // Remove from boss bar
-                        gameTaskService.removePlayerFromBossBar(game.getName(), player);
-                        
-                        // Check if all teleports are complete
-                        if (pendingTeleports.decrementAndGet() == 0) {
-                            // Only schedule deletion if plugin is still enabled
-                            if (plugin.isEnabled()) {
-                                // Schedule game deletion 
-                                Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                                    if (plugin.isEnabled()) {
-                                        deleteGame(game.getName());
-                                    } else {
-                                        // Direct deletion without scheduling
-                                        deleteGame(game.getName());
-                                    }
-                                }, 20L); // 1 second delay after teleports
-                            } else {
-                                // Direct deletion without scheduling
-                                deleteGame(game.getName());
-                            }
-                        }
-                    });
-                } else {
-                    // Plugin is being disabled, do direct cleanup
-                    game.removePlayer(player);
-                    gameRegistry.removePlayerFromGame(player.getUniqueId());
-                    playerStateManager.restorePlayerState(player);
-                    gameTaskService.removePlayerFromBossBar(game.getName(), player);
-                    
-                    // Decrement counter
-                    if (pendingTeleports.decrementAndGet() == 0) {
-                        // Direct deletion without scheduling
-                        deleteGame(game.getName());
-                    }
-                }
-            } else {
-                // Player is null, just decrement counter
-                if (pendingTeleports.decrementAndGet() == 0) {
-                    // All players processed
-                    if (plugin.isEnabled()) {
-                        // Schedule deletion if plugin is still enabled
-                        Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                            if (plugin.isEnabled()) {
-                                deleteGame(game.getName());
-                            } else {
-                                // Direct deletion without scheduling
-                                deleteGame(game.getName());
-                            }
-                        }, 20L);
-                    } else {
-                        // Direct deletion without scheduling
-                        deleteGame(game.getName());
-                    }
-                }
-            }
-        }
+        queueCleanup(game, false);
     }
 
     /**
@@ -267,6 +267,16 @@ public class GameManager implements Listener {
         return gameRegistry.getAllGames();
     }
 
+    /**
+     * Gets the names of the games that start with a prefix, for tab completion.
+     *
+     * @param prefix The prefix, matched ignoring case
+     * @return The matching game names, in alphabetical order
+     */
+    public List<String> completeGameNames(String prefix) {
+        return gameRegistry.completeGameNames(prefix);
+    }
+
     /**
      * Gets all games in lobby state.
      *
@@ -285,6 +295,15 @@ public class GameManager implements Listener {
         return gameRegistry.getGamesWithStates(GameState.HEADSTART, GameState.ACTIVE);
     }
     
+    /**
+     * Checks whether any game is between its start and the moment its players arrive at the spawn.
+     * 
+     * @return True if a game is starting
+     */
+    public boolean isAnyGameStarting() {
+        return !gameRegistry.getGamesWithStates(GameState.STARTING, GameState.PREGENERATING, GameState.TELEPORTING).isEmpty();
+    }
+    
     /**
      * Gets the compass task for a game.
      * 
@@ -430,9 +449,9 @@ public class GameManager implements Listener {
      *
      * @param player The player to teleport
      * @param game The game
-     * @return True if teleportation was successful, false otherwise
+     * @return A CompletableFuture that completes with true if teleportation was successful, false otherwise
      */
-    public boolean teleportToLobbyCapsule(Player player, Game game) {
+    public CompletableFuture<Boolean> teleportToLobbyCapsule(Player player, Game game) {
         return lobbyService.teleportToLobbyCapsule(player, game);
     }
 } 
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.thefallersgames.bettermanhunt.managers;
 
 import com.thefallersgames.bettermanhunt.models.Game;
 import com.thefallersgames.bettermanhunt.models.GameState;
+import com.thefallersgames.bettermanhunt.utils.CompletionIndex;
 import org.bukkit.entity.Player;
 
 import java.util.*;
@@ -13,6 +14,7 @@ import java.util.stream.Collectors;
 public class GameRegistry {
     private final Map<String, Game> games;
     private final Map<UUID, String> playerGames;
+    private final CompletionIndex gameNames;
 
     /**
      * Creates a new GameRegistry.
@@ -20,6 +22,7 @@ public class GameRegistry {
     public GameRegistry() {
         this.games = new HashMap<>();
         this.playerGames = new HashMap<>();
+        this.gameNames = new CompletionIndex();
     }
 
     /**
@@ -40,6 +43,7 @@ public class GameRegistry {
      */
     public void registerGame(Game game, Player owner) {
         games.put(game.getName(), game);
+        gameNames.add(game.getName());
         playerGames.put(owner.getUniqueId(), game.getName());
     }
 
@@ -49,7 +53,9 @@ public class GameRegistry {
      * @param gameName The name of the game to unregister
      */
     public void unregisterGame(String gameName) {
-        games.remove(gameName);
+        if (games.remove(gameName) != null) {
+            gameNames.remove(gameName);
+        }
     }
 
     /**
@@ -80,6 +86,16 @@ public class GameRegistry {
         return new HashSet<>(games.keySet());
     }
 
+    /**
+     * Gets the names of the games that start with a prefix, ignoring case.
+     *
+     * @param prefix The prefix
+     * @return The matching game names, in alphabetical order
+     */
+    public List<String> completeGameNames(String prefix) {
+        return gameNames.complete(prefix);
+    }
+
     /**
      * Gets the game a player is in.
      *
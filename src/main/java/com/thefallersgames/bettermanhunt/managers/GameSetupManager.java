@@ -1,6 +1,8 @@
 package com.thefallersgames.bettermanhunt.managers;
 
 import com.thefallersgames.bettermanhunt.models.Game;
+import com.thefallersgames.bettermanhunt.models.GameState;
+import com.thefallersgames.bettermanhunt.services.TeleportService;
 import org.bukkit.Bukkit;
 import org.bukkit.boss.BossBar;
 import org.bukkit.entity.Player;
@@ -12,14 +14,17 @@ import java.util.UUID;
  */
 public class GameSetupManager {
     private final HeadstartManager headstartManager;
+    private final TeleportService teleportService;
     
     /**
      * Creates a new GameSetupManager.
      * 
      * @param headstartManager The headstart manager to use
+     * @param teleportService The teleport service to use
      */
-    public GameSetupManager(HeadstartManager headstartManager) {
+    public GameSetupManager(HeadstartManager headstartManager, TeleportService teleportService) {
         this.headstartManager = headstartManager;
+        this.teleportService = teleportService;
     }
     
     /**
@@ -58,24 +63,24 @@ public class GameSetupManager {
     public void setupPlayer(Game game, Player player, boolean isHunter) {
         // Clear inventory to remove lobby items
         player.getInventory().clear();
+        player.setGameMode(org.bukkit.GameMode.SURVIVAL);
         
-        // Teleport to world spawn location instead of game spawn location
-        boolean teleportSuccess = false;
-        try {
-            teleportSuccess = player.teleport(game.getWorld().getSpawnLocation());
+        // Teleport to world spawn location instead of game spawn location. Hunters are only frozen
+        // once they arrive, so the headstart never holds them at the location they left
+        teleportService.teleport(player, game.getWorld().getSpawnLocation()).whenComplete((teleportSuccess, error) -> {
+            if (error != null || !player.isOnline()) {
+                return;
+            }
             
             if (!teleportSuccess) {
                 player.sendMessage(org.bukkit.ChatColor.RED + "Failed to teleport to game world. You may experience issues.");
             }
-        } catch (Exception e) {
-            player.sendMessage(org.bukkit.ChatColor.RED + "Error teleporting to game world: " + e.getMessage());
-        }
-        
-        if (isHunter) {
-            headstartManager.freezeHunter(player);
-        } else {
-            player.setGameMode(org.bukkit.GameMode.SURVIVAL);
-        }
+            
+            // Hunters are held where they arrived for the rest of the headstart
+            if (isHunter && game.getState() == GameState.HEADSTART) {
+                headstartManager.freezeHunter(player);
+            }
+        });
     }
     
     /**
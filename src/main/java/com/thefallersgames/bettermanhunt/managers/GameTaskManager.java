@@ -53,7 +53,7 @@ public class GameTaskManager {
         
         // Start headstart countdown
         HeadstartTask headstartTask = new HeadstartTask(plugin, game, bossBar, getGameManager(), plugin.getGameTaskService());
-        headstartTask.runTaskTimer(plugin, 0L, 20L); // Update every second
+        headstartTask.runTaskTimer(plugin.getSchedulerService(), 0L, 20L); // Update every second
         headstartTasks.put(gameName, headstartTask);
     }
     
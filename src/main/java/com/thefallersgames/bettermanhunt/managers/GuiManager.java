@@ -2,32 +2,32 @@ package com.thefallersgames.bettermanhunt.managers;
 
 import com.thefallersgames.bettermanhunt.Plugin;
 import com.thefallersgames.bettermanhunt.models.Game;
+import com.thefallersgames.bettermanhunt.models.PluginItem;
+import com.thefallersgames.bettermanhunt.services.ItemClassifier;
+import com.thefallersgames.bettermanhunt.services.WorldPoolService;
+import com.thefallersgames.bettermanhunt.utils.GuiMenu;
 import com.thefallersgames.bettermanhunt.utils.GuiUtil;
+import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
-import org.bukkit.inventory.Inventory;
-import org.bukkit.inventory.ItemStack;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Random;
 import java.util.UUID;
 
 /**
  * Manages all GUI related functionalities for the Manhunt plugin.
+ * Each GUI is a {@link GuiMenu} whose slots are bound to the actions below when it is built,
+ * so clicks are routed by slot rather than by the clicked item's name.
  */
 public class GuiManager {
     private final Plugin plugin;
     private final GameManager gameManager;
+    private final ItemClassifier itemClassifier;
+    private final GameBrowser gameBrowser;
     
-    // Store inventory types for GUI click handling
-    private final Map<UUID, String> openInventories = new HashMap<>();
-    
-    // Inventory names/identifiers
-    public static final String GAME_SELECTION_GUI = "game_selection";
-    public static final String WORLD_SELECTION_GUI = "world_selection";
-    public static final String TEAM_SELECTION_GUI = "team_selection";
+    private final Random random = new Random();
     
     /**
      * Creates a new GuiManager.
@@ -38,6 +38,8 @@ public class GuiManager {
     public GuiManager(Plugin plugin, GameManager gameManager) {
         this.plugin = plugin;
         this.gameManager = gameManager;
+        this.itemClassifier = plugin.getItemClassifier();
+        this.gameBrowser = new GameBrowser(plugin, this::joinGame, this::showWorldSelectionGui);
     }
     
     /**
@@ -47,44 +49,16 @@ public class GuiManager {
      * @param player The player to show the GUI to
      */
     public void showGameSelectionGui(Player player) {
-        Inventory gui = GuiUtil.createBorderedGui("&8&lManhunt - Game Selection", 45, Material.GLASS);
-
-        if (plugin.isMultiverseAvailable()) {
-            gui.setItem(22, GuiUtil.createItem(Material.NETHER_STAR, "&a&lCreate New Game",
-                    "&7Click to create a new Manhunt game"));
-        }
-        
-        
-        Collection<Game> games = gameManager.getAllGames();
-        
-        if (games.isEmpty()) {
-            gui.setItem(31, GuiUtil.createItem(Material.BARRIER, "&c&lNo Active Games",
-                    "&7There are no active games.",
-                    "&7Click 'Create New Game' to make one!"));
-        } else {
-            int slot = 10;
-            for (Game game : games) {
-                if (slot > 34) break; // Prevent overflow
-                
-                String stateName = game.getState().name();
-                String stateColor = game.getState().toString().startsWith("LOBBY") ? "&a" : "&c";
-                
-                gui.setItem(slot, GuiUtil.createItem(Material.COMPASS, "&b" + game.getName(),
-                        "&7Status: " + stateColor + stateName,
-                        "&7Runners: &e" + game.getRunners().size(),
-                        "&7Hunters: &e" + game.getHunters().size(),
-                        "",
-                        "&eClick to join"));
-                
-                // Increase slot, skip border columns
-                slot++;
-                if (slot % 9 == 8) slot += 2;
-            }
-        }
-        
-        GuiUtil.fillEmptySlots(gui, Material.LIGHT_GRAY_STAINED_GLASS_PANE);
-        player.openInventory(gui);
-        openInventories.put(player.getUniqueId(), GAME_SELECTION_GUI);
+        gameBrowser.open(player, 0);
+    }
+    
+    /**
+     * Gets the shared game browser behind the game selection GUI.
+     *
+     * @return The game browser
+     */
+    public GameBrowser getGameBrowser() {
+        return gameBrowser;
     }
     
     /**
@@ -93,34 +67,22 @@ public class GuiManager {
      *
      * @param player The player to show the GUI to
      */
-    
     public void showWorldSelectionGui(Player player) {
-        Inventory gui = GuiUtil.createBorderedGui("&8&lManhunt - World Selection", 45, Material.GLASS);
+        GuiMenu menu = new GuiMenu("&8&lManhunt - World Selection", 45, Material.GLASS);
         player.sendMessage(ChatColor.GREEN + "Server version: " + this.plugin.getServer().getBukkitVersion());
-        Material block = null;
-        if (this.plugin.getServer().getBukkitVersion().contains("1.8.")) {
-            block = Material.GRASS; // legacy
-        } else {
-            block = Material.GRASS_BLOCK;
-        }
+        
         // Create a "Generate New World" option
-        gui.setItem(22, GuiUtil.createItem(block, "&a&lGenerate New World",
+        menu.setItem(22, itemClassifier.createItem(PluginItem.GENERATE_WORLD, "&a&lGenerate New World",
                 "&7Click to create a new world for the game.",
                 "&7A fresh world will be generated with",
-                "&7Nether and End dimensions."));
+                "&7Nether and End dimensions."), this::generateWorld);
         
         // Back button
-        gui.setItem(40, GuiUtil.createItem(Material.ARROW, "&c&lBack",
-                "&7Return to game selection"));
+        menu.setItem(40, itemClassifier.createItem(PluginItem.BACK, "&c&lBack",
+                "&7Return to game selection"), this::showGameSelectionGui);
 
-        if (!this.plugin.getServer().getBukkitVersion().contains("1.8.")) {
-            GuiUtil.fillEmptySlots(gui, Material.LIGHT_GRAY_STAINED_GLASS_PANE);
-        } else {
-            GuiUtil.fillEmptySlots(gui, Material.GLASS);
-        }
-                
-        player.openInventory(gui);
-        openInventories.put(player.getUniqueId(), WORLD_SELECTION_GUI);
+        GuiUtil.fillEmptySlots(menu.getInventory(), Material.LIGHT_GRAY_STAINED_GLASS_PANE);
+        menu.open(player);
     }
     
     /**
@@ -131,17 +93,17 @@ public class GuiManager {
      * @param game The game instance
      */
     public void showTeamSelectionGui(Player player, Game game) {
-        Inventory gui = GuiUtil.createBorderedGui("&8&lManhunt - Team Selection", 27, Material.GLASS);
+        GuiMenu menu = new GuiMenu("&8&lManhunt - Team Selection", 27, Material.GLASS);
         
         // Runner team option
-        gui.setItem(11, GuiUtil.createItem(Material.DIAMOND_BOOTS, "&b&lJoin Runners",
+        menu.setItem(11, itemClassifier.createItem(PluginItem.JOIN_RUNNERS, "&b&lJoin Runners",
                 "&7Join the runners team",
-                "&7Try to beat the game while being hunted!"));
+                "&7Try to beat the game while being hunted!"), this::joinRunners);
         
         // Hunter team option
-        gui.setItem(15, GuiUtil.createItem(Material.COMPASS, "&c&lJoin Hunters",
+        menu.setItem(15, itemClassifier.createItem(PluginItem.JOIN_HUNTERS, "&c&lJoin Hunters",
                 "&7Join the hunters team",
-                "&7Track down and eliminate the runners!"));
+                "&7Track down and eliminate the runners!"), this::joinHunters);
         
         // Display current team
         String currentTeam = "None";
@@ -151,39 +113,179 @@ public class GuiManager {
             currentTeam = "&cHunters";
         }
         
-        gui.setItem(22, GuiUtil.createItem(Material.NAME_TAG, "&e&lCurrent Team: " + currentTeam));
+        menu.setItem(22, GuiUtil.createItem(Material.NAME_TAG, "&e&lCurrent Team: " + currentTeam));
         
-        player.openInventory(gui);
-        openInventories.put(player.getUniqueId(), TEAM_SELECTION_GUI);
+        menu.open(player);
     }
     
     /**
-     * Records the type of GUI a player has open.
+     * Checks whether a player has one of the plugin's GUIs open.
      *
      * @param player The player
-     * @param inventoryType The type of inventory they have open
+     * @return True if the player is looking at a plugin GUI
      */
-    public void setOpenInventory(Player player, String inventoryType) {
-        openInventories.put(player.getUniqueId(), inventoryType);
+    public boolean hasGuiOpen(Player player) {
+        return player.getOpenInventory().getTopInventory().getHolder() instanceof GuiMenu;
     }
     
     /**
-     * Gets the type of GUI a player has open.
-     *
-     * @param player The player
-     * @return The type of GUI, or null if none
+     * Adds a player to a game they picked in the game selection GUI.
      */
-    public String getOpenInventoryType(Player player) {
-        return openInventories.get(player.getUniqueId());
+    private void joinGame(Player player, Game game) {
+        player.closeInventory();
+        
+        if (gameManager.getGame(game.getName()) == game) {
+            // Add player to game
+            boolean joined = gameManager.addPlayerToGame(player, game);
+            if (joined) {
+                player.sendMessage(ChatColor.GREEN + "Joined game: " + ChatColor.GOLD + game.getName());
+                // Lobby items are given in addPlayerToGame when in lobby state
+            } else {
+                player.sendMessage(ChatColor.RED + "Failed to join game: " + game.getName());
+            }
+        } else {
+            player.sendMessage(ChatColor.RED + "Game no longer exists!");
+        }
     }
     
     /**
-     * Removes a player from the open inventories map.
-     *
-     * @param player The player to remove
+     * Creates a new game in a fresh world, taken from the world pool when one is available.
+     */
+    private void generateWorld(Player player) {
+        player.closeInventory();
+        
+        // Generate a game name
+        String gameName = "Game_" + player.getName() + "_" + random.nextInt(1000);
+        
+        // Use a pre-generated world from the pool when one is available
+        WorldPoolService worldPoolService = plugin.getWorldPoolService();
+        World pooledWorld = worldPoolService != null ? worldPoolService.claimWorld() : null;
+        if (pooledWorld != null) {
+            createGameInWorld(player, gameName, pooledWorld);
+            return;
+        }
+        
+        // Show a message that world is being generated
+        player.sendMessage(ChatColor.GREEN + "Generating new world for your manhunt game...");
+        
+        // Generate a new world using the WorldManagementService
+        plugin.getWorldManagementService().createWorldWithMultiverse(gameName).thenAccept(world -> {
+            if (world != null) {
+                // Create the game with the new world
+                plugin.getSchedulerService().runTask(() -> createGameInWorld(player, gameName, world));
+            } else {
+                player.sendMessage(ChatColor.RED + "Failed to generate world. Please try again.");
+            }
+        }).exceptionally(ex -> {
+            player.sendMessage(ChatColor.RED + "An error occurred while generating the world: " + ex.getMessage());
+            ex.printStackTrace();
+            return null;
+        });
+    }
+    
+    /**
+     * Creates a game in an already generated world and moves the creator into its lobby capsule.
+     * Must be called on the main thread.
+     */
+    private void createGameInWorld(Player player, String gameName, World world) {
+        boolean created = gameManager.createGame(gameName, player, world);
+        
+        if (created) {
+            player.sendMessage(ChatColor.GREEN + "Created new game in a fresh world with name: " + 
+                    ChatColor.GOLD + gameName);
+            
+            // Join the game
+            Game game = gameManager.getGame(gameName);
+            if (game != null) {
+                // First teleport the game creator to the lobby capsule
+                gameManager.teleportToLobbyCapsule(player, game).whenComplete((teleportSuccess, error) -> {
+                    if (error == null && teleportSuccess) {
+                        // Then give player lobby items after teleporting
+                        giveLobbyItems(player, game);
+                    } else {
+                        // If teleport failed, delete the new game
+                        gameManager.deleteGame(gameName);
+                        player.sendMessage(ChatColor.RED + "Failed to teleport to the lobby capsule. Game creation aborted.");
+                    }
+                });
+            }
+        } else {
+            player.sendMessage(ChatColor.RED + "Failed to create game.");
+        }
+    }
+    
+    /**
+     * Moves a player to the runners team.
+     */
+    private void joinRunners(Player player) {
+        Game game = gameManager.getPlayerGame(player);
+        
+        if (game == null) {
+            player.closeInventory();
+            player.sendMessage(ChatColor.RED + "You are no longer in a game.");
+            return;
+        }
+        
+        boolean wasHunter = game.isHunter(player);
+        
+        game.addRunner(player);
+        player.sendMessage(ChatColor.GREEN + "You joined the " + ChatColor.BLUE + "RUNNERS" + ChatColor.GREEN + " team.");
+        player.closeInventory();
+        
+        // Update the boss bar to reflect team changes
+        gameManager.updateLobbyBossBar(game);
+        
+        // Broadcast team change if player was on a different team
+        if (wasHunter) {
+            for (UUID playerId : game.getAllPlayers()) {
+                Player p = Bukkit.getPlayer(playerId);
+                if (p != null && !p.equals(player)) {
+                    p.sendMessage(ChatColor.YELLOW + player.getName() + " switched from " + 
+                        ChatColor.RED + "HUNTERS" + ChatColor.YELLOW + " to " + 
+                        ChatColor.BLUE + "RUNNERS" + ChatColor.YELLOW + " team.");
+                }
+            }
+        }
+        
+        // Give lobby items
+        giveLobbyItems(player, game);
+    }
+    
+    /**
+     * Moves a player to the hunters team.
      */
-    public void removeOpenInventory(Player player) {
-        openInventories.remove(player.getUniqueId());
+    private void joinHunters(Player player) {
+        Game game = gameManager.getPlayerGame(player);
+        
+        if (game == null) {
+            player.closeInventory();
+            player.sendMessage(ChatColor.RED + "You are no longer in a game.");
+            return;
+        }
+        
+        boolean wasRunner = game.isRunner(player);
+        
+        game.addHunter(player);
+        player.sendMessage(ChatColor.GREEN + "You joined the " + ChatColor.RED + "HUNTERS" + ChatColor.GREEN + " team.");
+        player.closeInventory();
+        
+        // Update the boss bar to reflect team changes
+        gameManager.updateLobbyBossBar(game);
+        
+        // Broadcast team change if player was on a different team
+        if (wasRunner) {
+            for (UUID playerId : game.getAllPlayers()) {
+                Player p = Bukkit.getPlayer(playerId);
+                if (p != null && !p.equals(player)) {
+                    p.sendMessage(ChatColor.YELLOW + player.getName() + " switched from " + 
+                        ChatColor.BLUE + "RUNNERS" + ChatColor.YELLOW + " to " + 
+                        ChatColor.RED + "HUNTERS" + ChatColor.YELLOW + " team.");
+                }
+            }
+        }
+        
+        // Give lobby items
+        giveLobbyItems(player, game);
     }
     
     /**
@@ -196,21 +298,21 @@ public class GuiManager {
         player.getInventory().clear();
         
         // Team switcher (slot 0) - for all players
-        player.getInventory().setItem(0, GuiUtil.createItem(Material.NETHER_STAR, "&e&lSwitch Team",
+        player.getInventory().setItem(0, itemClassifier.createItem(PluginItem.SWITCH_TEAM, "&e&lSwitch Team",
                 "&7Click to switch between teams"));
         
         // Only give these items to the owner
         if (game.isOwner(player)) {
             // Force start (slot 4)
-            player.getInventory().setItem(4, GuiUtil.createItem(Material.EMERALD, "&a&lForce Start",
+            player.getInventory().setItem(4, itemClassifier.createItem(PluginItem.FORCE_START, "&a&lForce Start",
                     "&7Click to start the game"));
                     
             // Delete game (slot 7) - no leave item for owner as delete covers this functionality
-            player.getInventory().setItem(7, GuiUtil.createItem(Material.TNT, "&c&lDelete Game",
+            player.getInventory().setItem(7, itemClassifier.createItem(PluginItem.DELETE_GAME, "&c&lDelete Game",
                     "&7Click to delete the game"));
         } else {
             // Leave game (slot 8) - only for non-owners
-            player.getInventory().setItem(8, GuiUtil.createItem(Material.BARRIER, "&c&lLeave Game",
+            player.getInventory().setItem(8, itemClassifier.createItem(PluginItem.LEAVE_GAME, "&c&lLeave Game",
                     "&7Click to leave the game"));
         }
         
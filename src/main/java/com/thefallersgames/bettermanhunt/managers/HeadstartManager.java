@@ -1,6 +1,8 @@
 package com.thefallersgames.bettermanhunt.managers;
 
 import com.thefallersgames.bettermanhunt.models.Game;
+import com.thefallersgames.bettermanhunt.services.SchedulerService;
+import com.thefallersgames.bettermanhunt.utils.PaperSupport;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.GameMode;
@@ -18,15 +20,18 @@ import java.util.concurrent.ConcurrentHashMap;
 public class HeadstartManager {
     private final Map<UUID, Location> frozenHunterLocations = new ConcurrentHashMap<>();
     private final Plugin plugin;
-    private final Map<String, Integer> headstartTaskIds = new ConcurrentHashMap<>();
+    private final SchedulerService scheduler;
+    private final Map<String, SchedulerService.Task> headstartTasks = new ConcurrentHashMap<>();
 
     /**
      * Constructs a new HeadstartManager.
      *
      * @param plugin The plugin instance
+     * @param scheduler The scheduler service to run the countdown on
      */
-    public HeadstartManager(Plugin plugin) {
+    public HeadstartManager(Plugin plugin, SchedulerService scheduler) {
         this.plugin = plugin;
+        this.scheduler = scheduler;
     }
     
     /**
@@ -61,9 +66,9 @@ public class HeadstartManager {
             }
         }
         
-        // Schedule a task to run every second to count down
+        // Schedule a task to run every second to count down, on the region of the game's spawn
         int headstartDuration = game.getHeadstartDuration();
-        int taskId = Bukkit.getScheduler().scheduleSyncRepeatingTask(plugin, new Runnable() {
+        SchedulerService.Task task = scheduler.runAtLocationTimer(game.getSpawnLocation(), new Runnable() {
             private int secondsLeft = headstartDuration;
             
             @Override
@@ -108,17 +113,17 @@ public class HeadstartManager {
                         }
                     }
                     
-                    // Keep hunters frozen at their positions
+                    // Keep hunters frozen at their positions, on the thread that owns each hunter
                     for (UUID hunterId : game.getHunters()) {
                         Player hunter = Bukkit.getPlayer(hunterId);
                         if (hunter != null && isPlayerFrozen(hunter.getUniqueId())) {
-                            Location frozenLoc = getFrozenLocation(hunter.getUniqueId());
-                            if (frozenLoc != null) {
+                            scheduler.runForEntity(hunter, () -> {
+                                Location frozenLoc = getFrozenLocation(hunter.getUniqueId());
                                 // Only teleport if they've moved
-                                if (hunter.getLocation().distanceSquared(frozenLoc) > 0.01) {
-                                    hunter.teleport(frozenLoc);
+                                if (frozenLoc != null && hunter.getLocation().distanceSquared(frozenLoc) > 0.01) {
+                                    PaperSupport.teleport(hunter, frozenLoc);
                                 }
-                            }
+                            });
                         }
                     }
                     
@@ -127,7 +132,7 @@ public class HeadstartManager {
             }
         }, 0L, 20L); // Run immediately, then every second (20 ticks)
         
-        headstartTaskIds.put(gameName, taskId);
+        headstartTasks.put(gameName, task);
     }
     
     /**
@@ -136,9 +141,9 @@ public class HeadstartManager {
      * @param gameName The name of the game
      */
     public void cancelHeadstartTask(String gameName) {
-        Integer taskId = headstartTaskIds.remove(gameName);
-        if (taskId != null) {
-            Bukkit.getScheduler().cancelTask(taskId);
+        SchedulerService.Task task = headstartTasks.remove(gameName);
+        if (task != null) {
+            task.cancel();
         }
     }
     
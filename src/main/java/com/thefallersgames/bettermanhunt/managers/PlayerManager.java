@@ -5,16 +5,13 @@ import com.thefallersgames.bettermanhunt.models.Game;
 import com.thefallersgames.bettermanhunt.models.GameState;
 import com.thefallersgames.bettermanhunt.services.GameTaskService;
 import com.thefallersgames.bettermanhunt.services.LobbyService;
-import org.bukkit.Bukkit;
+import com.thefallersgames.bettermanhunt.services.TeleportService;
+import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.ChatColor;
-import org.bukkit.scheduler.BukkitTask;
 
 import java.util.UUID;
 import java.util.logging.Logger;
-import java.util.concurrent.CompletableFuture;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * Manages players in Manhunt games (adding, removing, etc.).
@@ -27,9 +24,7 @@ public class PlayerManager {
     private final PlayerStateManager playerStateManager;
     private final HeadstartManager headstartManager;
     private final LobbyService lobbyService;
-    
-    // Map to track teleportation tasks
-    private final Map<UUID, BukkitTask> pendingTeleports = new HashMap<>();
+    private final TeleportService teleportService;
 
     /**
      * Constructs a new PlayerManager.
@@ -53,6 +48,7 @@ public class PlayerManager {
         this.playerStateManager = playerStateManager;
         this.headstartManager = headstartManager;
         this.lobbyService = plugin.getLobbyService();
+        this.teleportService = plugin.getTeleportService();
     }
 
     /**
@@ -102,13 +98,27 @@ public class PlayerManager {
         // Set lobby-specific player states
         lobbyService.setupLobbyPlayerState(player);
         
-        // First attempt teleportation to the lobby capsule in the game world
-        CompletableFuture<Boolean> teleportFuture = new CompletableFuture<>();
+        // Queue the teleport to the lobby capsule; the player joins once they have arrived
+        Location capsuleLocation = lobbyService.prepareLobbyCapsule(game);
+        if (capsuleLocation == null) {
+            game.removePlayer(player);
+            playerStateManager.restorePlayerState(player);
+            player.sendMessage(ChatColor.RED + "Failed to teleport to the game lobby capsule. Game join aborted.");
+            return false;
+        }
         
-        // Use task to attempt teleportation
-        BukkitTask task = Bukkit.getScheduler().runTask(plugin, () -> {
-            // Try to teleport to the lobby capsule in the game world
-            boolean teleportSuccess = lobbyService.teleportToLobbyCapsule(player, game);
+        teleportService.teleport(player, capsuleLocation).whenComplete((teleportSuccess, error) -> {
+            if (error != null) {
+                // Superseded by another teleport, such as joining a different game
+                game.removePlayer(player);
+                return;
+            }
+            
+            if (!player.isOnline()) {
+                // Left while waiting in the queue; their saved state stays for when they return
+                game.removePlayer(player);
+                return;
+            }
             
             if (teleportSuccess) {
                 // Add player to game registry
@@ -129,17 +139,14 @@ public class PlayerManager {
                 );
                 
                 logger.info("Added player " + player.getName() + " to game " + game.getName());
-                teleportFuture.complete(true);
             } else {
                 // Teleport failed, restore player state and abort
+                game.removePlayer(player);
                 playerStateManager.restorePlayerState(player);
                 player.sendMessage(ChatColor.RED + "Failed to teleport to the game lobby capsule. Game join aborted.");
-                teleportFuture.complete(false);
             }
         });
         
-        pendingTeleports.put(playerId, task);
-        
         return true;
     }
 
@@ -181,11 +188,8 @@ public class PlayerManager {
                 gameTaskService.updateLobbyBossBar(game);
             }
             
-            // Schedule task to teleport the player out and restore state
-            Bukkit.getScheduler().runTask(plugin, () -> {
-                // Restore player's state which includes teleportation
-                playerStateManager.restorePlayerState(player);
-            });
+            // Queue the teleport out and restore state
+            playerStateManager.restorePlayerState(player);
         }
         
         logger.info("Removed player " + player.getName() + " from game " + gameName);
@@ -193,15 +197,12 @@ public class PlayerManager {
     }
     
     /**
-     * Cancels any pending teleport tasks for a player.
+     * Cancels a queued teleport to a lobby capsule for a player.
      * 
      * @param playerId The UUID of the player
      */
     private void cancelPendingTeleport(UUID playerId) {
-        BukkitTask task = pendingTeleports.remove(playerId);
-        if (task != null && !task.isCancelled()) {
-            task.cancel();
-        }
+        teleportService.cancel(playerId);
     }
 
     /**
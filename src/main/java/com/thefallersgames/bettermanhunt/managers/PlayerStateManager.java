@@ -1,109 +1,251 @@
 package com.thefallersgames.bettermanhunt.managers;
 
 import com.thefallersgames.bettermanhunt.Plugin;
+import com.thefallersgames.bettermanhunt.models.PlayerState;
 import com.thefallersgames.bettermanhunt.services.LobbyService;
+import com.thefallersgames.bettermanhunt.services.PlayerStateStore;
+import com.thefallersgames.bettermanhunt.services.SchedulerService;
+import com.thefallersgames.bettermanhunt.services.TeleportService;
+import org.bukkit.Bukkit;
 import org.bukkit.GameMode;
 import org.bukkit.Location;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.attribute.AttributeInstance;
 import org.bukkit.entity.Player;
-import org.bukkit.inventory.ItemStack;
+import org.bukkit.potion.PotionEffect;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
- * Manages player state, including inventory, game mode, world, and position.
+ * Manages player state, including inventory, ender chest, experience, health, hunger,
+ * potion effects, bed spawn, game mode, world, and position.
+ * Saved states are written to disk when a player joins a game and only kept in memory until
+ * the write has finished, so they survive a crash and are restored on the player's next login.
  */
 public class PlayerStateManager {
-    private final Map<UUID, PlayerState> playerStates;
+    private final Plugin plugin;
     private final LobbyService lobbyService;
-    
+    private final TeleportService teleportService;
+    private final SchedulerService scheduler;
+    private final PlayerStateStore stateStore;
+
+    // States that are still being written to disk, by player
+    private final Map<UUID, PlayerState> playerStates;
+
+    // Restores that are still loading their state or waiting for their teleport, by player
+    private final Map<UUID, CompletableFuture<Boolean>> pendingRestores;
+
+    // Players whose restore was superseded while their state was still being read from disk
+    private final Set<UUID> supersededRestores;
+
     /**
      * Creates a new PlayerStateManager.
-     * 
+     *
      * @param plugin The plugin instance
      */
     public PlayerStateManager(Plugin plugin) {
-        this.playerStates = new HashMap<>();
+        this.plugin = plugin;
         this.lobbyService = plugin.getLobbyService();
+        this.teleportService = plugin.getTeleportService();
+        this.scheduler = plugin.getSchedulerService();
+        this.stateStore = plugin.getPlayerStateStore();
+        this.playerStates = new HashMap<>();
+        this.pendingRestores = new HashMap<>();
+        this.supersededRestores = new HashSet<>();
     }
-    
+
     /**
-     * Saves the player's current state.
+     * Saves the player's current state and writes it to disk in the background.
+     * If the player already has a saved state that was never restored, for example because
+     * they are still being returned from a previous game, that state is kept instead.
      *
      * @param player The player
      */
     public void savePlayerState(Player player) {
-        PlayerState state = new PlayerState(
-                player.getInventory().getContents(),
-                player.getGameMode(),
-                player.getLocation()
-        );
-        playerStates.put(player.getUniqueId(), state);
+        UUID playerId = player.getUniqueId();
+        if (pendingRestores.containsKey(playerId) && !teleportService.cancel(playerId)) {
+            supersededRestores.add(playerId);
+        }
+
+        if (!hasSavedState(playerId)) {
+            PlayerState state = PlayerState.capture(player);
+            playerStates.put(playerId, state);
+
+            // Release the in-memory copy once it is safely on disk
+            stateStore.save(playerId, state).thenAccept(written -> {
+                if (written && plugin.isEnabled()) {
+                    scheduler.runTask(() -> playerStates.remove(playerId, state));
+                }
+            });
+        }
         player.getInventory().clear();
     }
-    
+
+    /**
+     * Checks whether a player has a saved state that hasn't been restored yet.
+     *
+     * @param playerId The UUID of the player
+     * @return True if a state is held in memory or stored on disk
+     */
+    public boolean hasSavedState(UUID playerId) {
+        return playerStates.containsKey(playerId) || stateStore.exists(playerId);
+    }
+
     /**
      * Restores the player's state.
      * Returns the player to the global lobby if set, or to their original location if not.
+     * The teleport is queued with the teleport service, and the inventory is only restored once
+     * the player has left the game world, so world-based inventory plugins don't store it there.
+     * The saved state is only deleted once it has been restored; a player who goes offline
+     * before that gets it back on their next login.
      *
      * @param player The player
+     * @return A CompletableFuture that completes with true if the player was teleported
      */
-    public void restorePlayerState(Player player) {
-        PlayerState state = playerStates.remove(player.getUniqueId());
+    public CompletableFuture<Boolean> restorePlayerState(Player player) {
+        UUID playerId = player.getUniqueId();
+
+        // A restore that is already on its way covers this request too
+        CompletableFuture<Boolean> pendingRestore = pendingRestores.get(playerId);
+        if (pendingRestore != null) {
+            return pendingRestore;
+        }
+
+        return track(playerId, loadSavedState(playerId).thenCompose(state -> applyState(player, state)));
+    }
+
+    /**
+     * Checks whether a player is still waiting to be returned from a game.
+     *
+     * @param player The player
+     * @return True if the player's restore is still in progress
+     */
+    public boolean isRestoring(Player player) {
+        return pendingRestores.containsKey(player.getUniqueId());
+    }
+
+    /**
+     * Gets a player's saved state from memory, or from disk if it has already been written.
+     * The returned future completes on the main thread.
+     */
+    private CompletableFuture<PlayerState> loadSavedState(UUID playerId) {
+        PlayerState state = playerStates.get(playerId);
+        if (state != null || !stateStore.exists(playerId)) {
+            return CompletableFuture.completedFuture(state);
+        }
+
+        // The scheduler is unavailable while the plugin is disabling, so read the file right away
+        if (!plugin.isEnabled()) {
+            return CompletableFuture.completedFuture(stateStore.load(playerId).exceptionally(error -> null).join());
+        }
+
+        CompletableFuture<PlayerState> loaded = new CompletableFuture<>();
+        // A state that can't be read counts as none, so the restore still finishes
+        stateStore.load(playerId).whenComplete((stored, error) -> scheduler.runTask(() -> loaded.complete(error == null ? stored : null)));
+        return loaded;
+    }
+
+    /**
+     * Applies a saved state to a player, or resets them if there is none.
+     */
+    private CompletableFuture<Boolean> applyState(Player player, PlayerState state) {
+        UUID playerId = player.getUniqueId();
+        if (supersededRestores.remove(playerId) || !player.isOnline()) {
+            return CompletableFuture.completedFuture(false);
+        }
+
         if (state != null) {
             player.setGameMode(state.getGameMode());
-            
+
             // Check if the global lobby spawn is set, if so use that instead of original location
             Location targetLocation;
             Location lobbySpawn = lobbyService.getLobbySpawn();
             if (lobbySpawn != null) {
                 targetLocation = lobbySpawn;
-                player.sendMessage("§aYou have been teleported to the lobby.");
             } else {
-                targetLocation = state.getLocation();
-                player.sendMessage("§aYou have been returned to your previous location.");
+                // A location in a world that no longer exists falls back to the spawn of the main world
+                targetLocation = state.getLocation() != null ? state.getLocation().resolve() : null;
+                if (targetLocation == null) {
+                    targetLocation = Bukkit.getWorlds().get(0).getSpawnLocation();
+                }
             }
-            
-            player.teleport(targetLocation);
-            player.getInventory().setContents(state.getInventory());
+
+            return teleportService.teleport(player, targetLocation).whenComplete((success, error) -> {
+                if (error != null || !Boolean.TRUE.equals(success) || !player.isOnline()) {
+                    // The player may still be in the game world, so keep the saved state for a later restore
+                    return;
+                }
+
+                applySavedValues(player, state);
+                playerStates.remove(playerId);
+                stateStore.delete(playerId);
+
+                if (lobbySpawn != null) {
+                    player.sendMessage("§aYou have been teleported to the lobby.");
+                } else {
+                    player.sendMessage("§aYou have been returned to your previous location.");
+                }
+            });
         } else {
             player.setGameMode(GameMode.SURVIVAL);
             player.getInventory().clear();
-            
+
             // Try to teleport to lobby if it exists
             Location lobbySpawn = lobbyService.getLobbySpawn();
-            if (lobbySpawn != null) {
-                player.teleport(lobbySpawn);
-                player.sendMessage("§aYou have been teleported to the lobby.");
+            if (lobbySpawn == null) {
+                return CompletableFuture.completedFuture(false);
             }
+
+            return teleportService.teleport(player, lobbySpawn).whenComplete((success, error) -> {
+                if (error == null && Boolean.TRUE.equals(success)) {
+                    player.sendMessage("§aYou have been teleported to the lobby.");
+                }
+            });
         }
     }
-    
+
     /**
-     * Class to hold a player's state.
+     * Tracks a restore until it has finished.
      */
-    private static class PlayerState {
-        private final ItemStack[] inventory;
-        private final GameMode gameMode;
-        private final Location location;
-        
-        public PlayerState(ItemStack[] inventory, GameMode gameMode, Location location) {
-            this.inventory = inventory;
-            this.gameMode = gameMode;
-            this.location = location;
-        }
-        
-        public ItemStack[] getInventory() {
-            return inventory;
+    private CompletableFuture<Boolean> track(UUID playerId, CompletableFuture<Boolean> restore) {
+        if (restore.isDone()) {
+            return restore;
         }
-        
-        public GameMode getGameMode() {
-            return gameMode;
-        }
-        
-        public Location getLocation() {
-            return location;
+        pendingRestores.put(playerId, restore);
+        restore.whenComplete((success, error) -> pendingRestores.remove(playerId, restore));
+        return restore;
+    }
+
+    /**
+     * Applies everything in a saved state except the game mode and location.
+     */
+    private void applySavedValues(Player player, PlayerState state) {
+        player.getInventory().setContents(state.getInventory());
+        player.getEnderChest().setContents(state.getEnderChest());
+
+        player.setLevel(state.getLevel());
+        player.setExp(state.getExp());
+        player.setTotalExperience(state.getTotalExperience());
+
+        // The saved health can't exceed the player's current max health
+        AttributeInstance maxHealth = player.getAttribute(Attribute.GENERIC_MAX_HEALTH);
+        double healthLimit = maxHealth != null ? maxHealth.getValue() : 20.0;
+        player.setHealth(Math.max(0.0, Math.min(state.getHealth(), healthLimit)));
+        player.setFoodLevel(state.getFoodLevel());
+        player.setSaturation(state.getSaturation());
+        player.setExhaustion(state.getExhaustion());
+
+        for (PotionEffect effect : player.getActivePotionEffects()) {
+            player.removePotionEffect(effect.getType());
         }
+        player.addPotionEffects(state.getPotionEffects());
+
+        // A bed spawn in a world that no longer exists is dropped
+        player.setBedSpawnLocation(state.getBedSpawn() != null ? state.getBedSpawn().resolve() : null, true);
     }
-} 
\ No newline at end of file
+}
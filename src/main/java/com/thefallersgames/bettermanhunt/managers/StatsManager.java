@@ -99,6 +99,40 @@ public class StatsManager {
         return stats;
     }
     
+    /**
+     * Gets the stats of a player who may be offline, without creating them.
+     *
+     * @param playerId The UUID of the player
+     * @return The player's stats, or null if they have none
+     */
+    public PlayerStats findPlayerStats(UUID playerId) {
+        return playerStats.get(playerId);
+    }
+    
+    /**
+     * Gets the stats of a player who may be offline by their last known name, ignoring case.
+     *
+     * @param playerName The name of the player
+     * @return The player's stats, or null if no player with that name has stats
+     */
+    public PlayerStats findPlayerStatsByName(String playerName) {
+        for (PlayerStats stats : playerStats.values()) {
+            if (playerName.equalsIgnoreCase(stats.getPlayerName())) {
+                return stats;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Gets the stats of every player who has any.
+     *
+     * @return An unmodifiable view of all player stats
+     */
+    public Collection<PlayerStats> getAllPlayerStats() {
+        return Collections.unmodifiableCollection(playerStats.values());
+    }
+    
     /**
      * Records that a player participated in a game.
      *
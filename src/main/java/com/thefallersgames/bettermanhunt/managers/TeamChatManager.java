@@ -6,17 +6,27 @@ import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
 import org.bukkit.event.player.AsyncPlayerChatEvent;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Manages team chat functionality for players in Manhunt games.
+ * Chat events arrive on async threads, so each player's team audience is precomputed on the main
+ * thread whenever the teams of a game change, and published as an immutable snapshot that the
+ * chat thread can read without touching the game or the game registry.
  */
 public class TeamChatManager {
     private final Plugin plugin;
     private final Map<UUID, Boolean> teamChatEnabled;
 
+    // The team audience of every player in a game, by player
+    private final Map<UUID, TeamAudience> audiences;
+
     /**
      * Creates a new TeamChatManager.
      *
@@ -24,50 +34,80 @@ public class TeamChatManager {
      */
     public TeamChatManager(Plugin plugin) {
         this.plugin = plugin;
-        this.teamChatEnabled = new HashMap<>();
+        this.teamChatEnabled = new ConcurrentHashMap<>();
+        this.audiences = new ConcurrentHashMap<>();
     }
 
     /**
      * Handles chat events for team chat.
+     * Safe to call from the async chat thread.
      *
      * @param event The chat event
      */
     public void handleChat(AsyncPlayerChatEvent event) {
         Player player = event.getPlayer();
-        Game game = plugin.getGameManager().getPlayerGame(player);
-        
-        if (game == null || !isTeamChatEnabled(player)) {
+        TeamAudience audience = audiences.get(player.getUniqueId());
+
+        if (audience == null || !isTeamChatEnabled(player)) {
             // Not in a game or team chat disabled, leave default chat behavior
             return;
         }
-        
+
         // Team chat logic
         event.setCancelled(true);
-        String teamPrefix;
-        String message = event.getMessage();
-        
-        if (game.isHunter(player)) {
-            teamPrefix = ChatColor.RED + "[HUNTERS] ";
-            sendTeamMessage(game.getHunters(), teamPrefix, player, message);
-        } else if (game.isRunner(player)) {
-            teamPrefix = ChatColor.GREEN + "[RUNNERS] ";
-            sendTeamMessage(game.getRunners(), teamPrefix, player, message);
-        } else {
-            teamPrefix = ChatColor.GRAY + "[SPECTATORS] ";
-            sendTeamMessage(game.getSpectators(), teamPrefix, player, message);
+        String formatted = audience.prefix + ChatColor.RESET + player.getName() + ": " + event.getMessage();
+        for (Player member : audience.members) {
+            if (member.isOnline()) {
+                member.sendMessage(formatted);
+            }
         }
     }
-    
+
+    /**
+     * Rebuilds the team audiences of a game and publishes them for the chat thread.
+     * Called on the main thread whenever a player joins a team, switches teams or leaves the game.
+     *
+     * @param game The game whose teams changed
+     */
+    public void publishAudiences(Game game) {
+        String gameName = game.getName();
+        Map<UUID, TeamAudience> published = new HashMap<>();
+        publishTeam(published, gameName, game.getHunters(), ChatColor.RED + "[HUNTERS] ");
+        publishTeam(published, gameName, game.getRunners(), ChatColor.GREEN + "[RUNNERS] ");
+        publishTeam(published, gameName, game.getSpectators(), ChatColor.GRAY + "[SPECTATORS] ");
+
+        // Publish the new audiences before dropping the old ones, so a chat message never falls
+        // through to public chat while the teams are being rebuilt
+        audiences.putAll(published);
+        audiences.entrySet().removeIf(entry ->
+                entry.getValue().gameName.equals(gameName) && !published.containsKey(entry.getKey()));
+    }
+
+    /**
+     * Removes the team audiences of a game that no longer exists.
+     *
+     * @param gameName The name of the game
+     */
+    public void removeAudiences(String gameName) {
+        audiences.values().removeIf(audience -> audience.gameName.equals(gameName));
+    }
+
     /**
-     * Helper method to send a message to team members
+     * Builds the audience of one team and assigns it to each of its members.
      */
-    private void sendTeamMessage(Iterable<UUID> teamMembers, String prefix, Player sender, String message) {
-        for (UUID memberId : teamMembers) {
+    private void publishTeam(Map<UUID, TeamAudience> published, String gameName, Set<UUID> team, String prefix) {
+        List<Player> members = new ArrayList<>(team.size());
+        for (UUID memberId : team) {
             Player member = plugin.getServer().getPlayer(memberId);
             if (member != null) {
-                member.sendMessage(prefix + ChatColor.RESET + sender.getName() + ": " + message);
+                members.add(member);
             }
         }
+
+        TeamAudience audience = new TeamAudience(gameName, prefix, members.toArray(new Player[0]));
+        for (UUID memberId : team) {
+            published.put(memberId, audience);
+        }
     }
 
     /**
@@ -92,13 +132,29 @@ public class TeamChatManager {
     public boolean isTeamChatEnabled(Player player) {
         return teamChatEnabled.getOrDefault(player.getUniqueId(), false);
     }
-    
+
     /**
      * Removes a player from team chat tracking.
-     * 
+     *
      * @param player The player to remove
      */
     public void removePlayer(Player player) {
         teamChatEnabled.remove(player.getUniqueId());
     }
-} 
\ No newline at end of file
+
+    /**
+     * The players a team chat message is sent to, and the prefix it is sent with.
+     * Never changes once published.
+     */
+    private static final class TeamAudience {
+        private final String gameName;
+        private final String prefix;
+        private final Player[] members;
+
+        private TeamAudience(String gameName, String prefix, Player[] members) {
+            this.gameName = gameName;
+            this.prefix = prefix;
+            this.members = members;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.thefallersgames.bettermanhunt.models;
+
+/**
+ * The modification time and size of a file, used to detect which files of a world changed
+ * since its snapshot was taken.
+ */
+public class FileStamp {
+    private final long modified;
+    private final long size;
+
+    /**
+     * Creates a new file stamp.
+     *
+     * @param modified The last modification time in milliseconds
+     * @param size The file size in bytes
+     */
+    public FileStamp(long modified, long size) {
+        this.modified = modified;
+        this.size = size;
+    }
+
+    public long getModified() {
+        return modified;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Checks whether a file still has the same modification time and size as this stamp.
+     *
+     * @param other The stamp of the file as it is now
+     * @return True if the file is unchanged
+     */
+    public boolean matches(FileStamp other) {
+        return other != null && modified == other.modified && size == other.size;
+    }
+}
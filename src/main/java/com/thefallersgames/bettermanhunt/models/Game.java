@@ -7,6 +7,7 @@ import org.bukkit.entity.Player;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Represents a Manhunt game instance with its state and participants.
@@ -22,6 +23,8 @@ public class Game {
     private final Set<UUID> formerRunners; // Track runners who have died and become spectators
     private int headstartDuration; // in seconds
     private Location spawnLocation;
+    private Consumer<Game> rosterListener; // Notified whenever a player's role changes
+    private Consumer<Game> stateListener; // Notified whenever the game state changes
 
     /**
      * Creates a new Manhunt game.
@@ -54,7 +57,9 @@ public class Game {
         runners.remove(playerId);
         spectators.remove(playerId);
         formerRunners.remove(playerId); // Remove from former runners if they join hunters
-        return hunters.add(playerId);
+        boolean added = hunters.add(playerId);
+        notifyRosterChanged();
+        return added;
     }
 
     /**
@@ -68,7 +73,9 @@ public class Game {
         hunters.remove(playerId);
         spectators.remove(playerId);
         formerRunners.remove(playerId); // Remove from former runners if they rejoin runners
-        return runners.add(playerId);
+        boolean added = runners.add(playerId);
+        notifyRosterChanged();
+        return added;
     }
 
     /**
@@ -87,7 +94,9 @@ public class Game {
         
         hunters.remove(playerId);
         runners.remove(playerId);
-        return spectators.add(playerId);
+        boolean added = spectators.add(playerId);
+        notifyRosterChanged();
+        return added;
     }
 
     /**
@@ -101,6 +110,25 @@ public class Game {
         runners.remove(playerId);
         spectators.remove(playerId);
         formerRunners.remove(playerId); // Also remove from former runners
+        notifyRosterChanged();
+    }
+
+    /**
+     * Sets the listener that is notified whenever a player joins a team, switches teams or leaves the game.
+     *
+     * @param rosterListener The listener, or null to stop notifying
+     */
+    public void setRosterListener(Consumer<Game> rosterListener) {
+        this.rosterListener = rosterListener;
+    }
+
+    /**
+     * Notifies the roster listener that the teams have changed.
+     */
+    private void notifyRosterChanged() {
+        if (rosterListener != null) {
+            rosterListener.accept(this);
+        }
     }
 
     /**
@@ -144,6 +172,26 @@ public class Game {
         return spectators.contains(player.getUniqueId());
     }
 
+    /**
+     * Gets the role of a player in this game.
+     *
+     * @param player The player to check
+     * @return The player's role, or NONE if they are not in this game
+     */
+    public PlayerRole getRole(Player player) {
+        UUID playerId = player.getUniqueId();
+        if (hunters.contains(playerId)) {
+            return PlayerRole.HUNTER;
+        }
+        if (runners.contains(playerId)) {
+            return PlayerRole.RUNNER;
+        }
+        if (spectators.contains(playerId)) {
+            return PlayerRole.SPECTATOR;
+        }
+        return PlayerRole.NONE;
+    }
+
     /**
      * Checks if the player is the game owner.
      *
@@ -178,7 +226,20 @@ public class Game {
      * @param state The new game state
      */
     public void setState(GameState state) {
+        GameState previous = this.state;
         this.state = state;
+        if (stateListener != null && previous != state) {
+            stateListener.accept(this);
+        }
+    }
+
+    /**
+     * Sets the listener that is notified whenever the game state changes.
+     *
+     * @param stateListener The listener, or null to stop notifying
+     */
+    public void setStateListener(Consumer<Game> stateListener) {
+        this.stateListener = stateListener;
     }
 
     /**
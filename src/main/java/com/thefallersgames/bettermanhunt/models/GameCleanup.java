@@ -0,0 +1,155 @@
+package com.thefallersgames.bettermanhunt.models;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Tracks the cleanup of a game that ended or is being deleted.
+ * The cleanup runs in stages, and the main thread time and the number of ticks spent in each
+ * stage are recorded so slow stages show up in the log.
+ */
+public class GameCleanup {
+    /**
+     * The stages of a game cleanup, in the order they run.
+     */
+    public enum Stage {
+        RESTORE,
+        UNREGISTER,
+        BOSS_BAR,
+        WORLD
+    }
+
+    private final Game game;
+    private final String worldName;
+    private final boolean notifyPlayers;
+    private final long startTime;
+    private final Deque<UUID> pendingPlayers;
+    private final List<CompletableFuture<Boolean>> restores = new ArrayList<>();
+    private final Map<Stage, Long> stageNanos = new EnumMap<>(Stage.class);
+    private final Map<Stage, Integer> stageTicks = new EnumMap<>(Stage.class);
+    private Stage stage = Stage.RESTORE;
+    private boolean finished = false;
+
+    /**
+     * Creates a new game cleanup record.
+     *
+     * @param game The game to clean up
+     * @param notifyPlayers Whether players are told that the game was deleted as they are restored
+     */
+    public GameCleanup(Game game, boolean notifyPlayers) {
+        this.game = game;
+        this.worldName = game.getWorld().getName();
+        this.notifyPlayers = notifyPlayers;
+        this.startTime = System.currentTimeMillis();
+        this.pendingPlayers = new ArrayDeque<>(game.getAllPlayers());
+    }
+
+    public Game getGame() {
+        return game;
+    }
+
+    public String getGameName() {
+        return game.getName();
+    }
+
+    /**
+     * Gets the name of the game world, taken when the cleanup was created.
+     *
+     * @return The world name
+     */
+    public String getWorldName() {
+        return worldName;
+    }
+
+    public boolean isNotifyPlayers() {
+        return notifyPlayers;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * Gets the players that still have to be restored.
+     *
+     * @return The queue of player UUIDs
+     */
+    public Deque<UUID> getPendingPlayers() {
+        return pendingPlayers;
+    }
+
+    /**
+     * Remembers a restore that has to finish before the game's world is torn down.
+     *
+     * @param restore The restore future
+     */
+    public void addRestore(CompletableFuture<Boolean> restore) {
+        restores.add(restore);
+    }
+
+    /**
+     * Checks whether every restore started so far has finished.
+     *
+     * @return True if no restore is still running
+     */
+    public boolean areRestoresDone() {
+        restores.removeIf(CompletableFuture::isDone);
+        return restores.isEmpty();
+    }
+
+    public Stage getStage() {
+        return stage;
+    }
+
+    /**
+     * Moves on to the next stage, or marks the cleanup finished after the last one.
+     */
+    public void nextStage() {
+        Stage[] stages = Stage.values();
+        if (stage.ordinal() + 1 < stages.length) {
+            stage = stages[stage.ordinal() + 1];
+        } else {
+            finished = true;
+        }
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Records main thread time spent in a stage during one tick.
+     *
+     * @param stage The stage
+     * @param nanos The time spent in nanoseconds
+     */
+    public void recordTick(Stage stage, long nanos) {
+        stageNanos.merge(stage, nanos, Long::sum);
+        stageTicks.merge(stage, 1, Integer::sum);
+    }
+
+    /**
+     * Formats the recorded stage timings for the log.
+     *
+     * @return The timings, e.g. "restore 3.2ms over 4 ticks, unregister 0.4ms over 1 tick"
+     */
+    public String formatTimings() {
+        StringBuilder timings = new StringBuilder();
+        for (Map.Entry<Stage, Long> entry : stageNanos.entrySet()) {
+            if (timings.length() > 0) {
+                timings.append(", ");
+            }
+            int ticks = stageTicks.get(entry.getKey());
+            timings.append(entry.getKey().name().toLowerCase()).append(' ')
+                    .append(String.format("%.1f", entry.getValue() / 1_000_000.0)).append("ms over ")
+                    .append(ticks).append(ticks == 1 ? " tick" : " ticks");
+        }
+        return timings.toString();
+    }
+}
@@ -15,6 +15,12 @@ public enum GameState {
      */
     STARTING,
     
+    /**
+     * The chunks around the game spawn are being generated before players are moved there.
+     * In this state, no more players can join.
+     */
+    PREGENERATING,
+    
     /**
      * Players are being teleported to the game world.
      * This state ensures no game actions occur until all players are in place.
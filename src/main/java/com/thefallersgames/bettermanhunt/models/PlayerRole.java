@@ -0,0 +1,26 @@
+package com.thefallersgames.bettermanhunt.models;
+
+/**
+ * Represents the role a player has in a Manhunt game.
+ */
+public enum PlayerRole {
+    /**
+     * The player hunts the runners.
+     */
+    HUNTER,
+    
+    /**
+     * The player tries to beat the game before the hunters catch them.
+     */
+    RUNNER,
+    
+    /**
+     * The player watches the game, including runners who have died.
+     */
+    SPECTATOR,
+    
+    /**
+     * The player is not part of a game.
+     */
+    NONE
+}
@@ -0,0 +1,154 @@
+package com.thefallersgames.bettermanhunt.models;
+
+import org.bukkit.GameMode;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.potion.PotionEffect;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A player's state from before they joined a game, restored when they leave it.
+ * Covers everything a game changes: inventory (including armor and off-hand), ender chest,
+ * game mode, location, bed spawn, experience, health, hunger and potion effects.
+ */
+public class PlayerState {
+    private final ItemStack[] inventory;
+    private final ItemStack[] enderChest;
+    private final GameMode gameMode;
+    private final StoredLocation location;
+    private final StoredLocation bedSpawn;
+    private final int level;
+    private final float exp;
+    private final int totalExperience;
+    private final double health;
+    private final int foodLevel;
+    private final float saturation;
+    private final float exhaustion;
+    private final List<PotionEffect> potionEffects;
+
+    /**
+     * Creates a new player state.
+     *
+     * @param inventory The inventory contents, including armor and off-hand
+     * @param enderChest The ender chest contents
+     * @param gameMode The game mode
+     * @param location The location to return to when there is no lobby spawn
+     * @param bedSpawn The bed spawn location, or null if none is set
+     * @param level The experience level
+     * @param exp The progress towards the next level, between 0 and 1
+     * @param totalExperience The total experience points
+     * @param health The health
+     * @param foodLevel The food level
+     * @param saturation The saturation
+     * @param exhaustion The exhaustion
+     * @param potionEffects The active potion effects
+     */
+    public PlayerState(ItemStack[] inventory, ItemStack[] enderChest, GameMode gameMode, StoredLocation location,
+                       StoredLocation bedSpawn, int level, float exp, int totalExperience, double health, int foodLevel,
+                       float saturation, float exhaustion, Collection<PotionEffect> potionEffects) {
+        this.inventory = inventory;
+        this.enderChest = enderChest;
+        this.gameMode = gameMode;
+        this.location = location;
+        this.bedSpawn = bedSpawn;
+        this.level = level;
+        this.exp = exp;
+        this.totalExperience = totalExperience;
+        this.health = health;
+        this.foodLevel = foodLevel;
+        this.saturation = saturation;
+        this.exhaustion = exhaustion;
+        this.potionEffects = new ArrayList<>(potionEffects);
+    }
+
+    /**
+     * Captures a player's current state. Item stacks and locations are copied, so the state
+     * doesn't change with the player and can be written on another thread.
+     *
+     * @param player The player
+     * @return The captured state
+     */
+    public static PlayerState capture(Player player) {
+        return new PlayerState(
+                copyItems(player.getInventory().getContents()),
+                copyItems(player.getEnderChest().getContents()),
+                player.getGameMode(),
+                StoredLocation.of(player.getLocation()),
+                StoredLocation.of(player.getBedSpawnLocation()),
+                player.getLevel(),
+                player.getExp(),
+                player.getTotalExperience(),
+                player.getHealth(),
+                player.getFoodLevel(),
+                player.getSaturation(),
+                player.getExhaustion(),
+                player.getActivePotionEffects()
+        );
+    }
+
+    /**
+     * Copies item stacks.
+     */
+    private static ItemStack[] copyItems(ItemStack[] items) {
+        ItemStack[] copy = new ItemStack[items.length];
+        for (int i = 0; i < items.length; i++) {
+            copy[i] = items[i] == null ? null : items[i].clone();
+        }
+        return copy;
+    }
+
+    public ItemStack[] getInventory() {
+        return inventory;
+    }
+
+    public ItemStack[] getEnderChest() {
+        return enderChest;
+    }
+
+    public GameMode getGameMode() {
+        return gameMode;
+    }
+
+    public StoredLocation getLocation() {
+        return location;
+    }
+
+    public StoredLocation getBedSpawn() {
+        return bedSpawn;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public float getExp() {
+        return exp;
+    }
+
+    public int getTotalExperience() {
+        return totalExperience;
+    }
+
+    public double getHealth() {
+        return health;
+    }
+
+    public int getFoodLevel() {
+        return foodLevel;
+    }
+
+    public float getSaturation() {
+        return saturation;
+    }
+
+    public float getExhaustion() {
+        return exhaustion;
+    }
+
+    public List<PotionEffect> getPotionEffects() {
+        return potionEffects;
+    }
+}
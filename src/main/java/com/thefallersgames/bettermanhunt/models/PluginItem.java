@@ -0,0 +1,135 @@
+package com.thefallersgames.bettermanhunt.models;
+
+import org.bukkit.Material;
+
+/**
+ * The items the plugin hands out or shows in its GUIs.
+ * Each item is tagged with its id, so it can be recognised without looking at its name.
+ * Ids are stored on items in player inventories and must never be reused or changed.
+ */
+public enum PluginItem {
+    /**
+     * The compass hunters use to track runners.
+     */
+    TRACKING_COMPASS(1, Material.COMPASS, false),
+    
+    /**
+     * Opens the team selection GUI from the lobby.
+     */
+    SWITCH_TEAM(2, Material.NETHER_STAR, true),
+    
+    /**
+     * Lets the owner start the game from the lobby.
+     */
+    FORCE_START(3, Material.EMERALD, true),
+    
+    /**
+     * Lets the owner delete the game from the lobby.
+     */
+    DELETE_GAME(4, Material.TNT, true),
+    
+    /**
+     * Lets a player leave the game from the lobby.
+     */
+    LEAVE_GAME(5, Material.BARRIER, true),
+    
+    /**
+     * Opens the world selection GUI to create a new game.
+     */
+    CREATE_GAME(6, Material.NETHER_STAR, false),
+    
+    /**
+     * Joins the game it is named after.
+     */
+    JOIN_GAME(7, Material.COMPASS, false),
+    
+    /**
+     * Generates a new world for a new game.
+     */
+    GENERATE_WORLD(8, Material.GRASS_BLOCK, false),
+    
+    /**
+     * Returns to the game selection GUI.
+     */
+    BACK(9, Material.ARROW, false),
+    
+    /**
+     * Joins the runners team.
+     */
+    JOIN_RUNNERS(10, Material.DIAMOND_BOOTS, false),
+    
+    /**
+     * Joins the hunters team.
+     */
+    JOIN_HUNTERS(11, Material.COMPASS, false),
+    
+    /**
+     * Shows the previous page of the game browser.
+     */
+    PREVIOUS_PAGE(12, Material.ARROW, false),
+    
+    /**
+     * Shows the next page of the game browser.
+     */
+    NEXT_PAGE(13, Material.ARROW, false);
+    
+    private static final PluginItem[] BY_ID;
+    
+    static {
+        int maxId = 0;
+        for (PluginItem item : values()) {
+            maxId = Math.max(maxId, item.id);
+        }
+        BY_ID = new PluginItem[maxId + 1];
+        for (PluginItem item : values()) {
+            BY_ID[item.id] = item;
+        }
+    }
+    
+    private final byte id;
+    private final Material material;
+    private final boolean lobbyItem;
+    
+    PluginItem(int id, Material material, boolean lobbyItem) {
+        this.id = (byte) id;
+        this.material = material;
+        this.lobbyItem = lobbyItem;
+    }
+    
+    /**
+     * Gets the id the item is tagged with.
+     *
+     * @return The item id
+     */
+    public byte getId() {
+        return id;
+    }
+    
+    /**
+     * Gets the material the item is made of.
+     *
+     * @return The material
+     */
+    public Material getMaterial() {
+        return material;
+    }
+    
+    /**
+     * Checks whether the item is one of the lobby hotbar items.
+     *
+     * @return True if it is a lobby item
+     */
+    public boolean isLobbyItem() {
+        return lobbyItem;
+    }
+    
+    /**
+     * Gets the item with an id.
+     *
+     * @param id The item id
+     * @return The item, or null if no item has that id
+     */
+    public static PluginItem fromId(byte id) {
+        return id > 0 && id < BY_ID.length ? BY_ID[id] : null;
+    }
+}
@@ -0,0 +1,86 @@
+package com.thefallersgames.bettermanhunt.models;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+/**
+ * A location that refers to its world by name.
+ * Unlike a Bukkit location it can be created and read off the main thread; the world is only
+ * looked up when the location is resolved, which must happen on the main thread.
+ */
+public class StoredLocation {
+    private final String worldName;
+    private final double x;
+    private final double y;
+    private final double z;
+    private final float yaw;
+    private final float pitch;
+
+    /**
+     * Creates a new stored location.
+     *
+     * @param worldName The name of the world
+     * @param x The x coordinate
+     * @param y The y coordinate
+     * @param z The z coordinate
+     * @param yaw The yaw
+     * @param pitch The pitch
+     */
+    public StoredLocation(String worldName, double x, double y, double z, float yaw, float pitch) {
+        this.worldName = worldName;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.yaw = yaw;
+        this.pitch = pitch;
+    }
+
+    /**
+     * Copies a Bukkit location.
+     *
+     * @param location The location, may be null
+     * @return The stored location, or null if the location or its world is missing
+     */
+    public static StoredLocation of(Location location) {
+        if (location == null || location.getWorld() == null) {
+            return null;
+        }
+        return new StoredLocation(location.getWorld().getName(), location.getX(), location.getY(), location.getZ(),
+                location.getYaw(), location.getPitch());
+    }
+
+    /**
+     * Looks up the world and turns this into a Bukkit location. Must be called on the main thread.
+     *
+     * @return The location, or null if the world no longer exists
+     */
+    public Location resolve() {
+        World world = Bukkit.getWorld(worldName);
+        return world == null ? null : new Location(world, x, y, z, yaw, pitch);
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getZ() {
+        return z;
+    }
+
+    public float getYaw() {
+        return yaw;
+    }
+
+    public float getPitch() {
+        return pitch;
+    }
+}
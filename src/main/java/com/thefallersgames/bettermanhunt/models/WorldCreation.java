@@ -0,0 +1,140 @@
+package com.thefallersgames.bettermanhunt.models;
+
+import org.bukkit.World;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Tracks the creation of an overworld/nether/end triple.
+ * Every dimension has its own readiness future, and the time spent in each
+ * creation stage is recorded so slow stages show up in the log.
+ */
+public class WorldCreation {
+    /**
+     * The stages of a world creation, in the order they run.
+     */
+    public enum Stage {
+        OVERWORLD,
+        NETHER,
+        END,
+        INVENTORY_GROUP
+    }
+
+    private final String baseWorldName;
+    private final long startTime;
+    private final CompletableFuture<World> overworld = new CompletableFuture<>();
+    private final CompletableFuture<World> nether = new CompletableFuture<>();
+    private final CompletableFuture<World> end = new CompletableFuture<>();
+    private final CompletableFuture<Boolean> ready = new CompletableFuture<>();
+    private final Map<Stage, Long> stageTimings = Collections.synchronizedMap(new EnumMap<>(Stage.class));
+    private volatile boolean cancelled = false;
+
+    /**
+     * Creates a new world creation record.
+     *
+     * @param baseWorldName The name of the overworld (including folder)
+     */
+    public WorldCreation(String baseWorldName) {
+        this.baseWorldName = baseWorldName;
+        this.startTime = System.currentTimeMillis();
+    }
+
+    public String getBaseWorldName() {
+        return baseWorldName;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * Gets the future for the overworld.
+     *
+     * @return A future that completes with the overworld, or null if it could not be created
+     */
+    public CompletableFuture<World> getOverworld() {
+        return overworld;
+    }
+
+    /**
+     * Gets the future for the nether.
+     *
+     * @return A future that completes with the nether, or null if it could not be created
+     */
+    public CompletableFuture<World> getNether() {
+        return nether;
+    }
+
+    /**
+     * Gets the future for the end.
+     *
+     * @return A future that completes with the end, or null if it could not be created
+     */
+    public CompletableFuture<World> getEnd() {
+        return end;
+    }
+
+    /**
+     * Gets the future for the whole triple.
+     *
+     * @return A future that completes with true once every dimension and the inventory group exist,
+     *         or false if the creation failed or was cancelled
+     */
+    public CompletableFuture<Boolean> getReady() {
+        return ready;
+    }
+
+    /**
+     * Gets the readiness future of a single dimension stage.
+     *
+     * @param stage The stage (OVERWORLD, NETHER or END)
+     * @return The dimension future, or null for stages that don't create a world
+     */
+    public CompletableFuture<World> getDimension(Stage stage) {
+        switch (stage) {
+            case OVERWORLD:
+                return overworld;
+            case NETHER:
+                return nether;
+            case END:
+                return end;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Records how long a stage took.
+     *
+     * @param stage The stage that finished
+     * @param millis The duration in milliseconds
+     */
+    public void recordStage(Stage stage, long millis) {
+        stageTimings.put(stage, millis);
+    }
+
+    /**
+     * Gets the recorded stage durations.
+     *
+     * @return A copy of the stage durations in milliseconds
+     */
+    public Map<Stage, Long> getStageTimings() {
+        synchronized (stageTimings) {
+            return new EnumMap<>(stageTimings);
+        }
+    }
+
+    /**
+     * Stops the creation after the stage that is currently running.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,90 @@
+package com.thefallersgames.bettermanhunt.models;
+
+/**
+ * A world waiting in the deletion queue, together with its failed attempts.
+ * Stored as JSON in the plugin folder, so deletions that keep failing survive a restart.
+ */
+public class WorldDeletion {
+    private final String worldName;
+    private final long queuedAt;
+    private int attempts;
+    private long nextAttemptAt;
+    private long lastFailureAt;
+
+    /**
+     * Creates a new deletion that can be attempted right away.
+     *
+     * @param worldName The base world name (including folder)
+     */
+    public WorldDeletion(String worldName) {
+        this.worldName = worldName;
+        this.queuedAt = System.currentTimeMillis();
+        this.nextAttemptAt = queuedAt;
+    }
+
+    /**
+     * Creates a copy that can be written on another thread while this one keeps changing.
+     */
+    private WorldDeletion(WorldDeletion other) {
+        this.worldName = other.worldName;
+        this.queuedAt = other.queuedAt;
+        this.attempts = other.attempts;
+        this.nextAttemptAt = other.nextAttemptAt;
+        this.lastFailureAt = other.lastFailureAt;
+    }
+
+    /**
+     * Copies this deletion.
+     *
+     * @return A copy with the same attempts
+     */
+    public WorldDeletion copy() {
+        return new WorldDeletion(this);
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+
+    public long getQueuedAt() {
+        return queuedAt;
+    }
+
+    /**
+     * Gets the number of failed attempts.
+     *
+     * @return The number of times deleting the world failed
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public long getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public long getLastFailureAt() {
+        return lastFailureAt;
+    }
+
+    /**
+     * Checks whether an attempt to delete the world has failed.
+     *
+     * @return True if the world is waiting for a retry
+     */
+    public boolean hasFailed() {
+        return attempts > 0;
+    }
+
+    /**
+     * Records a failed attempt.
+     *
+     * @param now The current time in milliseconds
+     * @param retryDelayMillis The time to wait before the next attempt
+     */
+    public void recordFailure(long now, long retryDelayMillis) {
+        attempts++;
+        lastFailureAt = now;
+        nextAttemptAt = now + retryDelayMillis;
+    }
+}
@@ -0,0 +1,26 @@
+package com.thefallersgames.bettermanhunt.models;
+
+/**
+ * Represents the lifecycle state of a world created by the plugin, as recorded in the world journal.
+ */
+public enum WorldLifecycleState {
+    /**
+     * The world is being created. A world left in this state was interrupted by a crash.
+     */
+    CREATING,
+    
+    /**
+     * The world is complete and waiting in the world pool to be claimed by a game.
+     */
+    POOLED,
+    
+    /**
+     * The world belongs to a game.
+     */
+    IN_USE,
+    
+    /**
+     * The world is being unloaded and deleted.
+     */
+    DELETING
+}
@@ -0,0 +1,88 @@
+package com.thefallersgames.bettermanhunt.services;
+
+import com.thefallersgames.bettermanhunt.Plugin;
+import org.bukkit.World;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Ledger of the plugin's chunk tickets.
+ * Bukkit keeps at most one ticket per plugin on a chunk, so chunk pre-generation and queued
+ * teleports that keep the same chunk loaded share it. Every part of the plugin takes and releases
+ * its tickets through this ledger, which counts the holders of each chunk and only removes the
+ * ticket once the last of them has released it.
+ * Must only be used on the main thread.
+ */
+public class ChunkTicketService {
+    private final Plugin plugin;
+
+    // World UID -> chunk key -> number of holders of the plugin's ticket on the chunk
+    private final Map<UUID, Map<Long, Integer>> holders = new HashMap<>();
+
+    /**
+     * Creates a new ChunkTicketService.
+     *
+     * @param plugin The plugin instance
+     */
+    public ChunkTicketService(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Keeps a chunk loaded until every holder has released it.
+     *
+     * @param world The world of the chunk
+     * @param chunkX The chunk x coordinate
+     * @param chunkZ The chunk z coordinate
+     */
+    public void acquire(World world, int chunkX, int chunkZ) {
+        Map<Long, Integer> worldHolders = holders.computeIfAbsent(world.getUID(), uid -> new HashMap<>());
+        long key = chunkKey(chunkX, chunkZ);
+        Integer count = worldHolders.get(key);
+        if (count == null) {
+            world.addPluginChunkTicket(chunkX, chunkZ, plugin);
+            worldHolders.put(key, 1);
+        } else {
+            worldHolders.put(key, count + 1);
+        }
+    }
+
+    /**
+     * Releases one hold on a chunk, removing the ticket if it was the last one.
+     *
+     * @param world The world of the chunk
+     * @param chunkX The chunk x coordinate
+     * @param chunkZ The chunk z coordinate
+     */
+    public void release(World world, int chunkX, int chunkZ) {
+        Map<Long, Integer> worldHolders = holders.get(world.getUID());
+        if (worldHolders == null) {
+            return;
+        }
+
+        long key = chunkKey(chunkX, chunkZ);
+        Integer count = worldHolders.get(key);
+        if (count == null) {
+            return;
+        }
+        if (count > 1) {
+            worldHolders.put(key, count - 1);
+            return;
+        }
+
+        worldHolders.remove(key);
+        world.removePluginChunkTicket(chunkX, chunkZ, plugin);
+        if (worldHolders.isEmpty()) {
+            holders.remove(world.getUID());
+        }
+    }
+
+    /**
+     * Packs chunk coordinates into one key.
+     */
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+}
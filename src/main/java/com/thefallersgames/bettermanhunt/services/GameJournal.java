@@ -0,0 +1,379 @@
+package com.thefallersgames.bettermanhunt.services;
+
+import com.thefallersgames.bettermanhunt.Plugin;
+import com.thefallersgames.bettermanhunt.managers.PlayerStateManager;
+import com.thefallersgames.bettermanhunt.models.Game;
+import com.thefallersgames.bettermanhunt.models.GameState;
+import com.thefallersgames.bettermanhunt.models.PlayerRole;
+import com.thefallersgames.bettermanhunt.models.StoredLocation;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Append-only journal of the lifecycle of every game: its creation with its world and spawn,
+ * every roster change and every state change, and its end.
+ * Each record is one tab separated line that is forced to disk on a background thread, in the
+ * order the records are made, so after a crash the journal shows which games were running, who
+ * was in them and how far they got without an fsync ever stalling the main thread.
+ * On startup the journal is replayed: the worlds of interrupted games are queued for deletion and
+ * their players get their pre-game state back. A result that was decided before the crash has
+ * already been recorded; an undecided game simply records no result.
+ * The journal is emptied whenever no game is running. Every method must only be used on the main thread.
+ */
+public class GameJournal {
+    private static final String CREATED = "C";
+    private static final String JOINED = "J";
+    private static final String LEFT = "L";
+    private static final String STATE = "S";
+    private static final String ENDED = "E";
+
+    private final Logger logger;
+    private final File journalFile;
+    private final ExecutorService writer;
+
+    // Only used on the writer thread, and after it has stopped
+    private FileChannel channel;
+
+    // The roster last written for each running game, so only the changes are journalled
+    private final Map<String, Map<UUID, PlayerRole>> rosters = new HashMap<>();
+
+    // Games that were still running when the previous run stopped, in the order they were created
+    private final Map<String, InterruptedGame> interruptedGames = new LinkedHashMap<>();
+
+    /**
+     * Creates a new GameJournal and reads the games the previous run left unfinished.
+     *
+     * @param plugin The plugin instance
+     */
+    public GameJournal(Plugin plugin) {
+        this.logger = plugin.getLogger();
+        this.journalFile = new File(plugin.getDataFolder(), "game-journal.log");
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ManhuntDeluxe-GameJournal");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (!plugin.getDataFolder().exists()) {
+            plugin.getDataFolder().mkdirs();
+        }
+
+        replay();
+    }
+
+    /**
+     * Queues the generated worlds of the interrupted games for deletion, in the order the games were created.
+     *
+     * @param deletionQueue The world deletion queue
+     * @param worldsFolder The folder generated game worlds are created in
+     */
+    public void queueWorldDeletions(WorldDeletionQueue deletionQueue, String worldsFolder) {
+        for (InterruptedGame game : interruptedGames.values()) {
+            if (game.worldName.contains(worldsFolder + "/")) {
+                deletionQueue.enqueue(game.worldName);
+            }
+        }
+    }
+
+    /**
+     * Settles the games the previous run left unfinished and starts a fresh journal.
+     * Players who are online get their pre-game state back now; the others get it on their next login.
+     *
+     * @param playerStateManager The player state manager
+     */
+    public void recoverInterruptedGames(PlayerStateManager playerStateManager) {
+        for (InterruptedGame game : interruptedGames.values()) {
+            // The stats of a decided game were saved the moment it was decided; an undecided game never gets a winner
+            boolean decided = game.state == GameState.RUNNERS_WON || game.state == GameState.HUNTERS_WON;
+            logger.warning("Game '" + game.name + "' in world '" + game.worldName + "'" + formatSpawn(game.spawn)
+                    + " was interrupted while " + game.state + " with " + game.roster.size() + " player(s); "
+                    + (decided ? "its result was already recorded" : "no result is recorded for it"));
+
+            for (UUID playerId : game.roster.keySet()) {
+                Player player = Bukkit.getPlayer(playerId);
+                if (player != null && playerStateManager.hasSavedState(playerId)) {
+                    playerStateManager.restorePlayerState(player);
+                }
+            }
+        }
+        interruptedGames.clear();
+
+        truncate();
+    }
+
+    /**
+     * Records a new game, with its world, owner and spawn.
+     *
+     * @param game The game
+     */
+    public void gameCreated(Game game) {
+        rosters.put(game.getName(), new HashMap<>());
+        Location spawn = game.getSpawnLocation();
+        append(CREATED, game.getName(), game.getWorld().getName(), game.getOwner().toString(),
+                Double.toString(spawn.getX()), Double.toString(spawn.getY()), Double.toString(spawn.getZ()),
+                Float.toString(spawn.getYaw()), Float.toString(spawn.getPitch()));
+        stateChanged(game);
+    }
+
+    /**
+     * Records the players who joined, switched teams or left since the roster was last recorded.
+     *
+     * @param game The game
+     */
+    public void rosterChanged(Game game) {
+        Map<UUID, PlayerRole> recorded = rosters.get(game.getName());
+        if (recorded == null) {
+            return;
+        }
+
+        Map<UUID, PlayerRole> current = new HashMap<>();
+        for (UUID playerId : game.getHunters()) {
+            current.put(playerId, PlayerRole.HUNTER);
+        }
+        for (UUID playerId : game.getRunners()) {
+            current.put(playerId, PlayerRole.RUNNER);
+        }
+        for (UUID playerId : game.getSpectators()) {
+            current.put(playerId, PlayerRole.SPECTATOR);
+        }
+
+        for (Map.Entry<UUID, PlayerRole> entry : current.entrySet()) {
+            if (recorded.get(entry.getKey()) != entry.getValue()) {
+                append(JOINED, game.getName(), entry.getKey().toString(), entry.getValue().name());
+            }
+        }
+        for (UUID playerId : recorded.keySet()) {
+            if (!current.containsKey(playerId)) {
+                append(LEFT, game.getName(), playerId.toString());
+            }
+        }
+
+        rosters.put(game.getName(), current);
+    }
+
+    /**
+     * Records a game's new state.
+     *
+     * @param game The game
+     */
+    public void stateChanged(Game game) {
+        if (rosters.containsKey(game.getName())) {
+            append(STATE, game.getName(), game.getState().name());
+        }
+    }
+
+    /**
+     * Records that a game is gone. Once no game is running, the journal is emptied.
+     *
+     * @param gameName The name of the game
+     */
+    public void gameEnded(String gameName) {
+        if (rosters.remove(gameName) == null) {
+            return;
+        }
+        append(ENDED, gameName);
+        if (rosters.isEmpty()) {
+            truncate();
+        }
+    }
+
+    /**
+     * Finishes pending writes, stops the background thread and closes the journal.
+     */
+    public void shutdown() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                logger.warning("Timed out waiting for the game journal to be written");
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.warning("Failed to close the game journal: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Queues a record to be appended and forced to disk on the writer thread.
+     */
+    private void append(String... fields) {
+        // Nothing is recorded after the shutdown; the next startup finds those games in the journal
+        if (writer.isShutdown()) {
+            return;
+        }
+
+        String line = String.join("\t", fields) + "\n";
+        writer.execute(() -> write(line));
+    }
+
+    /**
+     * Appends a record and forces it to disk. Runs on the writer thread.
+     */
+    private void write(String line) {
+        ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+        try {
+            FileChannel out = openChannel();
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(false);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Failed to write to the game journal", e);
+        }
+    }
+
+    /**
+     * Queues the journal to be emptied on the writer thread, after the records made before.
+     */
+    private void truncate() {
+        if (!writer.isShutdown()) {
+            writer.execute(this::empty);
+        }
+    }
+
+    /**
+     * Empties the journal. Runs on the writer thread.
+     */
+    private void empty() {
+        try {
+            FileChannel out = openChannel();
+            out.truncate(0);
+            out.force(true);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Failed to empty the game journal", e);
+        }
+    }
+
+    /**
+     * Opens the journal for appending the first time it is written.
+     */
+    private FileChannel openChannel() throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(journalFile.toPath(),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        return channel;
+    }
+
+    /**
+     * Formats the spawn of an interrupted game for the log.
+     */
+    private static String formatSpawn(StoredLocation spawn) {
+        return String.format(" (spawn %.1f, %.1f, %.1f)", spawn.getX(), spawn.getY(), spawn.getZ());
+    }
+
+    /**
+     * Reads the journal and collects the games that were created but never ended.
+     * A record cut off by a crash is skipped.
+     */
+    private void replay() {
+        if (!journalFile.exists()) {
+            return;
+        }
+
+        int skipped = 0;
+        try (BufferedReader reader = Files.newBufferedReader(journalFile.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!apply(line.split("\t"))) {
+                    skipped++;
+                }
+            }
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Failed to read the game journal", e);
+        }
+
+        if (skipped > 0) {
+            logger.warning("Skipped " + skipped + " unreadable game journal record(s)");
+        }
+        if (!interruptedGames.isEmpty()) {
+            logger.warning("Found " + interruptedGames.size() + " game(s) interrupted by the previous shutdown");
+        }
+    }
+
+    /**
+     * Applies one journal record to the interrupted games.
+     *
+     * @return False if the record could not be read
+     */
+    private boolean apply(String[] fields) {
+        try {
+            String type = fields[0];
+            if (type.equals(CREATED)) {
+                StoredLocation spawn = new StoredLocation(fields[2], Double.parseDouble(fields[4]),
+                        Double.parseDouble(fields[5]), Double.parseDouble(fields[6]),
+                        Float.parseFloat(fields[7]), Float.parseFloat(fields[8]));
+                interruptedGames.put(fields[1], new InterruptedGame(fields[1], fields[2], spawn));
+                return true;
+            }
+
+            InterruptedGame game = interruptedGames.get(fields[1]);
+            if (game == null) {
+                return false;
+            }
+
+            switch (type) {
+                case JOINED:
+                    game.roster.put(UUID.fromString(fields[2]), PlayerRole.valueOf(fields[3]));
+                    return true;
+                case LEFT:
+                    game.roster.remove(UUID.fromString(fields[2]));
+                    return true;
+                case STATE:
+                    game.state = GameState.valueOf(fields[2]);
+                    return true;
+                case ENDED:
+                    interruptedGames.remove(fields[1]);
+                    return true;
+                default:
+                    return false;
+            }
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * A game that was running when the previous run stopped, as far as the journal shows.
+     */
+    private static final class InterruptedGame {
+        private final String name;
+        private final String worldName;
+        private final StoredLocation spawn;
+        private final Map<UUID, PlayerRole> roster = new LinkedHashMap<>();
+        private GameState state = GameState.LOBBY;
+
+        private InterruptedGame(String name, String worldName, StoredLocation spawn) {
+            this.name = name;
+            this.worldName = worldName;
+            this.spawn = spawn;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.thefallersgames.bettermanhunt.managers.GameManager;
 import com.thefallersgames.bettermanhunt.managers.GameSetupManager;
 import com.thefallersgames.bettermanhunt.managers.HeadstartManager;
 import com.thefallersgames.bettermanhunt.models.Game;
+import com.thefallersgames.bettermanhunt.tasks.ChunkPregenTask;
 import com.thefallersgames.bettermanhunt.tasks.CompassTask;
 import com.thefallersgames.bettermanhunt.tasks.HeadstartTask;
 import org.bukkit.Bukkit;
@@ -24,6 +25,7 @@ import java.util.function.Supplier;
  */
 public class GameTaskService {
     private final Plugin plugin;
+    private final SchedulerService scheduler;
     private final Supplier<GameManager> gameManagerSupplier;
     private GameManager gameManager; // Lazily initialized
     private final GameSetupManager gameSetupManager;
@@ -31,6 +33,10 @@ public class GameTaskService {
     // Task tracking
     private final Map<String, CompassTask> compassTasks = new HashMap<>();
     private final Map<String, HeadstartTask> headstartTasks = new HashMap<>();
+    private final Map<String, ChunkPregenTask> pregenTasks = new HashMap<>();
+    
+    // Finished pre-generations whose chunks are kept loaded until the game releases them
+    private final Map<String, ChunkPregenTask> pregeneratedAreas = new HashMap<>();
     
     // Boss bar tracking
     private final Map<String, BossBar> gameBossBars = new HashMap<>();
@@ -47,8 +53,9 @@ public class GameTaskService {
             Supplier<GameManager> gameManagerSupplier,
             HeadstartManager headstartManager) {
         this.plugin = plugin;
+        this.scheduler = plugin.getSchedulerService();
         this.gameManagerSupplier = gameManagerSupplier;
-        this.gameSetupManager = new GameSetupManager(headstartManager);
+        this.gameSetupManager = new GameSetupManager(headstartManager, plugin.getTeleportService());
     }
     
     /**
@@ -155,7 +162,7 @@ public class GameTaskService {
             bossBar.setColor(BarColor.RED);
             
             // Schedule a delayed task to transition to the runner count boss bar
-            Bukkit.getScheduler().runTaskLater(plugin, () -> {
+            scheduler.runTaskLater(() -> {
                 updateActiveGameBossBar(game);
             }, 60L); // 3 seconds
         }
@@ -353,7 +360,7 @@ public class GameTaskService {
         
         // Start headstart countdown
         HeadstartTask headstartTask = new HeadstartTask(plugin, game, bossBar, getGameManager(), this);
-        headstartTask.runTaskTimer(plugin, 0L, 20L); // Update every second
+        headstartTask.runTaskTimerAt(scheduler, game.getSpawnLocation(), 0L, 20L); // Update every second, on the game's region
         headstartTasks.put(gameName, headstartTask);
     }
     
@@ -392,6 +399,62 @@ public class GameTaskService {
         }
     }
     
+    /**
+     * Generates the chunks around the game spawn before players are released.
+     * Progress is shown on the starting boss bar. If pre-generation is disabled,
+     * the completion callback runs immediately.
+     * 
+     * @param game The game whose spawn area should be generated
+     * @param onComplete Runnable to execute once all chunks are generated
+     * @param onCancel Runnable to execute if the game moves on or pre-generation is cancelled first
+     */
+    public void startPregeneration(Game game, Runnable onComplete, Runnable onCancel) {
+        String gameName = game.getName();
+        int radius = plugin.getConfig().getInt("pregeneration.radius", 8);
+        
+        if (!plugin.getConfig().getBoolean("pregeneration.enabled", true) || radius < 0) {
+            onComplete.run();
+            return;
+        }
+        
+        long budgetMillis = plugin.getConfig().getLong("pregeneration.tick-budget-ms", 20L);
+        ChunkPregenTask pregenTask = new ChunkPregenTask(plugin, game, radius, budgetMillis, gameBossBars.get(gameName), () -> {
+            pregeneratedAreas.put(gameName, pregenTasks.remove(gameName));
+            onComplete.run();
+        }, () -> {
+            pregenTasks.remove(gameName);
+            onCancel.run();
+        });
+        pregenTask.runTaskTimerAt(scheduler, game.getSpawnLocation(), 1L, 1L); // Generate a slice every tick, on the game's region
+        pregenTasks.put(gameName, pregenTask);
+    }
+    
+    /**
+     * Cancels a chunk pre-generation task, releasing the chunks it generated so far.
+     * 
+     * @param gameName The name of the game
+     */
+    public void cancelPregeneration(String gameName) {
+        ChunkPregenTask pregenTask = pregenTasks.remove(gameName);
+        if (pregenTask != null) {
+            pregenTask.abort();
+        }
+    }
+    
+    /**
+     * Releases the chunk tickets taken during pre-generation so the server
+     * can unload the spawn area again once players have spread out.
+     * Only the tickets the game's pre-generation took are released.
+     * 
+     * @param game The game whose chunks should be released
+     */
+    public void releasePregeneratedChunks(Game game) {
+        ChunkPregenTask pregenTask = pregeneratedAreas.remove(game.getName());
+        if (pregenTask != null) {
+            pregenTask.releaseTickets();
+        }
+    }
+    
     /**
      * Cancels a compass task.
      * 
@@ -413,6 +476,15 @@ public class GameTaskService {
         // Cancel headstart task
         cancelHeadstartTask(gameName);
         
+        // Stop generating chunks if the game never got past its start
+        cancelPregeneration(gameName);
+        
+        // Let go of the spawn area if the game ended before releasing it
+        ChunkPregenTask pregenTask = pregeneratedAreas.remove(gameName);
+        if (pregenTask != null) {
+            pregenTask.releaseTickets();
+        }
+        
         // Remove boss bar
         removeBossBar(gameName);
     }
@@ -0,0 +1,113 @@
+package com.thefallersgames.bettermanhunt.services;
+
+import com.thefallersgames.bettermanhunt.Plugin;
+import com.thefallersgames.bettermanhunt.models.PluginItem;
+import com.thefallersgames.bettermanhunt.utils.GuiUtil;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataType;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Creates and recognises the plugin's items.
+ * Every plugin item carries its {@link PluginItem} id under a single persistent data key, so
+ * classifying an item takes one material check and one tag read, however it has been renamed.
+ */
+public class ItemClassifier {
+    private final NamespacedKey itemKey;
+    
+    // The materials plugin items are made of; anything else can be rejected without reading its meta
+    private final Set<Material> itemMaterials;
+    
+    /**
+     * Creates a new ItemClassifier.
+     *
+     * @param plugin The plugin instance
+     */
+    public ItemClassifier(Plugin plugin) {
+        this.itemKey = new NamespacedKey(plugin, "item");
+        this.itemMaterials = EnumSet.noneOf(Material.class);
+        for (PluginItem item : PluginItem.values()) {
+            itemMaterials.add(item.getMaterial());
+        }
+    }
+    
+    /**
+     * Creates a tagged plugin item with a display name and lore.
+     *
+     * @param type The plugin item to create
+     * @param name The display name, with '&' color codes
+     * @param lore The lore, with '&' color codes
+     * @return The created item
+     */
+    public ItemStack createItem(PluginItem type, String name, String... lore) {
+        return tag(GuiUtil.createItem(type.getMaterial(), name, lore), type);
+    }
+    
+    /**
+     * Tags an item as a plugin item.
+     *
+     * @param item The item, which must be made of the plugin item's material
+     * @param type The plugin item it is
+     * @return The same item
+     */
+    public ItemStack tag(ItemStack item, PluginItem type) {
+        ItemMeta meta = item.getItemMeta();
+        if (meta != null) {
+            meta.getPersistentDataContainer().set(itemKey, PersistentDataType.BYTE, type.getId());
+            item.setItemMeta(meta);
+        }
+        return item;
+    }
+    
+    /**
+     * Tags item meta as a plugin item, for items whose meta is being edited anyway.
+     *
+     * @param meta The item meta
+     * @param type The plugin item it is
+     */
+    public void tag(ItemMeta meta, PluginItem type) {
+        meta.getPersistentDataContainer().set(itemKey, PersistentDataType.BYTE, type.getId());
+    }
+    
+    /**
+     * Classifies an item.
+     *
+     * @param item The item, may be null
+     * @return The plugin item it is, or null if it is not a plugin item
+     */
+    public PluginItem classify(ItemStack item) {
+        if (item == null || !itemMaterials.contains(item.getType()) || !item.hasItemMeta()) {
+            return null;
+        }
+        
+        Byte id = item.getItemMeta().getPersistentDataContainer().get(itemKey, PersistentDataType.BYTE);
+        return id != null ? PluginItem.fromId(id) : null;
+    }
+    
+    /**
+     * Checks whether an item is a particular plugin item.
+     *
+     * @param item The item, may be null
+     * @param type The plugin item
+     * @return True if the item is that plugin item
+     */
+    public boolean is(ItemStack item, PluginItem type) {
+        return classify(item) == type;
+    }
+    
+    /**
+     * Checks whether an item is one of the lobby hotbar items.
+     *
+     * @param item The item, may be null
+     * @return True if it is a lobby item
+     */
+    public boolean isLobbyItem(ItemStack item) {
+        PluginItem type = classify(item);
+        return type != null && type.isLobbyItem();
+    }
+}
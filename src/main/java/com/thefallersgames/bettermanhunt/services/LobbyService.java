@@ -2,21 +2,64 @@ package com.thefallersgames.bettermanhunt.services;
 
 import com.thefallersgames.bettermanhunt.Plugin;
 import com.thefallersgames.bettermanhunt.models.Game;
+import com.thefallersgames.bettermanhunt.utils.VoidChunkGenerator;
+import org.bukkit.Bukkit;
+import org.bukkit.Difficulty;
 import org.bukkit.GameMode;
+import org.bukkit.GameRule;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
+import org.bukkit.WorldCreator;
+import org.bukkit.WorldType;
 import org.bukkit.attribute.Attribute;
 import org.bukkit.entity.Player;
 import org.bukkit.configuration.file.FileConfiguration;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Service responsible for handling all lobby-related functionality.
  */
 public class LobbyService {
+    // Number of capsules per row of the lobby world grid
+    private static final int GRID_COLUMNS = 16;
+    
+    // Capsule dimensions
+    private static final int CAPSULE_WIDTH = 3;
+    private static final int CAPSULE_HEIGHT = 4;
+    private static final int CAPSULE_DEPTH = 3;
+    
+    // The capsule structure, computed once: block offsets and the material of each block
+    private static final int[][] CAPSULE_OFFSETS = createCapsuleOffsets();
+    private static final Material[] CAPSULE_MATERIALS = createCapsuleMaterials(Material.GLASS, Material.GLOWSTONE);
+    private static final Material[] CLEARED_MATERIALS = createCapsuleMaterials(Material.AIR, Material.AIR);
+    
     private final Plugin plugin;
+    private final TeleportService teleportService;
     private Location lobbySpawn;
     
+    // Shared lobby world holding one capsule per game, or null to build capsules above each game world
+    private World lobbyWorld;
+    private final int capsuleSpacing;
+    private final int capsuleHeight;
+    
+    // Grid slots of the capsules in the lobby world, by game name
+    private final Map<String, Integer> capsuleSlots = new HashMap<>();
+    private final TreeSet<Integer> freeSlots = new TreeSet<>();
+    
+    // Games whose capsule has been built
+    private final Set<String> builtCapsules = new HashSet<>();
+    private int nextSlot = 0;
+    
     /**
      * Creates a new LobbyService.
      *
@@ -24,7 +67,14 @@ public class LobbyService {
      */
     public LobbyService(Plugin plugin) {
         this.plugin = plugin;
+        this.teleportService = plugin.getTeleportService();
+        this.capsuleSpacing = Math.max(16, plugin.getConfig().getInt("lobby-world.capsule-spacing", 64));
+        this.capsuleHeight = plugin.getConfig().getInt("lobby-world.capsule-height", 100);
         loadLobbySpawn();
+        
+        if (plugin.getConfig().getBoolean("lobby-world.enabled", true)) {
+            loadLobbyWorld(plugin.getConfig().getString("lobby-world.name", "manhunt_lobby"));
+        }
     }
     
     /**
@@ -89,7 +139,7 @@ public class LobbyService {
             return false;
         }
         
-        player.teleport(lobbySpawn);
+        teleportService.teleport(player, lobbySpawn);
         return true;
     }
     
@@ -122,74 +172,185 @@ public class LobbyService {
     }
     
     /**
-     * Teleports a player to the glass capsule lobby 100 blocks above the world spawn.
-     * Creates the capsule if it doesn't exist.
+     * Teleports a player to their game's glass capsule.
+     * Capsules are placed on a grid in the shared lobby world, or 100 blocks above the
+     * game world's spawn when the lobby world is disabled.
+     * Builds the capsule the first time one of the game's players needs it.
      *
      * @param player The player to teleport
      * @param game The game the player is in
-     * @return True if teleportation was successful, false otherwise
+     * @return A CompletableFuture that completes with true if teleportation was successful, false otherwise
+     */
+    public CompletableFuture<Boolean> teleportToLobbyCapsule(Player player, Game game) {
+        Location teleportLocation = prepareLobbyCapsule(game);
+        if (teleportLocation == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return teleportService.teleport(player, teleportLocation);
+    }
+    
+    /**
+     * Makes sure a game's glass capsule exists and gets the location inside it.
+     * Builds the capsule the first time one of the game's players needs it.
+     *
+     * @param game The game
+     * @return The location inside the capsule, or null if the capsule could not be built
      */
-    public boolean teleportToLobbyCapsule(Player player, Game game) {
+    public Location prepareLobbyCapsule(Game game) {
         try {
-            // Get the world and spawn location
-            World world = game.getWorld();
-            Location worldSpawn = world.getSpawnLocation().clone();
+            Location capsuleCenter = getCapsuleCenter(game);
             
-            // Create capsule 100 blocks above world spawn
-            Location capsuleCenter = worldSpawn.clone().add(0, 100, 0);
-            
-            // Check if capsule already exists, if not, create it
-            if (!isCapsulePresent(capsuleCenter)) {
-                createGlassCapsule(capsuleCenter);
+            // Build the capsule the first time a player of this game needs it
+            if (builtCapsules.add(game.getName())) {
+                buildCapsule(capsuleCenter, CAPSULE_MATERIALS);
             }
             
-            // Teleport player inside the capsule
-            Location teleportLocation = capsuleCenter.clone().add(1.5, 1, 1.5);
-            return player.teleport(teleportLocation);
+            return capsuleCenter.clone().add(1.5, 1, 1.5);
         } catch (Exception e) {
-            plugin.getLogger().warning("Error teleporting player to lobby capsule: " + e.getMessage());
-            return false;
+            plugin.getLogger().warning("Error preparing lobby capsule: " + e.getMessage());
+            return null;
         }
     }
     
     /**
-     * Checks if a glass capsule is already present at the given location.
+     * Removes a game's capsule from the lobby world and frees its grid slot.
+     * Called once the game has started or has been deleted.
      *
-     * @param center The center location of the capsule
-     * @return True if the capsule exists
+     * @param gameName The name of the game
      */
-    private boolean isCapsulePresent(Location center) {
-        // Simple check: just check one of the corner blocks
-        return center.getBlock().getType() == Material.GLASS;
+    public void releaseCapsule(String gameName) {
+        boolean built = builtCapsules.remove(gameName);
+        Integer slot = capsuleSlots.remove(gameName);
+        if (slot == null || lobbyWorld == null) {
+            return;
+        }
+        
+        if (built) {
+            buildCapsule(getSlotLocation(slot), CLEARED_MATERIALS);
+        }
+        freeSlots.add(slot);
     }
     
     /**
-     * Creates a glass capsule around the given center location.
+     * Gets the shared lobby world.
      *
-     * @param center The center location for the capsule
-     */
-    private void createGlassCapsule(Location center) {
-        // Capsule dimensions
-        int width = 3;
-        int height = 4;
-        int depth = 3;
-    
-        for (int x = 0; x <= width; x++) {
-            for (int y = 0; y <= height; y++) {
-                for (int z = 0; z <= depth; z++) {
-                    // Skip inner air space (2x3x2 space starting at center)
-                    if (x > 0 && x < width && y > 0 && y < height && z > 0 && z < depth) {
+     * @return The lobby world, or null if capsules are built in the game worlds
+     */
+    public World getLobbyWorld() {
+        return lobbyWorld;
+    }
+    
+    /**
+     * Gets the corner location of a game's capsule, assigning a grid slot in the lobby world if needed.
+     *
+     * @param game The game
+     * @return The capsule location
+     */
+    private Location getCapsuleCenter(Game game) {
+        if (lobbyWorld == null) {
+            // Create capsule 100 blocks above world spawn
+            return game.getWorld().getSpawnLocation().clone().add(0, 100, 0);
+        }
+        
+        Integer slot = capsuleSlots.get(game.getName());
+        if (slot == null) {
+            slot = freeSlots.isEmpty() ? nextSlot++ : freeSlots.pollFirst();
+            capsuleSlots.put(game.getName(), slot);
+        }
+        return getSlotLocation(slot);
+    }
+    
+    /**
+     * Gets the capsule location of a grid slot in the lobby world.
+     */
+    private Location getSlotLocation(int slot) {
+        int x = (slot % GRID_COLUMNS) * capsuleSpacing;
+        int z = (slot / GRID_COLUMNS) * capsuleSpacing;
+        return new Location(lobbyWorld, x, capsuleHeight, z);
+    }
+    
+    /**
+     * Loads the shared void lobby world, creating it on first use.
+     *
+     * @param worldName The name of the lobby world
+     */
+    private void loadLobbyWorld(String worldName) {
+        try {
+            WorldCreator creator = new WorldCreator(worldName)
+                .environment(World.Environment.NORMAL)
+                .type(WorldType.FLAT)
+                .generateStructures(false)
+                .generator(new VoidChunkGenerator(capsuleHeight + 1));
+            lobbyWorld = Bukkit.createWorld(creator);
+        } catch (Exception e) {
+            plugin.getLogger().warning("Could not load lobby world '" + worldName + "': " + e.getMessage()
+                + ". Capsules will be built above the game worlds instead.");
+            lobbyWorld = null;
+            return;
+        }
+        
+        // Nothing in the lobby world needs to tick or stay loaded
+        lobbyWorld.setKeepSpawnInMemory(false);
+        lobbyWorld.setSpawnFlags(false, false);
+        lobbyWorld.setDifficulty(Difficulty.PEACEFUL);
+        lobbyWorld.setTime(6000L);
+        lobbyWorld.setGameRule(GameRule.DO_DAYLIGHT_CYCLE, false);
+        lobbyWorld.setGameRule(GameRule.DO_WEATHER_CYCLE, false);
+        lobbyWorld.setGameRule(GameRule.DO_MOB_SPAWNING, false);
+        plugin.getLogger().info("Lobby capsules are hosted in world '" + worldName + "'");
+    }
+    
+    /**
+     * Places the capsule structure in one pass, without triggering block physics.
+     *
+     * @param corner The corner location of the capsule
+     * @param materials The material for each block of {@link #CAPSULE_OFFSETS}
+     */
+    private void buildCapsule(Location corner, Material[] materials) {
+        World world = corner.getWorld();
+        int baseX = corner.getBlockX();
+        int baseY = corner.getBlockY();
+        int baseZ = corner.getBlockZ();
+        
+        for (int i = 0; i < CAPSULE_OFFSETS.length; i++) {
+            int[] offset = CAPSULE_OFFSETS[i];
+            world.getBlockAt(baseX + offset[0], baseY + offset[1], baseZ + offset[2]).setType(materials[i], false);
+        }
+    }
+    
+    /**
+     * Computes the block offsets of the capsule shell: a 4x5x4 glass box around a 2x3x2 air space,
+     * with the light at the ceiling center placed last.
+     */
+    private static int[][] createCapsuleOffsets() {
+        List<int[]> offsets = new ArrayList<>();
+        for (int x = 0; x <= CAPSULE_WIDTH; x++) {
+            for (int y = 0; y <= CAPSULE_HEIGHT; y++) {
+                for (int z = 0; z <= CAPSULE_DEPTH; z++) {
+                    // Skip the inner air space
+                    if (x > 0 && x < CAPSULE_WIDTH && y > 0 && y < CAPSULE_HEIGHT && z > 0 && z < CAPSULE_DEPTH) {
                         continue;
                     }
-    
-                    Location blockLoc = center.clone().add(x, y, z);
-                    blockLoc.getBlock().setType(Material.GLASS);
+                    // The light replaces this ceiling block
+                    if (x == CAPSULE_WIDTH / 2 && y == CAPSULE_HEIGHT && z == CAPSULE_DEPTH / 2) {
+                        continue;
+                    }
+                    offsets.add(new int[] { x, y, z });
                 }
             }
         }
+        offsets.add(new int[] { CAPSULE_WIDTH / 2, CAPSULE_HEIGHT, CAPSULE_DEPTH / 2 });
+        return offsets.toArray(new int[0][]);
+    }
     
-        // Add light at the ceiling center
-        center.clone().add(width / 2.0, height, depth / 2.0).getBlock().setType(Material.GLOWSTONE);
+    /**
+     * Creates the material list for the capsule structure.
+     */
+    private static Material[] createCapsuleMaterials(Material wall, Material light) {
+        Material[] materials = new Material[CAPSULE_OFFSETS.length];
+        Arrays.fill(materials, wall);
+        materials[materials.length - 1] = light;
+        return materials;
     }
     
     
@@ -0,0 +1,76 @@
+package com.thefallersgames.bettermanhunt.services;
+
+import com.thefallersgames.bettermanhunt.Plugin;
+import com.thefallersgames.bettermanhunt.managers.StatsManager;
+import com.thefallersgames.bettermanhunt.models.PlayerStats;
+import com.thefallersgames.bettermanhunt.utils.CompletionIndex;
+import org.bukkit.entity.Player;
+
+import java.util.List;
+
+/**
+ * The player names offered by tab completion: every online player, and every offline player
+ * who has stats under their last known name.
+ * Kept up to date as players join and quit, so completing a name never walks the player list.
+ */
+public class PlayerNameIndex {
+    private final StatsManager statsManager;
+    private final CompletionIndex names;
+
+    /**
+     * Creates a new PlayerNameIndex, filled with the players who are online or have stats.
+     *
+     * @param plugin The plugin instance
+     * @param statsManager The stats manager
+     */
+    public PlayerNameIndex(Plugin plugin, StatsManager statsManager) {
+        this.statsManager = statsManager;
+        this.names = new CompletionIndex();
+
+        for (PlayerStats stats : statsManager.getAllPlayerStats()) {
+            if (stats.getPlayerName() != null) {
+                names.add(stats.getPlayerName());
+            }
+        }
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            playerJoined(player);
+        }
+    }
+
+    /**
+     * Adds a player who joined. If they renamed, their stats move to the new name.
+     *
+     * @param player The player
+     */
+    public void playerJoined(Player player) {
+        PlayerStats stats = statsManager.findPlayerStats(player.getUniqueId());
+        if (stats != null && !player.getName().equals(stats.getPlayerName())) {
+            if (stats.getPlayerName() != null) {
+                names.remove(stats.getPlayerName());
+            }
+            stats.setPlayerName(player.getName());
+        }
+        names.add(player.getName());
+    }
+
+    /**
+     * Removes a player who quit, unless they have stats that can still be looked up by name.
+     *
+     * @param player The player
+     */
+    public void playerQuit(Player player) {
+        if (statsManager.findPlayerStats(player.getUniqueId()) == null) {
+            names.remove(player.getName());
+        }
+    }
+
+    /**
+     * Gets the player names that start with a prefix, ignoring case.
+     *
+     * @param prefix The prefix
+     * @return The matching names, in alphabetical order
+     */
+    public List<String> complete(String prefix) {
+        return names.complete(prefix);
+    }
+}
@@ -0,0 +1,154 @@
+package com.thefallersgames.bettermanhunt.services;
+
+import com.thefallersgames.bettermanhunt.Plugin;
+import com.thefallersgames.bettermanhunt.models.PlayerState;
+import com.thefallersgames.bettermanhunt.utils.PlayerStateCodec;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the saved states of players who are in a game on disk, one file per player.
+ * A player's items survive a crash mid-game this way, and are restored on their next login.
+ * States are stored in the compact encoding of {@link PlayerStateCodec}.
+ * All file access runs on a single background thread, so a write, read and delete for the same
+ * player always happen in the order they were requested.
+ */
+public class PlayerStateStore {
+    private final Logger logger;
+    private final File stateFolder;
+    private final ExecutorService fileExecutor;
+
+    /**
+     * Creates a new PlayerStateStore.
+     *
+     * @param plugin The plugin instance
+     */
+    public PlayerStateStore(Plugin plugin) {
+        this.logger = plugin.getLogger();
+        this.stateFolder = new File(plugin.getDataFolder(), "player-states");
+        this.fileExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ManhuntDeluxe-PlayerStates");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (!stateFolder.exists()) {
+            stateFolder.mkdirs();
+        }
+    }
+
+    /**
+     * Writes a player's state to disk on a background thread.
+     * The item stacks must be copies the main thread no longer modifies.
+     *
+     * @param playerId The UUID of the player
+     * @param state The state to write
+     * @return A CompletableFuture that completes with true once the state is on disk
+     */
+    public CompletableFuture<Boolean> save(UUID playerId, PlayerState state) {
+        return CompletableFuture.supplyAsync(() -> {
+            File file = getStateFile(playerId);
+            File tempFile = new File(stateFolder, playerId + ".tmp");
+            try {
+                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tempFile.toPath()))) {
+                    PlayerStateCodec.encode(state, out);
+                }
+                moveIntoPlace(tempFile, file);
+                return true;
+            } catch (IOException e) {
+                logger.log(Level.SEVERE, "Failed to save the state of player " + playerId, e);
+                tempFile.delete();
+                return false;
+            }
+        }, fileExecutor);
+    }
+
+    /**
+     * Reads a player's state from disk on a background thread.
+     *
+     * @param playerId The UUID of the player
+     * @return A CompletableFuture that completes with the state, or null if none is stored or it can't be read
+     */
+    public CompletableFuture<PlayerState> load(UUID playerId) {
+        return CompletableFuture.supplyAsync(() -> {
+            File file = getStateFile(playerId);
+            if (!file.exists()) {
+                return null;
+            }
+
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(file.toPath()))) {
+                return PlayerStateCodec.decode(in);
+            } catch (IOException e) {
+                logger.log(Level.SEVERE, "Failed to load the state of player " + playerId, e);
+                return null;
+            }
+        }, fileExecutor);
+    }
+
+    /**
+     * Deletes a player's stored state on a background thread, once it has been restored.
+     *
+     * @param playerId The UUID of the player
+     */
+    public void delete(UUID playerId) {
+        fileExecutor.execute(() -> getStateFile(playerId).delete());
+    }
+
+    /**
+     * Checks whether a state is stored for a player.
+     * A save that is still being written is not counted.
+     *
+     * @param playerId The UUID of the player
+     * @return True if the player has a state file
+     */
+    public boolean exists(UUID playerId) {
+        return getStateFile(playerId).exists();
+    }
+
+    /**
+     * Finishes pending writes and stops the background thread.
+     */
+    public void shutdown() {
+        fileExecutor.shutdown();
+        try {
+            if (!fileExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warning("Timed out waiting for player states to be written");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Gets the file a player's state is stored in.
+     */
+    private File getStateFile(UUID playerId) {
+        return new File(stateFolder, playerId + ".dat");
+    }
+
+    /**
+     * Replaces a file with a freshly written one, atomically where the file system allows it.
+     */
+    private void moveIntoPlace(File source, File target) throws IOException {
+        try {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package com.thefallersgames.bettermanhunt.services;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Server;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.lang.reflect.Method;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Service that schedules the plugin's tasks on the right thread for the server it runs on.
+ * On Folia, global work runs on the global region scheduler, work for an area of a world on that
+ * area's region and work for a player on the player's own scheduler, so separate game worlds can
+ * tick on separate threads. On Paper and Spigot everything runs on the main thread through the
+ * Bukkit scheduler. The Folia API is looked up at runtime so the plugin keeps building against Spigot.
+ */
+public class SchedulerService {
+    private static final String FOLIA_SCHEDULER_PACKAGE = "io.papermc.paper.threadedregions.scheduler.";
+
+    private final Plugin plugin;
+    private final Logger logger;
+    private final boolean folia;
+
+    // Folia scheduler methods, only set when running on Folia
+    private Method getGlobalRegionScheduler;
+    private Method getRegionScheduler;
+    private Method getAsyncScheduler;
+    private Method getEntityScheduler;
+    private Method globalRun;
+    private Method globalRunDelayed;
+    private Method globalRunAtFixedRate;
+    private Method globalCancelTasks;
+    private Method regionRun;
+    private Method regionRunAtFixedRate;
+    private Method entityRun;
+    private Method entityRunDelayed;
+    private Method asyncRunNow;
+    private Method asyncCancelTasks;
+    private Method taskCancel;
+    private Method taskIsCancelled;
+
+    /**
+     * A scheduled task that can be cancelled, whichever scheduler it runs on.
+     */
+    public interface Task {
+        /**
+         * Cancels the task. Does nothing if it already ran or was cancelled.
+         */
+        void cancel();
+
+        /**
+         * Checks whether the task was cancelled.
+         *
+         * @return True if the task was cancelled
+         */
+        boolean isCancelled();
+    }
+
+    /**
+     * Creates a new SchedulerService.
+     *
+     * @param plugin The plugin instance
+     */
+    public SchedulerService(Plugin plugin) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.folia = loadFoliaSchedulers();
+
+        if (folia) {
+            logger.info("Folia detected, tasks will be scheduled on regions and players");
+        }
+    }
+
+    /**
+     * Checks whether the server is running Folia.
+     *
+     * @return True when tasks are dispatched to Folia's regionized schedulers
+     */
+    public boolean isFolia() {
+        return folia;
+    }
+
+    /**
+     * Runs a task on the next tick, on the global region on Folia or the main thread otherwise.
+     *
+     * @param task The task to run
+     * @return The scheduled task
+     */
+    public Task runTask(Runnable task) {
+        if (folia) {
+            return wrap(invoke(globalRun, globalScheduler(), plugin, consumer(task)));
+        }
+        return wrap(Bukkit.getScheduler().runTask(plugin, task));
+    }
+
+    /**
+     * Runs a task after a delay, on the global region on Folia or the main thread otherwise.
+     *
+     * @param task The task to run
+     * @param delayTicks The delay in ticks
+     * @return The scheduled task
+     */
+    public Task runTaskLater(Runnable task, long delayTicks) {
+        if (folia) {
+            return wrap(invoke(globalRunDelayed, globalScheduler(), plugin, consumer(task), Math.max(1L, delayTicks)));
+        }
+        return wrap(Bukkit.getScheduler().runTaskLater(plugin, task, delayTicks));
+    }
+
+    /**
+     * Runs a task repeatedly, on the global region on Folia or the main thread otherwise.
+     *
+     * @param task The task to run
+     * @param delayTicks The delay before the first run in ticks
+     * @param periodTicks The time between runs in ticks
+     * @return The scheduled task
+     */
+    public Task runTaskTimer(Runnable task, long delayTicks, long periodTicks) {
+        if (folia) {
+            return wrap(invoke(globalRunAtFixedRate, globalScheduler(), plugin, consumer(task),
+                    Math.max(1L, delayTicks), Math.max(1L, periodTicks)));
+        }
+        return wrap(Bukkit.getScheduler().runTaskTimer(plugin, task, delayTicks, periodTicks));
+    }
+
+    /**
+     * Runs a task on the next tick on the thread that owns a location.
+     * On Paper and Spigot this is the main thread.
+     *
+     * @param location The location whose region runs the task
+     * @param task The task to run
+     * @return The scheduled task
+     */
+    public Task runAtLocation(Location location, Runnable task) {
+        if (folia) {
+            return wrap(invoke(regionRun, regionScheduler(), plugin, location, consumer(task)));
+        }
+        return wrap(Bukkit.getScheduler().runTask(plugin, task));
+    }
+
+    /**
+     * Runs a task repeatedly on the thread that owns a location.
+     * On Paper and Spigot this is the main thread.
+     *
+     * @param location The location whose region runs the task
+     * @param task The task to run
+     * @param delayTicks The delay before the first run in ticks
+     * @param periodTicks The time between runs in ticks
+     * @return The scheduled task
+     */
+    public Task runAtLocationTimer(Location location, Runnable task, long delayTicks, long periodTicks) {
+        if (folia) {
+            return wrap(invoke(regionRunAtFixedRate, regionScheduler(), plugin, location, consumer(task),
+                    Math.max(1L, delayTicks), Math.max(1L, periodTicks)));
+        }
+        return wrap(Bukkit.getScheduler().runTaskTimer(plugin, task, delayTicks, periodTicks));
+    }
+
+    /**
+     * Runs a task for an entity on the thread that owns it.
+     * On Paper and Spigot the task runs right away when called from the main thread.
+     * On Folia it runs on the entity's next tick, and is dropped if the entity is removed first.
+     *
+     * @param entity The entity the task works on
+     * @param task The task to run
+     */
+    public void runForEntity(Entity entity, Runnable task) {
+        if (folia) {
+            invoke(entityRun, invoke(getEntityScheduler, entity), plugin, consumer(task), null);
+        } else if (Bukkit.isPrimaryThread()) {
+            task.run();
+        } else {
+            Bukkit.getScheduler().runTask(plugin, task);
+        }
+    }
+
+    /**
+     * Runs a task for an entity after a delay, on the thread that owns it.
+     * On Folia the task is dropped if the entity is removed first.
+     *
+     * @param entity The entity the task works on
+     * @param task The task to run
+     * @param delayTicks The delay in ticks
+     * @return The scheduled task
+     */
+    public Task runForEntityLater(Entity entity, Runnable task, long delayTicks) {
+        if (folia) {
+            return wrap(invoke(entityRunDelayed, invoke(getEntityScheduler, entity), plugin, consumer(task), null,
+                    Math.max(1L, delayTicks)));
+        }
+        return wrap(Bukkit.getScheduler().runTaskLater(plugin, task, delayTicks));
+    }
+
+    /**
+     * Runs a task off the server threads.
+     *
+     * @param task The task to run
+     * @return The scheduled task
+     */
+    public Task runAsync(Runnable task) {
+        if (folia) {
+            return wrap(invoke(asyncRunNow, invoke(getAsyncScheduler, Bukkit.getServer()), plugin, consumer(task)));
+        }
+        return wrap(Bukkit.getScheduler().runTaskAsynchronously(plugin, task));
+    }
+
+    /**
+     * Cancels every task the plugin scheduled on the global and async schedulers.
+     * Region and entity tasks on Folia end on their own once the plugin is disabled.
+     */
+    public void cancelTasks() {
+        if (folia) {
+            invoke(globalCancelTasks, globalScheduler(), plugin);
+            invoke(asyncCancelTasks, invoke(getAsyncScheduler, Bukkit.getServer()), plugin);
+            return;
+        }
+        Bukkit.getScheduler().cancelTasks(plugin);
+    }
+
+    /**
+     * Looks up Folia's scheduler API.
+     *
+     * @return True if the server is running Folia
+     */
+    private boolean loadFoliaSchedulers() {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+
+        try {
+            Class<?> globalType = Class.forName(FOLIA_SCHEDULER_PACKAGE + "GlobalRegionScheduler");
+            Class<?> regionType = Class.forName(FOLIA_SCHEDULER_PACKAGE + "RegionScheduler");
+            Class<?> entityType = Class.forName(FOLIA_SCHEDULER_PACKAGE + "EntityScheduler");
+            Class<?> asyncType = Class.forName(FOLIA_SCHEDULER_PACKAGE + "AsyncScheduler");
+            Class<?> taskType = Class.forName(FOLIA_SCHEDULER_PACKAGE + "ScheduledTask");
+            Class<?> pluginType = Plugin.class;
+
+            getGlobalRegionScheduler = Server.class.getMethod("getGlobalRegionScheduler");
+            getRegionScheduler = Server.class.getMethod("getRegionScheduler");
+            getAsyncScheduler = Server.class.getMethod("getAsyncScheduler");
+            getEntityScheduler = Entity.class.getMethod("getScheduler");
+
+            globalRun = globalType.getMethod("run", pluginType, Consumer.class);
+            globalRunDelayed = globalType.getMethod("runDelayed", pluginType, Consumer.class, long.class);
+            globalRunAtFixedRate = globalType.getMethod("runAtFixedRate", pluginType, Consumer.class, long.class, long.class);
+            globalCancelTasks = globalType.getMethod("cancelTasks", pluginType);
+            regionRun = regionType.getMethod("run", pluginType, Location.class, Consumer.class);
+            regionRunAtFixedRate = regionType.getMethod("runAtFixedRate", pluginType, Location.class, Consumer.class, long.class, long.class);
+            entityRun = entityType.getMethod("run", pluginType, Consumer.class, Runnable.class);
+            entityRunDelayed = entityType.getMethod("runDelayed", pluginType, Consumer.class, Runnable.class, long.class);
+            asyncRunNow = asyncType.getMethod("runNow", pluginType, Consumer.class);
+            asyncCancelTasks = asyncType.getMethod("cancelTasks", pluginType);
+            taskCancel = taskType.getMethod("cancel");
+            taskIsCancelled = taskType.getMethod("isCancelled");
+            return true;
+        } catch (ReflectiveOperationException e) {
+            logger.warning("Folia detected but its scheduler API could not be loaded, using the Bukkit scheduler: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Gets Folia's global region scheduler.
+     */
+    private Object globalScheduler() {
+        return invoke(getGlobalRegionScheduler, Bukkit.getServer());
+    }
+
+    /**
+     * Gets Folia's region scheduler.
+     */
+    private Object regionScheduler() {
+        return invoke(getRegionScheduler, Bukkit.getServer());
+    }
+
+    /**
+     * Adapts a runnable to the task consumer Folia's schedulers expect.
+     */
+    private Consumer<Object> consumer(Runnable task) {
+        return scheduledTask -> task.run();
+    }
+
+    /**
+     * Invokes a Folia scheduler method, rethrowing failures as unchecked exceptions.
+     */
+    private Object invoke(Method method, Object target, Object... args) {
+        try {
+            return method.invoke(target, args);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not call Folia scheduler method " + method.getName(), e);
+        }
+    }
+
+    /**
+     * Wraps a Bukkit task.
+     */
+    private Task wrap(BukkitTask task) {
+        return new Task() {
+            @Override
+            public void cancel() {
+                task.cancel();
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return task.isCancelled();
+            }
+        };
+    }
+
+    /**
+     * Wraps a Folia scheduled task. Folia returns null when an entity task can't be scheduled.
+     */
+    private Task wrap(Object scheduledTask) {
+        return new Task() {
+            @Override
+            public void cancel() {
+                if (scheduledTask != null) {
+                    invoke(taskCancel, scheduledTask);
+                }
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return scheduledTask == null || (Boolean) invoke(taskIsCancelled, scheduledTask);
+            }
+        };
+    }
+}
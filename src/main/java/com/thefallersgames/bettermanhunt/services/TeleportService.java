@@ -0,0 +1,264 @@
+package com.thefallersgames.bettermanhunt.services;
+
+import com.thefallersgames.bettermanhunt.Plugin;
+import com.thefallersgames.bettermanhunt.utils.PaperSupport;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+
+/**
+ * Service that spreads player teleports over several ticks.
+ * Queued teleports first load the chunks around their destination, and each tick only
+ * performs a limited number of teleports within a time budget, so moving a large game
+ * between worlds doesn't put every chunk load and teleport in the same tick.
+ * On Paper, chunks are loaded and players are teleported asynchronously, so a destination in a
+ * freshly generated world doesn't stall the main thread at all.
+ * Preloaded chunks are kept loaded through the plugin's chunk ticket ledger, so a chunk shared
+ * with other requests or with chunk pre-generation stays loaded until all of them are done.
+ */
+public class TeleportService {
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final Plugin plugin;
+    private final SchedulerService scheduler;
+    private final ChunkTicketService chunkTicketService;
+    private final Logger logger;
+    private final int maxTeleportsPerTick;
+    private final long tickBudgetNanos;
+    private final int preloadRadius;
+    private final boolean asyncChunks;
+
+    // Pending teleports in the order they were requested
+    private final Deque<TeleportRequest> queue = new ArrayDeque<>();
+    private SchedulerService.Task processTask;
+
+    /**
+     * A queued teleport.
+     */
+    private static class TeleportRequest {
+        private final UUID playerId;
+        private final Location destination;
+        private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+
+        // Chunk coordinates still to load, chunks being loaded asynchronously, and chunks we hold a ticket for
+        private final Deque<int[]> chunksToLoad = new ArrayDeque<>();
+        private int chunksLoading = 0;
+        private final List<int[]> ticketedChunks = new ArrayList<>();
+
+        private TeleportRequest(UUID playerId, Location destination, int preloadRadius) {
+            this.playerId = playerId;
+            this.destination = destination;
+
+            int centerX = destination.getBlockX() >> 4;
+            int centerZ = destination.getBlockZ() >> 4;
+            for (int x = -preloadRadius; x <= preloadRadius; x++) {
+                for (int z = -preloadRadius; z <= preloadRadius; z++) {
+                    chunksToLoad.add(new int[] { centerX + x, centerZ + z });
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a new TeleportService.
+     *
+     * @param plugin The plugin instance
+     */
+    public TeleportService(Plugin plugin) {
+        this.plugin = plugin;
+        this.scheduler = plugin.getSchedulerService();
+        this.chunkTicketService = plugin.getChunkTicketService();
+        this.logger = plugin.getLogger();
+
+        FileConfiguration config = plugin.getConfig();
+        this.maxTeleportsPerTick = Math.max(1, config.getInt("teleport.max-per-tick", 5));
+        this.tickBudgetNanos = Math.max(1L, config.getLong("teleport.tick-budget-ms", 10L)) * NANOS_PER_MILLI;
+        this.preloadRadius = Math.max(0, config.getInt("teleport.preload-radius", 1));
+        this.asyncChunks = PaperSupport.isPaper();
+        
+        if (asyncChunks) {
+            logger.info("Paper detected, teleports and chunk loading will run asynchronously");
+        }
+    }
+
+    /**
+     * Queues a teleport. A player who already has a teleport queued is moved to the new destination.
+     * While the plugin is disabling, the player is teleported right away.
+     *
+     * @param player The player to teleport
+     * @param destination The destination
+     * @return A CompletableFuture that completes on the main thread with true if the player was teleported,
+     *         false if the teleport failed or the player went offline, and is cancelled by {@link #cancel(UUID)}
+     */
+    public CompletableFuture<Boolean> teleport(Player player, Location destination) {
+        if (!plugin.isEnabled()) {
+            return CompletableFuture.completedFuture(player.isOnline() && player.teleport(destination));
+        }
+
+        cancel(player.getUniqueId());
+
+        TeleportRequest request = new TeleportRequest(player.getUniqueId(), destination.clone(), preloadRadius);
+        queue.addLast(request);
+
+        if (processTask == null) {
+            processTask = scheduler.runTaskTimer(this::processQueue, 1L, 1L);
+        }
+        return request.future;
+    }
+
+    /**
+     * Cancels a player's queued teleport, if any.
+     *
+     * @param playerId The UUID of the player
+     * @return True if a queued teleport was cancelled
+     */
+    public boolean cancel(UUID playerId) {
+        Iterator<TeleportRequest> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            TeleportRequest request = iterator.next();
+            if (request.playerId.equals(playerId)) {
+                iterator.remove();
+                releaseTickets(request);
+                request.future.cancel(false);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether a player has a teleport queued.
+     *
+     * @param playerId The UUID of the player
+     * @return True if the player is waiting to be teleported
+     */
+    public boolean isQueued(UUID playerId) {
+        for (TeleportRequest request : queue) {
+            if (request.playerId.equals(playerId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the number of queued teleports.
+     *
+     * @return The queue length
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Runs every tick while teleports are queued. Loads destination chunks and teleports players
+     * in queue order until the per-tick teleport limit or the time budget is reached.
+     * On Paper, requests whose chunks are still loading are passed over so they don't hold up the rest.
+     */
+    private void processQueue() {
+        long deadline = System.nanoTime() + tickBudgetNanos;
+        int teleported = 0;
+
+        Iterator<TeleportRequest> iterator = queue.iterator();
+        while (iterator.hasNext() && teleported < maxTeleportsPerTick && System.nanoTime() < deadline) {
+            TeleportRequest request = iterator.next();
+
+            // Players who left mid-queue are skipped; their state is handled by the quit logic
+            Player player = Bukkit.getPlayer(request.playerId);
+            if (player == null || !player.isOnline()) {
+                iterator.remove();
+                releaseTickets(request);
+                request.future.complete(false);
+                continue;
+            }
+
+            World world = request.destination.getWorld();
+            if (world == null) {
+                iterator.remove();
+                request.future.complete(false);
+                continue;
+            }
+
+            if (!request.chunksToLoad.isEmpty()) {
+                if (asyncChunks) {
+                    // Request every chunk at once; Paper loads them off the main thread
+                    while (!request.chunksToLoad.isEmpty()) {
+                        loadChunkAsync(request, world, request.chunksToLoad.pollFirst());
+                    }
+                    continue;
+                }
+
+                // Load chunks synchronously until the budget runs out, keeping the queue order
+                while (!request.chunksToLoad.isEmpty() && System.nanoTime() < deadline) {
+                    int[] chunk = request.chunksToLoad.pollFirst();
+                    world.getChunkAt(chunk[0], chunk[1]);
+                    chunkTicketService.acquire(world, chunk[0], chunk[1]);
+                    request.ticketedChunks.add(chunk);
+                }
+                if (!request.chunksToLoad.isEmpty()) {
+                    break;
+                }
+            }
+
+            // Still waiting for asynchronous chunk loads
+            if (request.chunksLoading > 0) {
+                continue;
+            }
+
+            iterator.remove();
+            teleported++;
+            PaperSupport.teleport(player, request.destination).whenComplete((success, error) -> {
+                releaseTickets(request);
+                boolean teleportedPlayer = error == null && Boolean.TRUE.equals(success);
+                if (!teleportedPlayer) {
+                    logger.warning("Failed to teleport player " + player.getName() + " to " + world.getName());
+                }
+                request.future.complete(teleportedPlayer);
+            });
+        }
+
+        if (queue.isEmpty() && processTask != null) {
+            processTask.cancel();
+            processTask = null;
+        }
+    }
+
+    /**
+     * Starts loading a destination chunk asynchronously and tickets it once it has loaded,
+     * unless the request was cancelled in the meantime.
+     */
+    private void loadChunkAsync(TeleportRequest request, World world, int[] chunk) {
+        request.chunksLoading++;
+        PaperSupport.getChunkAt(world, chunk[0], chunk[1]).whenComplete((loaded, error) -> {
+            request.chunksLoading--;
+            if (error == null && !request.future.isDone()) {
+                chunkTicketService.acquire(world, chunk[0], chunk[1]);
+                request.ticketedChunks.add(chunk);
+            }
+        });
+    }
+
+    /**
+     * Releases the chunk tickets a request took while preloading.
+     */
+    private void releaseTickets(TeleportRequest request) {
+        World world = request.destination.getWorld();
+        if (world != null) {
+            for (int[] chunk : request.ticketedChunks) {
+                chunkTicketService.release(world, chunk[0], chunk[1]);
+            }
+        }
+        request.ticketedChunks.clear();
+    }
+}
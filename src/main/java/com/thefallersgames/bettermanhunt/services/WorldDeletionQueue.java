@@ -0,0 +1,392 @@
+package com.thefallersgames.bettermanhunt.services;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import com.thefallersgames.bettermanhunt.Plugin;
+import com.thefallersgames.bettermanhunt.managers.GameManager;
+import com.thefallersgames.bettermanhunt.models.WorldDeletion;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.io.File;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Queue of game worlds that have to be deleted.
+ * Failed deletions are retried with an exponentially growing delay until they succeed, and the
+ * queue is stored on disk so they are also retried after a restart. This is the only place
+ * unfinished deletions are persisted: worlds whose files a shutdown had no time left to delete
+ * are queued here as well. Only a limited number of worlds are deleted at the same time, and no
+ * deletion is started while a game is starting, while a starting game waits for the deletions
+ * already running to finish, so unloading worlds never competes with a game's spawn generation
+ * and teleports.
+ * Must only be used on the main thread; the queue file is written on a background thread.
+ */
+public class WorldDeletionQueue {
+    private static final long CHECK_INTERVAL_TICKS = 20L;
+
+    private final Plugin plugin;
+    private final Logger logger;
+    private final SchedulerService scheduler;
+    private final WorldManagementService worldManagementService;
+    private final WorldFileService worldFileService;
+    private final File queueFile;
+    private final File legacyPendingFile;
+    private final Gson gson;
+    private final ExecutorService writer;
+    private final int maxConcurrent;
+    private final long retryDelayMillis;
+    private final long maxRetryDelayMillis;
+
+    // Base world names (including folder) mapped to their deletion, in the order they were queued
+    private final Map<String, WorldDeletion> deletions = new LinkedHashMap<>();
+
+    // Worlds that are being deleted right now
+    private final Set<String> inFlight = new HashSet<>();
+
+    // Waiting for every running deletion to finish
+    private final List<CompletableFuture<Void>> idleWaiters = new ArrayList<>();
+
+    private SchedulerService.Task checkTask;
+
+    /**
+     * Creates a new WorldDeletionQueue and loads the deletions left over from a previous run.
+     *
+     * @param plugin The plugin instance
+     * @param worldManagementService The service that deletes the worlds
+     * @param worldFileService The service that measures the world folders
+     */
+    public WorldDeletionQueue(Plugin plugin, WorldManagementService worldManagementService, WorldFileService worldFileService) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.scheduler = plugin.getSchedulerService();
+        this.worldManagementService = worldManagementService;
+        this.worldFileService = worldFileService;
+        this.queueFile = new File(plugin.getDataFolder(), "world-deletions.json");
+        this.legacyPendingFile = new File(plugin.getDataFolder(), "pending-deletions.json");
+        this.gson = new GsonBuilder().setPrettyPrinting().create();
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ManhuntDeluxe-WorldDeletions");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        FileConfiguration config = plugin.getConfig();
+        this.maxConcurrent = Math.max(1, config.getInt("world-deletion.max-concurrent", 1));
+        this.retryDelayMillis = Math.max(1L, config.getLong("world-deletion.retry-delay-seconds", 10L)) * 1000L;
+        this.maxRetryDelayMillis = Math.max(retryDelayMillis,
+                config.getLong("world-deletion.max-retry-delay-seconds", 600L) * 1000L);
+
+        if (!plugin.getDataFolder().exists()) {
+            plugin.getDataFolder().mkdirs();
+        }
+
+        load();
+        migrateLegacyPendingDeletions();
+    }
+
+    /**
+     * Starts working through the queue.
+     * The first check is delayed so the startup cleanup of orphaned worlds goes first.
+     */
+    public void start() {
+        if (!deletions.isEmpty()) {
+            logger.info("Resuming " + deletions.size() + " queued world deletion(s) from a previous run");
+        }
+        checkTask = scheduler.runTaskTimer(this::check, 10 * CHECK_INTERVAL_TICKS, CHECK_INTERVAL_TICKS);
+    }
+
+    /**
+     * Stops working through the queue. Worlds that are still queued are deleted after the next startup.
+     */
+    public void stop() {
+        if (checkTask != null) {
+            checkTask.cancel();
+            checkTask = null;
+        }
+    }
+
+    /**
+     * Finishes writing the queue and stops the background thread.
+     * Called after the game cleanup, so worlds queued while disabling are on disk.
+     */
+    public void shutdown() {
+        stop();
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                logger.warning("Timed out waiting for the world deletion queue to be written");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Queues a world for deletion. The deletion starts on one of the next checks, or after the
+     * next startup if the plugin is disabling.
+     *
+     * @param worldName The base world name (including folder)
+     */
+    public void enqueue(String worldName) {
+        if (deletions.containsKey(worldName)) {
+            return;
+        }
+        deletions.put(worldName, new WorldDeletion(worldName));
+        save();
+    }
+
+    /**
+     * Checks whether a world is queued for deletion.
+     *
+     * @param worldName The base world name (including folder)
+     * @return True if the world is queued
+     */
+    public boolean contains(String worldName) {
+        return deletions.containsKey(worldName);
+    }
+
+    /**
+     * Gets the queued deletions.
+     *
+     * @return A copy of the queued deletions, in the order they were queued
+     */
+    public List<WorldDeletion> getDeletions() {
+        return new ArrayList<>(deletions.values());
+    }
+
+    /**
+     * Checks whether a world is being deleted right now.
+     *
+     * @param worldName The base world name (including folder)
+     * @return True if the deletion of the world is running
+     */
+    public boolean isInFlight(String worldName) {
+        return inFlight.contains(worldName);
+    }
+
+    /**
+     * Waits until no deletion is running. No new deletion starts while a game is starting, so a
+     * starting game can wait for this before it generates its spawn and moves its players.
+     *
+     * @return A CompletableFuture that completes on the main thread once no deletion is running
+     */
+    public CompletableFuture<Void> whenIdle() {
+        if (inFlight.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> idle = new CompletableFuture<>();
+        idleWaiters.add(idle);
+        return idle;
+    }
+
+    /**
+     * Measures the disk space still held by a queued world on a background thread.
+     *
+     * @param worldName The base world name (including folder)
+     * @return CompletableFuture that completes with the size of the world's folders in bytes
+     */
+    public CompletableFuture<Long> measureSize(String worldName) {
+        return worldFileService.measureWorldFolders(worldName);
+    }
+
+    /**
+     * Starts the deletions that are due, as long as no game is starting and the concurrency limit allows.
+     */
+    private void check() {
+        if (deletions.isEmpty() || inFlight.size() >= maxConcurrent) {
+            return;
+        }
+
+        GameManager gameManager = plugin.getGameManager();
+        if (gameManager != null && gameManager.isAnyGameStarting()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        for (WorldDeletion deletion : deletions.values()) {
+            if (inFlight.size() >= maxConcurrent) {
+                break;
+            }
+            if (!inFlight.contains(deletion.getWorldName()) && deletion.getNextAttemptAt() <= now) {
+                attempt(deletion);
+            }
+        }
+    }
+
+    /**
+     * Starts deleting a world.
+     */
+    private void attempt(WorldDeletion deletion) {
+        String worldName = deletion.getWorldName();
+        inFlight.add(worldName);
+
+        worldManagementService.deleteWorld(worldName).handle((deleted, error) -> {
+            if (error != null) {
+                logger.warning("Error deleting world '" + worldName + "': " + error.getMessage());
+            }
+            boolean success = error == null && Boolean.TRUE.equals(deleted);
+
+            // The deletion completes off the main thread; a world left in flight by a shutdown stays queued
+            if (plugin.isEnabled()) {
+                scheduler.runTask(() -> finish(deletion, success));
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Removes a deleted world from the queue, or schedules the next attempt.
+     */
+    private void finish(WorldDeletion deletion, boolean success) {
+        String worldName = deletion.getWorldName();
+        inFlight.remove(worldName);
+        if (inFlight.isEmpty() && !idleWaiters.isEmpty()) {
+            List<CompletableFuture<Void>> waiters = new ArrayList<>(idleWaiters);
+            idleWaiters.clear();
+            for (CompletableFuture<Void> waiter : waiters) {
+                waiter.complete(null);
+            }
+        }
+
+        if (success) {
+            deletions.remove(worldName);
+            save();
+            if (deletion.hasFailed()) {
+                logger.info("Deleted world '" + worldName + "' after " + (deletion.getAttempts() + 1) + " attempts");
+            } else {
+                logger.info("Deleted dynamically generated world: " + worldName);
+            }
+            return;
+        }
+
+        long delay = retryDelay(deletion.getAttempts(), retryDelayMillis, maxRetryDelayMillis);
+        deletion.recordFailure(System.currentTimeMillis(), delay);
+        save();
+        logger.warning("Failed to delete world '" + worldName + "' (attempt " + deletion.getAttempts()
+                + "), retrying in " + (delay / 1000L) + "s");
+    }
+
+    /**
+     * Gets the time to wait before retrying a deletion. The delay doubles after every failure,
+     * up to the maximum.
+     *
+     * @param previousFailures The number of attempts that failed before this one
+     * @param retryDelayMillis The delay after the first failure
+     * @param maxRetryDelayMillis The longest delay
+     * @return The delay in milliseconds
+     */
+    static long retryDelay(int previousFailures, long retryDelayMillis, long maxRetryDelayMillis) {
+        int doublings = Math.min(Math.max(previousFailures, 0), 30);
+        long delay = Math.min(retryDelayMillis << doublings, maxRetryDelayMillis);
+        return delay <= 0 ? maxRetryDelayMillis : delay;
+    }
+
+    /**
+     * Loads the queue from disk.
+     */
+    private void load() {
+        if (!queueFile.exists()) {
+            return;
+        }
+
+        try (Reader reader = Files.newBufferedReader(queueFile.toPath(), StandardCharsets.UTF_8)) {
+            Type type = new TypeToken<List<WorldDeletion>>(){}.getType();
+            List<WorldDeletion> loaded = gson.fromJson(reader, type);
+            if (loaded != null) {
+                for (WorldDeletion deletion : loaded) {
+                    if (deletion != null && deletion.getWorldName() != null) {
+                        deletions.put(deletion.getWorldName(), deletion);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Failed to load the world deletion queue", e);
+        }
+    }
+
+    /**
+     * Moves the world folders left in the pending deletion list of older versions into the queue,
+     * as the worlds they belong to, and removes the old list.
+     */
+    private void migrateLegacyPendingDeletions() {
+        if (!legacyPendingFile.exists()) {
+            return;
+        }
+
+        try (Reader reader = Files.newBufferedReader(legacyPendingFile.toPath(), StandardCharsets.UTF_8)) {
+            Type type = new TypeToken<List<String>>(){}.getType();
+            List<String> folders = gson.fromJson(reader, type);
+            if (folders != null) {
+                for (String folder : folders) {
+                    enqueue(folder.replaceFirst("_nether$", "").replaceFirst("_the_end$", ""));
+                }
+            }
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Failed to read the old pending world deletions", e);
+            return;
+        }
+
+        // Only once the queue that replaces it has been written
+        writer.execute(() -> {
+            if (!legacyPendingFile.delete()) {
+                logger.warning("Failed to remove " + legacyPendingFile.getName());
+            }
+        });
+    }
+
+    /**
+     * Queues a copy of the queue to be written to a temporary file and moved over the old one.
+     * Copies are written in the order they are made.
+     */
+    private void save() {
+        // Nothing is written once the plugin has shut the queue down
+        if (writer.isShutdown()) {
+            return;
+        }
+
+        List<WorldDeletion> snapshot = new ArrayList<>();
+        for (WorldDeletion deletion : deletions.values()) {
+            snapshot.add(deletion.copy());
+        }
+        writer.execute(() -> write(snapshot));
+    }
+
+    /**
+     * Writes a copy of the queue to a temporary file and moves it over the old one. Runs on the writer thread.
+     */
+    private void write(List<WorldDeletion> snapshot) {
+        File tempFile = new File(queueFile.getParentFile(), queueFile.getName() + ".tmp");
+        try {
+            try (Writer out = Files.newBufferedWriter(tempFile.toPath(), StandardCharsets.UTF_8)) {
+                gson.toJson(snapshot, out);
+            }
+            try {
+                Files.move(tempFile.toPath(), queueFile.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile.toPath(), queueFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Failed to save the world deletion queue", e);
+        }
+    }
+}
@@ -0,0 +1,537 @@
+package com.thefallersgames.bettermanhunt.services;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import com.thefallersgames.bettermanhunt.Plugin;
+import com.thefallersgames.bettermanhunt.models.FileStamp;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Service that performs world folder file operations, such as copying template worlds
+ * and deleting old worlds, off the main server thread.
+ * Deletions that fail or are interrupted are not remembered here; the world deletion queue
+ * and the world journal retry them.
+ */
+public class WorldFileService {
+    // Files that identify a running world and must never be copied from a template
+    private static final Set<String> WORLD_LOCK_FILES = new HashSet<>(Arrays.asList("uid.dat", "session.lock"));
+    private static final String MANIFEST_FILE = "manifest.json";
+    private static final int SNAPSHOT_COPY_ATTEMPTS = 3;
+
+    private final Logger logger;
+    private final ForkJoinPool fileExecutor;
+    private final File worldContainer;
+    private final Gson gson;
+
+    // Folders currently being deleted by a worker thread, mapped to their deletion
+    private final ConcurrentMap<String, CompletableFuture<Boolean>> deletionsInFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new WorldFileService.
+     *
+     * @param plugin The plugin instance
+     */
+    public WorldFileService(Plugin plugin) {
+        this.logger = plugin.getLogger();
+        this.worldContainer = Bukkit.getServer().getWorldContainer();
+        this.gson = new GsonBuilder().setPrettyPrinting().create();
+
+        int threads = Math.max(1, plugin.getConfig().getInt("world-deletion.threads", 4));
+        this.fileExecutor = new ForkJoinPool(threads);
+    }
+
+    /**
+     * Deletes the folders of unloaded worlds on a background thread.
+     * A folder that is already being deleted is not deleted twice; the result waits for the
+     * running deletion instead.
+     *
+     * @param worldNames The world names (relative to the world container)
+     * @return CompletableFuture that completes with true if every folder was removed
+     */
+    public CompletableFuture<Boolean> deleteWorldFolders(List<String> worldNames) {
+        List<CompletableFuture<Boolean>> deletions = new ArrayList<>();
+        for (String worldName : worldNames) {
+            deletions.add(deleteWorldFolder(worldName));
+        }
+        return CompletableFuture.allOf(deletions.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> deletions.stream().allMatch(CompletableFuture::join));
+    }
+
+    /**
+     * Deletes the folder of an unloaded world on a background thread, or joins the deletion
+     * that is already running for it.
+     */
+    private CompletableFuture<Boolean> deleteWorldFolder(String worldName) {
+        CompletableFuture<Boolean> deletion = new CompletableFuture<>();
+        CompletableFuture<Boolean> running = deletionsInFlight.putIfAbsent(worldName, deletion);
+        if (running != null) {
+            return running;
+        }
+
+        fileExecutor.execute(() -> {
+            boolean deleted = false;
+            long start = System.currentTimeMillis();
+            try {
+                deleted = deleteRecursively(new File(worldContainer, worldName).toPath());
+                if (deleted) {
+                    logger.info("Deleted world folder '" + worldName + "' in " + (System.currentTimeMillis() - start) + "ms");
+                } else {
+                    logger.warning("Could not fully delete world folder '" + worldName + "'");
+                }
+            } finally {
+                deletionsInFlight.remove(worldName, deletion);
+                deletion.complete(deleted);
+            }
+        });
+        return deletion;
+    }
+
+    /**
+     * Copies one dimension of a template world into a new world folder on a background thread.
+     * Both the Bukkit layout ({@code <template>_nether}, {@code <template>_the_end}) and the
+     * singleplayer layout ({@code DIM-1} and {@code DIM1} inside the template folder) are supported.
+     *
+     * @param templateName The template world name (relative to the world container)
+     * @param worldName The world name to copy to (relative to the world container)
+     * @param environment The dimension to copy
+     * @return CompletableFuture that completes with true if the dimension was copied,
+     *         or false if the template has no such dimension or the copy failed
+     */
+    public CompletableFuture<Boolean> copyTemplateDimension(String templateName, String worldName, World.Environment environment) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.currentTimeMillis();
+            Path templateRoot = new File(worldContainer, templateName).toPath();
+            Path targetRoot = new File(worldContainer, worldName).toPath();
+
+            boolean copied;
+            switch (environment) {
+                case NETHER:
+                    copied = copyDimensionFolder(templateRoot, targetRoot, "_nether", "DIM-1");
+                    break;
+                case THE_END:
+                    copied = copyDimensionFolder(templateRoot, targetRoot, "_the_end", "DIM1");
+                    break;
+                default:
+                    // The singleplayer dimension folders are copied into their own worlds instead
+                    Set<String> excluded = new HashSet<>(WORLD_LOCK_FILES);
+                    excluded.add("DIM-1");
+                    excluded.add("DIM1");
+                    copied = Files.isDirectory(templateRoot) && copyTree(templateRoot, targetRoot, excluded);
+                    break;
+            }
+
+            if (copied) {
+                logger.info("Copied template '" + templateName + "' to '" + worldName + "' in " + (System.currentTimeMillis() - start) + "ms");
+            }
+            return copied;
+        }, fileExecutor);
+    }
+
+    /**
+     * Copies the files of a world into a snapshot folder on a background thread and records
+     * the modification time and size of every copied file in a manifest next to the copy.
+     * The world should have been saved right before; a file that changes while it is being
+     * copied is copied again.
+     *
+     * @param worldName The world name (relative to the world container)
+     * @param snapshotFolder The folder to store the snapshot in; existing contents are replaced
+     * @return CompletableFuture that completes with the manifest, or null if the snapshot failed
+     */
+    public CompletableFuture<Map<String, FileStamp>> snapshotWorldFolder(String worldName, File snapshotFolder) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.currentTimeMillis();
+            Path source = new File(worldContainer, worldName).toPath();
+            Path target = snapshotFolder.toPath();
+
+            if (!deleteRecursively(target)) {
+                return null;
+            }
+
+            List<Path> files = listWorldFiles(source);
+            if (files == null) {
+                return null;
+            }
+
+            Map<String, FileStamp> manifest = new ConcurrentHashMap<>();
+            AtomicBoolean failed = new AtomicBoolean(false);
+
+            // Runs on the file executor, so the parallel stream uses its worker threads
+            files.parallelStream().forEach(file -> {
+                String relative = source.relativize(file).toString();
+                try {
+                    Path copy = target.resolve(relative);
+                    Files.createDirectories(copy.getParent());
+                    for (int attempt = 0; attempt < SNAPSHOT_COPY_ATTEMPTS; attempt++) {
+                        FileStamp before = stampOf(file);
+                        Files.copy(file, copy, StandardCopyOption.REPLACE_EXISTING);
+                        if (before.matches(stampOf(file))) {
+                            manifest.put(relative, before);
+                            return;
+                        }
+                    }
+                    failed.set(true);
+                    logger.warning("'" + file + "' kept changing while it was being copied");
+                } catch (IOException e) {
+                    failed.set(true);
+                    logger.warning("Failed to snapshot '" + file + "': " + e.getMessage());
+                }
+            });
+
+            if (failed.get()) {
+                return null;
+            }
+
+            try (Writer writer = Files.newBufferedWriter(target.resolve(MANIFEST_FILE), StandardCharsets.UTF_8)) {
+                gson.toJson(manifest, writer);
+            } catch (IOException e) {
+                logger.warning("Failed to write the snapshot manifest of '" + worldName + "': " + e.getMessage());
+                return null;
+            }
+
+            logger.info("Took snapshot of '" + worldName + "' (" + manifest.size() + " files) in " + (System.currentTimeMillis() - start) + "ms");
+            return manifest;
+        }, fileExecutor);
+    }
+
+    /**
+     * Rolls an unloaded world back to its snapshot on a background thread.
+     * Only files whose modification time or size differ from the manifest are copied back,
+     * and files created after the snapshot are deleted.
+     *
+     * @param worldName The world name (relative to the world container)
+     * @param snapshotFolder The folder the snapshot is stored in
+     * @param manifest The manifest of the snapshot
+     * @return CompletableFuture that completes with true if the world matches its snapshot again
+     */
+    public CompletableFuture<Boolean> restoreWorldFolder(String worldName, File snapshotFolder, Map<String, FileStamp> manifest) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.currentTimeMillis();
+            Path worldFolder = new File(worldContainer, worldName).toPath();
+            Path snapshot = snapshotFolder.toPath();
+
+            List<Path> files = Files.isDirectory(worldFolder) ? listWorldFiles(worldFolder) : new ArrayList<>();
+            if (files == null) {
+                return false;
+            }
+
+            AtomicBoolean failed = new AtomicBoolean(false);
+            AtomicInteger restored = new AtomicInteger();
+            AtomicInteger deleted = new AtomicInteger();
+            Set<String> present = ConcurrentHashMap.newKeySet();
+
+            files.parallelStream().forEach(file -> {
+                String relative = worldFolder.relativize(file).toString();
+                present.add(relative);
+                FileStamp stamp = manifest.get(relative);
+                try {
+                    if (stamp == null) {
+                        Files.deleteIfExists(file);
+                        deleted.incrementAndGet();
+                    } else if (!stamp.matches(stampOf(file))) {
+                        restoreFile(snapshot.resolve(relative), file, stamp);
+                        restored.incrementAndGet();
+                    }
+                } catch (IOException e) {
+                    failed.set(true);
+                    logger.warning("Failed to roll back '" + file + "': " + e.getMessage());
+                }
+            });
+
+            // Files that were deleted while the world was played
+            manifest.entrySet().parallelStream()
+                .filter(entry -> !present.contains(entry.getKey()))
+                .forEach(entry -> {
+                    try {
+                        Path file = worldFolder.resolve(entry.getKey());
+                        Files.createDirectories(file.getParent());
+                        restoreFile(snapshot.resolve(entry.getKey()), file, entry.getValue());
+                        restored.incrementAndGet();
+                    } catch (IOException e) {
+                        failed.set(true);
+                        logger.warning("Failed to restore '" + entry.getKey() + "' of '" + worldName + "': " + e.getMessage());
+                    }
+                });
+
+            logger.info("Rolled back '" + worldName + "' in " + (System.currentTimeMillis() - start) + "ms ("
+                + restored.get() + " files restored, " + deleted.get() + " removed)");
+            return !failed.get();
+        }, fileExecutor);
+    }
+
+    /**
+     * Loads the manifest of a snapshot taken by a previous run.
+     *
+     * @param snapshotFolder The folder the snapshot is stored in
+     * @return The manifest, or null if there is no complete snapshot
+     */
+    public Map<String, FileStamp> loadSnapshotManifest(File snapshotFolder) {
+        File manifestFile = new File(snapshotFolder, MANIFEST_FILE);
+        if (!manifestFile.exists()) {
+            return null;
+        }
+
+        try (Reader reader = Files.newBufferedReader(manifestFile.toPath(), StandardCharsets.UTF_8)) {
+            Type type = new TypeToken<Map<String, FileStamp>>(){}.getType();
+            return gson.fromJson(reader, type);
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Failed to load snapshot manifest '" + manifestFile + "'", e);
+            return null;
+        }
+    }
+
+    /**
+     * Deletes a folder outside the world container, such as a snapshot, on a background thread.
+     *
+     * @param folder The folder to delete
+     * @return CompletableFuture that completes with true if the folder no longer exists
+     */
+    public CompletableFuture<Boolean> deleteFolder(File folder) {
+        return CompletableFuture.supplyAsync(() -> deleteRecursively(folder.toPath()), fileExecutor);
+    }
+
+    /**
+     * Measures the disk space used by a world and its nether and end on a background thread.
+     *
+     * @param baseWorldName The overworld name (relative to the world container)
+     * @return CompletableFuture that completes with the total size of the folders in bytes
+     */
+    public CompletableFuture<Long> measureWorldFolders(String baseWorldName) {
+        return CompletableFuture.supplyAsync(() -> {
+            long total = 0;
+            for (String worldName : new String[] { baseWorldName, baseWorldName + "_nether", baseWorldName + "_the_end" }) {
+                Path root = new File(worldContainer, worldName).toPath();
+                if (!Files.exists(root)) {
+                    continue;
+                }
+                try (Stream<Path> walk = Files.walk(root)) {
+                    total += walk.filter(Files::isRegularFile).mapToLong(path -> path.toFile().length()).sum();
+                } catch (Exception e) {
+                    logger.warning("Failed to measure the size of '" + root + "': " + e.getMessage());
+                }
+            }
+            return total;
+        }, fileExecutor);
+    }
+
+    /**
+     * Stops the background executor, giving running deletions a moment to finish.
+     */
+    public void shutdown() {
+        fileExecutor.shutdown();
+        try {
+            fileExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Deletes a folder tree. Regular files (mostly region files) are deleted in parallel,
+     * after which the emptied directories are removed deepest first.
+     *
+     * @param root The folder to delete
+     * @return True if the folder no longer exists
+     */
+    private boolean deleteRecursively(Path root) {
+        if (!Files.exists(root)) {
+            return true;
+        }
+
+        List<Path> paths;
+        try (Stream<Path> walk = Files.walk(root)) {
+            paths = walk.collect(Collectors.toList());
+        } catch (IOException e) {
+            logger.warning("Failed to list files of '" + root + "': " + e.getMessage());
+            return false;
+        }
+
+        AtomicBoolean failed = new AtomicBoolean(false);
+
+        // Runs on the file executor, so the parallel stream uses its worker threads
+        paths.parallelStream()
+            .filter(path -> !Files.isDirectory(path))
+            .forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    failed.set(true);
+                    logger.warning("Failed to delete '" + path + "': " + e.getMessage());
+                }
+            });
+
+        if (failed.get()) {
+            return false;
+        }
+
+        List<Path> directories = paths.stream()
+            .filter(Files::isDirectory)
+            .sorted(Comparator.comparingInt(Path::getNameCount).reversed())
+            .collect(Collectors.toList());
+        for (Path directory : directories) {
+            try {
+                Files.deleteIfExists(directory);
+            } catch (IOException e) {
+                logger.warning("Failed to delete directory '" + directory + "': " + e.getMessage());
+                return false;
+            }
+        }
+
+        return !Files.exists(root);
+    }
+
+    /**
+     * Copies the nether or end of a template, preferring a separate Bukkit dimension folder
+     * over the dimension folder nested in a singleplayer world.
+     *
+     * @param templateRoot The template overworld folder
+     * @param targetRoot The folder of the new dimension world
+     * @param bukkitSuffix The suffix of the Bukkit dimension folder
+     * @param nestedFolder The name of the nested singleplayer dimension folder
+     * @return True if the dimension was copied
+     */
+    private boolean copyDimensionFolder(Path templateRoot, Path targetRoot, String bukkitSuffix, String nestedFolder) {
+        Path bukkitFolder = templateRoot.resolveSibling(templateRoot.getFileName() + bukkitSuffix);
+        if (Files.isDirectory(bukkitFolder)) {
+            return copyTree(bukkitFolder, targetRoot, WORLD_LOCK_FILES);
+        }
+
+        Path nested = templateRoot.resolve(nestedFolder);
+        if (!Files.isDirectory(nested)) {
+            return false;
+        }
+
+        // Bukkit looks for the region files of a dimension world in its own DIM folder,
+        // and the level.dat keeps the seed equal to the template overworld
+        if (!copyTree(nested, targetRoot.resolve(nestedFolder), Collections.emptySet())) {
+            return false;
+        }
+        try {
+            Files.copy(templateRoot.resolve("level.dat"), targetRoot.resolve("level.dat"), StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } catch (IOException e) {
+            logger.warning("Failed to copy level.dat of '" + templateRoot + "': " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Copies a folder tree. Directories are created first, after which the regular files
+     * (mostly region files) are copied in parallel.
+     * Hardlinks are deliberately not used: the server rewrites region files in place,
+     * which would modify the template through a shared link.
+     *
+     * @param source The folder to copy
+     * @param target The folder to copy to
+     * @param excludedTopLevel Names of top-level files and folders in the source to skip
+     * @return True if every file was copied
+     */
+    private boolean copyTree(Path source, Path target, Set<String> excludedTopLevel) {
+        List<Path> paths;
+        try (Stream<Path> walk = Files.walk(source)) {
+            paths = walk
+                .filter(path -> {
+                    Path relative = source.relativize(path);
+                    return relative.toString().isEmpty() || !excludedTopLevel.contains(relative.getName(0).toString());
+                })
+                .collect(Collectors.toList());
+        } catch (IOException e) {
+            logger.warning("Failed to list files of '" + source + "': " + e.getMessage());
+            return false;
+        }
+
+        // Walk order is parent first, so every directory exists before its contents are copied
+        for (Path path : paths) {
+            if (Files.isDirectory(path)) {
+                try {
+                    Files.createDirectories(target.resolve(source.relativize(path).toString()));
+                } catch (IOException e) {
+                    logger.warning("Failed to create directory for '" + path + "': " + e.getMessage());
+                    return false;
+                }
+            }
+        }
+
+        AtomicBoolean failed = new AtomicBoolean(false);
+
+        // Runs on the file executor, so the parallel stream uses its worker threads
+        paths.parallelStream()
+            .filter(path -> !Files.isDirectory(path))
+            .forEach(path -> {
+                try {
+                    Files.copy(path, target.resolve(source.relativize(path).toString()),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+                } catch (IOException e) {
+                    failed.set(true);
+                    logger.warning("Failed to copy '" + path + "': " + e.getMessage());
+                }
+            });
+
+        return !failed.get();
+    }
+
+    /**
+     * Lists the regular files of a world folder, leaving out the files that lock a running world.
+     *
+     * @param worldFolder The world folder
+     * @return The files, or null if the folder could not be read
+     */
+    private List<Path> listWorldFiles(Path worldFolder) {
+        try (Stream<Path> walk = Files.walk(worldFolder)) {
+            return walk
+                .filter(Files::isRegularFile)
+                .filter(path -> !WORLD_LOCK_FILES.contains(path.getFileName().toString()))
+                .collect(Collectors.toList());
+        } catch (IOException e) {
+            logger.warning("Failed to list files of '" + worldFolder + "': " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Copies a file back from a snapshot and gives it the modification time recorded in the manifest,
+     * so it compares as unchanged on the next rollback.
+     */
+    private void restoreFile(Path snapshotFile, Path worldFile, FileStamp stamp) throws IOException {
+        Files.copy(snapshotFile, worldFile, StandardCopyOption.REPLACE_EXISTING);
+        Files.setLastModifiedTime(worldFile, FileTime.fromMillis(stamp.getModified()));
+    }
+
+    /**
+     * Reads the modification time and size of a file.
+     */
+    private FileStamp stampOf(Path file) throws IOException {
+        return new FileStamp(Files.getLastModifiedTime(file).toMillis(), Files.size(file));
+    }
+}
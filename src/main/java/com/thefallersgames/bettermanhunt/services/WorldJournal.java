@@ -0,0 +1,199 @@
+package com.thefallersgames.bettermanhunt.services;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import com.thefallersgames.bettermanhunt.Plugin;
+import com.thefallersgames.bettermanhunt.models.WorldLifecycleState;
+
+import java.io.File;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Small on-disk journal of every world the plugin creates, together with its lifecycle state.
+ * It lets the startup cleanup tell worlds abandoned by a crash apart from pooled or in-use worlds.
+ * The journal is rewritten through a temporary file, so a crash never leaves it half written.
+ * Changes are written on a background thread in the order they are made.
+ */
+public class WorldJournal {
+    private final Logger logger;
+    private final File journalFile;
+    private final Gson gson;
+    private final ExecutorService writer;
+
+    // Base world names (including folder) mapped to their state
+    private final Map<String, WorldLifecycleState> worlds = new LinkedHashMap<>();
+
+    /**
+     * Creates a new WorldJournal and loads the existing journal from disk.
+     *
+     * @param plugin The plugin instance
+     */
+    public WorldJournal(Plugin plugin) {
+        this.logger = plugin.getLogger();
+        this.journalFile = new File(plugin.getDataFolder(), "world-journal.json");
+        this.gson = new GsonBuilder().setPrettyPrinting().create();
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ManhuntDeluxe-WorldJournal");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (!plugin.getDataFolder().exists()) {
+            plugin.getDataFolder().mkdirs();
+        }
+
+        load();
+    }
+
+    /**
+     * Records the state of a world, adding it to the journal if needed.
+     *
+     * @param worldName The base world name (including folder)
+     * @param state The new lifecycle state
+     */
+    public void record(String worldName, WorldLifecycleState state) {
+        synchronized (worlds) {
+            if (worlds.put(worldName, state) != state) {
+                save();
+            }
+        }
+    }
+
+    /**
+     * Removes a world from the journal once it has been deleted.
+     *
+     * @param worldName The base world name (including folder)
+     */
+    public void remove(String worldName) {
+        synchronized (worlds) {
+            if (worlds.remove(worldName) != null) {
+                save();
+            }
+        }
+    }
+
+    /**
+     * Gets the recorded state of a world.
+     *
+     * @param worldName The base world name (including folder)
+     * @return The state, or null if the world is not journalled
+     */
+    public WorldLifecycleState getState(String worldName) {
+        synchronized (worlds) {
+            return worlds.get(worldName);
+        }
+    }
+
+    /**
+     * Gets all journalled worlds in a given state.
+     *
+     * @param state The state to look for
+     * @return The base world names, in the order they were first recorded
+     */
+    public List<String> getWorlds(WorldLifecycleState state) {
+        List<String> result = new ArrayList<>();
+        synchronized (worlds) {
+            for (Map.Entry<String, WorldLifecycleState> entry : worlds.entrySet()) {
+                if (entry.getValue() == state) {
+                    result.add(entry.getKey());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets a copy of the whole journal.
+     *
+     * @return The base world names mapped to their state
+     */
+    public Map<String, WorldLifecycleState> getAll() {
+        synchronized (worlds) {
+            return new LinkedHashMap<>(worlds);
+        }
+    }
+
+    /**
+     * Finishes pending writes and stops the background thread.
+     */
+    public void shutdown() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                logger.warning("Timed out waiting for the world journal to be written");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Loads the journal from disk.
+     */
+    private void load() {
+        if (!journalFile.exists()) {
+            return;
+        }
+
+        try (Reader reader = Files.newBufferedReader(journalFile.toPath(), StandardCharsets.UTF_8)) {
+            Type type = new TypeToken<LinkedHashMap<String, WorldLifecycleState>>(){}.getType();
+            Map<String, WorldLifecycleState> loaded = gson.fromJson(reader, type);
+            if (loaded != null) {
+                loaded.values().removeIf(state -> state == null);
+                worlds.putAll(loaded);
+            }
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Failed to load the world journal", e);
+        }
+    }
+
+    /**
+     * Queues a copy of the journal to be written to a temporary file and moved over the old one.
+     * Callers must hold the journal's lock, so the copies are written in the order the journal changed.
+     */
+    private void save() {
+        // A change made after the shutdown is found again by the next startup cleanup
+        if (writer.isShutdown()) {
+            return;
+        }
+
+        Map<String, WorldLifecycleState> snapshot = new LinkedHashMap<>(worlds);
+        writer.execute(() -> write(snapshot));
+    }
+
+    /**
+     * Writes a copy of the journal to a temporary file and moves it over the old one. Runs on the writer thread.
+     */
+    private void write(Map<String, WorldLifecycleState> snapshot) {
+        File tempFile = new File(journalFile.getParentFile(), journalFile.getName() + ".tmp");
+        try {
+            try (Writer out = Files.newBufferedWriter(tempFile.toPath(), StandardCharsets.UTF_8)) {
+                gson.toJson(snapshot, out);
+            }
+            try {
+                Files.move(tempFile.toPath(), journalFile.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile.toPath(), journalFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Failed to save the world journal", e);
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.thefallersgames.bettermanhunt.services;
 
 import com.thefallersgames.bettermanhunt.Plugin;
+import com.thefallersgames.bettermanhunt.models.FileStamp;
+import com.thefallersgames.bettermanhunt.models.WorldCreation;
+import com.thefallersgames.bettermanhunt.models.WorldLifecycleState;
+import com.thefallersgames.bettermanhunt.tasks.WorldCreationTask;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
@@ -12,10 +16,12 @@ import java.util.concurrent.CompletableFuture;
 import java.util.logging.Logger;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.mvplugins.multiverse.core.MultiverseCoreApi;
 import org.mvplugins.multiverse.core.world.options.CreateWorldOptions;
+import org.mvplugins.multiverse.core.world.options.ImportWorldOptions;
 import org.mvplugins.multiverse.core.world.options.UnloadWorldOptions;
-import org.mvplugins.multiverse.core.world.options.DeleteWorldOptions;
+import org.mvplugins.multiverse.core.world.options.RemoveWorldOptions;
 import org.mvplugins.multiverse.core.world.LoadedMultiverseWorld;
 import org.mvplugins.multiverse.inventories.MultiverseInventoriesApi;
 import org.mvplugins.multiverse.inventories.profile.group.WorldGroup;
@@ -27,7 +33,10 @@ import java.io.FilenameFilter;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -37,10 +46,29 @@ import java.util.concurrent.TimeoutException;
  */
 public class WorldManagementService {
     private final Plugin plugin;
+    private final SchedulerService scheduler;
     private final Logger logger;
     private final MultiverseCoreApi coreApi;
     private final MultiverseInventoriesApi inventoriesApi;
+    private final WorldFileService worldFileService;
+    private final WorldJournal worldJournal;
     private final String worldsFolder;
+    private final String templateName;
+    private final long creationBudgetMillis;
+    private final int creationMaxWaitTicks;
+    private final boolean lazyDimensions;
+    private final boolean ephemeralWorlds;
+    private final boolean worldResetEnabled;
+    private final File snapshotsFolder;
+    
+    // Snapshot manifests by dimension world name
+    private final Map<String, Map<String, FileStamp>> snapshots = new ConcurrentHashMap<>();
+    
+    // Worlds whose nether, end or inventory group are still being created
+    private final Map<String, WorldCreation> creations = new ConcurrentHashMap<>();
+    
+    // Nether and end worlds that are being created on demand, by dimension world name
+    private final Map<String, CompletableFuture<World>> dimensionCreations = new ConcurrentHashMap<>();
     
     /**
      * Constructs a new WorldManagementService.
@@ -48,15 +76,28 @@ public class WorldManagementService {
      * @param plugin The plugin instance
      * @param coreApi The MultiverseCore API instance
      * @param inventoriesApi The MultiverseInventories API instance (can be null if not available)
+     * @param worldFileService The service used to delete world folders off the main thread
+     * @param worldJournal The journal that records the lifecycle of every created world
      */
-    public WorldManagementService(Plugin plugin, MultiverseCoreApi coreApi, MultiverseInventoriesApi inventoriesApi) {
+    public WorldManagementService(Plugin plugin, MultiverseCoreApi coreApi, MultiverseInventoriesApi inventoriesApi,
+                                  WorldFileService worldFileService, WorldJournal worldJournal) {
         this.plugin = plugin;
+        this.scheduler = plugin.getSchedulerService();
         this.logger = plugin.getLogger();
         this.coreApi = coreApi;
         this.inventoriesApi = inventoriesApi;
+        this.worldFileService = worldFileService;
+        this.worldJournal = worldJournal;
         this.worldsFolder = plugin.getConfig().getString("custom-worlds-folder", "ManhuntWorlds");
         logger.info("Using Multiverse-Core for world management");
         logger.info("Custom worlds will be stored in folder: " + worldsFolder);
+        this.templateName = loadTemplateName();
+        this.creationBudgetMillis = plugin.getConfig().getLong("world-creation.tick-budget-ms", 55L);
+        this.creationMaxWaitTicks = plugin.getConfig().getInt("world-creation.max-wait-ticks", 40);
+        this.lazyDimensions = plugin.getConfig().getBoolean("world-creation.lazy-dimensions", true);
+        this.ephemeralWorlds = plugin.getConfig().getBoolean("world-creation.ephemeral", true);
+        this.worldResetEnabled = plugin.getConfig().getBoolean("world-reset.enabled", false);
+        this.snapshotsFolder = new File(plugin.getDataFolder(), "snapshots");
         
         if (inventoriesApi != null) {
             logger.info("Multiverse-Inventories detected - inventory sharing between dimensions will be enabled");
@@ -68,103 +109,268 @@ public class WorldManagementService {
     /**
      * Creates a world using the Multiverse-Core API.
      * Worlds are stored in a ManhuntWorlds folder to keep them organized.
-     * This runs asynchronously to avoid blocking the main thread during world generation.
+     * When a world template is configured, the world is copied from the template instead of generated.
+     * The inventory group and, unless dimensions are created lazily, the nether and end are
+     * created afterwards by the same pipeline; use {@link #getReadiness(String)} to wait for them.
+     * When world reset is enabled, the world is only returned once that pipeline has finished and
+     * the world has been snapshotted.
      * 
      * @param worldName The name of the world to create
      * @return A CompletableFuture containing the created world or null if creation failed
      */
     public CompletableFuture<World> createWorldWithMultiverse(String worldName) {
-        CompletableFuture<World> future = new CompletableFuture<>();
+        // Put all manhunt worlds in a dedicated folder
+        String folderWorldName = worldsFolder + "/" + worldName;
         
-        // Run the world creation asynchronously
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                // Put all manhunt worlds in a dedicated folder
-                String folderWorldName = worldsFolder + "/" + worldName;
-                
-                logger.info("Starting async creation of world '" + folderWorldName + "'");
-                
-                // We need to run the actual world creation on the main thread
-                // but we can schedule it from our async thread
-                Bukkit.getScheduler().runTask(plugin, () -> {
-                    coreApi.getWorldManager()
-                        .createWorld(CreateWorldOptions.worldName(folderWorldName)
-                                .environment(World.Environment.NORMAL)
-                                .seed(System.currentTimeMillis())
-                                .generateStructures(true))
-                        .onFailure(reason -> {
-                            logger.warning("Failed to create world '" + folderWorldName + "': " + reason);
-                            future.complete(null);
-                        })
-                        .onSuccess(multiverseWorld -> {
-                            logger.info("Successfully created world '" + folderWorldName + "'");
-                            World bukkitWorld = Bukkit.getWorld(folderWorldName);
-                            
-                            // Create nether world after a short delay to avoid hammering the server
-                            Bukkit.getScheduler().runTaskLater(plugin, () -> createNetherWorld(folderWorldName, 
-                                () -> createEndWorld(folderWorldName, () -> createWorldGroup(folderWorldName))), 20L);
-                            
-                            // Complete the future immediately so the player can start playing
-                            future.complete(bukkitWorld);
-                        });
-                });
-            } catch (Exception e) {
-                logger.severe("Error during async world creation: " + e.getMessage());
-                future.completeExceptionally(e);
+        WorldCreation creation = new WorldCreation(folderWorldName);
+        creations.put(folderWorldName, creation);
+        worldJournal.record(folderWorldName, WorldLifecycleState.CREATING);
+        creation.getOverworld().thenAccept(world -> {
+            if (world != null) {
+                worldJournal.record(folderWorldName, WorldLifecycleState.IN_USE);
             }
         });
         
+        
+        logger.info("Starting creation of world '" + folderWorldName + "'");
+        
+        // With lazy dimensions, the nether and end are only created when a player first uses a portal
+        List<WorldCreation.Stage> stages = lazyDimensions
+            ? Arrays.asList(WorldCreation.Stage.OVERWORLD, WorldCreation.Stage.INVENTORY_GROUP)
+            : Arrays.asList(WorldCreation.Stage.values());
+        
+        // Multiverse must be called from the main thread, which the task runs on
+        new WorldCreationTask(logger, this, creation, stages, creationBudgetMillis, creationMaxWaitTicks,
+                () -> creations.remove(folderWorldName))
+            .runTaskTimer(scheduler, 1L, 1L);
+        
+        if (!worldResetEnabled) {
+            return creation.getOverworld();
+        }
+        
+        // Snapshot the freshly created world so it can be reset and reused after its game.
+        // The snapshot reloads the world, so it is only handed out afterwards
+        return creation.getReady().thenCompose(ready -> {
+            if (!ready) {
+                return creation.getOverworld();
+            }
+            return takeSnapshot(folderWorldName).thenApply(captured -> {
+                if (!captured) {
+                    logger.warning("World '" + folderWorldName + "' could not be snapshotted and will be deleted after its game");
+                }
+                return Bukkit.getWorld(folderWorldName);
+            });
+        });
+    }
+    
+    /**
+     * Gets the nether or end of a world, creating it under the tick budget if it doesn't exist yet.
+     * Concurrent requests for the same dimension share a single creation.
+     * Must be called on the main server thread.
+     * 
+     * @param baseWorldName The overworld name (including folder)
+     * @param environment NETHER or THE_END
+     * @return A CompletableFuture containing the dimension or null if it could not be created
+     */
+    public CompletableFuture<World> ensureDimension(String baseWorldName, World.Environment environment) {
+        WorldCreation.Stage stage = environment == World.Environment.NETHER
+            ? WorldCreation.Stage.NETHER
+            : WorldCreation.Stage.END;
+        String worldName = baseWorldName + (stage == WorldCreation.Stage.NETHER ? "_nether" : "_the_end");
+        
+        World existing = Bukkit.getWorld(worldName);
+        if (existing != null) {
+            return CompletableFuture.completedFuture(existing);
+        }
+        
+        return dimensionCreations.computeIfAbsent(worldName, name -> {
+            logger.info("Creating '" + name + "' on demand");
+            WorldCreation creation = new WorldCreation(baseWorldName);
+            new WorldCreationTask(logger, this, creation, Collections.singletonList(stage),
+                    creationBudgetMillis, creationMaxWaitTicks, () -> dimensionCreations.remove(name))
+                .runTaskTimer(scheduler, 1L, 1L);
+            return creation.getDimension(stage);
+        });
+    }
+    
+    /**
+     * Checks whether the nether and end of new worlds are only created when a player first uses a portal.
+     * 
+     * @return True if dimensions are created lazily
+     */
+    public boolean isLazyDimensions() {
+        return lazyDimensions;
+    }
+    
+    /**
+     * Gets the creation pipeline of a world that is still being created.
+     * 
+     * @param worldName The overworld name (including folder)
+     * @return The world creation, or null if the world is not being created
+     */
+    public WorldCreation getCreation(String worldName) {
+        return creations.get(worldName);
+    }
+    
+    /**
+     * Gets a future that completes once the nether, end and inventory group of a world exist.
+     * Worlds that are not being created by this service are considered ready.
+     * 
+     * @param worldName The overworld name (including folder)
+     * @return A CompletableFuture that completes with true if the whole triple was created
+     */
+    public CompletableFuture<Boolean> getReadiness(String worldName) {
+        WorldCreation creation = creations.get(worldName);
+        return creation != null ? creation.getReady() : CompletableFuture.completedFuture(true);
+    }
+    
+    /**
+     * Gets the folder in which all manhunt worlds are stored.
+     * 
+     * @return The worlds folder name, relative to the world container
+     */
+    public String getWorldsFolder() {
+        return worldsFolder;
+    }
+    
+    /**
+     * Gets the journal that records the lifecycle of every created world.
+     * 
+     * @return The world journal
+     */
+    public WorldJournal getWorldJournal() {
+        return worldJournal;
+    }
+    
+    /**
+     * Creates a single dimension through Multiverse.
+     * When a world template is configured, the dimension is copied from the template off the main
+     * thread and then imported; dimensions missing from the template are generated instead.
+     * This method must be called on the main server thread; the returned future
+     * completes on the main thread as well.
+     * 
+     * @param worldName The full world name (including folder)
+     * @param environment The environment of the dimension
+     * @return A CompletableFuture containing the created world or null if creation failed
+     */
+    public CompletableFuture<World> createDimension(String worldName, World.Environment environment) {
+        if (templateName == null) {
+            return generateDimension(worldName, environment);
+        }
+        
+        CompletableFuture<World> future = new CompletableFuture<>();
+        worldFileService.copyTemplateDimension(templateName, worldName, environment).thenAccept(copied ->
+            scheduler.runTask(() -> {
+                if (copied) {
+                    importDimension(worldName, environment).thenAccept(future::complete);
+                } else {
+                    logger.info("Template '" + templateName + "' has no " + environment.name().toLowerCase() 
+                        + " dimension, generating '" + worldName + "' instead");
+                    generateDimension(worldName, environment).thenAccept(future::complete);
+                }
+            }));
         return future;
     }
     
     /**
-     * Creates a nether world for the given base world.
+     * Generates a new dimension with a random seed through Multiverse.
+     * Must be called on the main server thread.
      * 
-     * @param baseWorldName The base world name (including folder)
-     * @param onComplete Runnable to execute when complete
+     * @param worldName The full world name (including folder)
+     * @param environment The environment of the dimension
+     * @return A CompletableFuture containing the created world or null if creation failed
      */
-    private void createNetherWorld(String baseWorldName, Runnable onComplete) {
-        String netherName = baseWorldName + "_nether";
-        logger.info("Creating nether world '" + netherName + "'");
+    private CompletableFuture<World> generateDimension(String worldName, World.Environment environment) {
+        CompletableFuture<World> future = new CompletableFuture<>();
+        logger.info("Creating " + environment.name().toLowerCase() + " world '" + worldName + "'");
         
         coreApi.getWorldManager()
-            .createWorld(CreateWorldOptions.worldName(netherName)
-                    .environment(World.Environment.NETHER)
+            .createWorld(CreateWorldOptions.worldName(worldName)
+                    .environment(environment)
                     .seed(System.currentTimeMillis())
                     .generateStructures(true))
             .onFailure(reason -> {
-                logger.warning("Failed to create nether world '" + netherName + "': " + reason);
-                if (onComplete != null) onComplete.run();
+                logger.warning("Failed to create world '" + worldName + "': " + reason);
+                future.complete(null);
             })
-            .onSuccess(netherWorld -> {
-                logger.info("Successfully created nether world '" + netherName + "'");
-                if (onComplete != null) onComplete.run();
+            .onSuccess(multiverseWorld -> {
+                logger.info("Successfully created world '" + worldName + "'");
+                future.complete(applyWorldSettings(Bukkit.getWorld(worldName)));
             });
+        
+        return future;
     }
     
     /**
-     * Creates an end world for the given base world.
+     * Loads a dimension whose folder was copied from the template and registers it with Multiverse.
+     * Must be called on the main server thread.
      * 
-     * @param baseWorldName The base world name (including folder)
-     * @param onComplete Runnable to execute when complete
+     * @param worldName The full world name (including folder)
+     * @param environment The environment of the dimension
+     * @return A CompletableFuture containing the loaded world or null if the import failed
      */
-    private void createEndWorld(String baseWorldName, Runnable onComplete) {
-        String endName = baseWorldName + "_the_end";
-        logger.info("Creating end world '" + endName + "'");
+    private CompletableFuture<World> importDimension(String worldName, World.Environment environment) {
+        CompletableFuture<World> future = new CompletableFuture<>();
         
         coreApi.getWorldManager()
-            .createWorld(CreateWorldOptions.worldName(endName)
-                    .environment(World.Environment.THE_END)
-                    .seed(System.currentTimeMillis())
-                    .generateStructures(true))
+            .importWorld(ImportWorldOptions.worldName(worldName)
+                    .environment(environment))
             .onFailure(reason -> {
-                logger.warning("Failed to create end world '" + endName + "': " + reason);
-                if (onComplete != null) onComplete.run();
+                logger.warning("Failed to import template copy '" + worldName + "': " + reason);
+                future.complete(null);
             })
-            .onSuccess(endWorld -> {
-                logger.info("Successfully created end world '" + endName + "'");
-                if (onComplete != null) onComplete.run();
+            .onSuccess(multiverseWorld -> {
+                logger.info("Successfully loaded template copy '" + worldName + "'");
+                future.complete(applyWorldSettings(Bukkit.getWorld(worldName)));
             });
+        
+        return future;
+    }
+    
+    /**
+     * Applies the persistence settings to a world created by this service.
+     * Ephemeral worlds are thrown away when their game ends, so they are never autosaved
+     * and their spawn chunks are not kept loaded.
+     * 
+     * @param world The created world (can be null)
+     * @return The same world, for chaining
+     */
+    World applyWorldSettings(World world) {
+        if (world != null && ephemeralWorlds) {
+            world.setAutoSave(false);
+            world.setKeepSpawnInMemory(false);
+        }
+        return world;
+    }
+    
+    /**
+     * Checks whether worlds created by this service are ephemeral.
+     * 
+     * @return True if game worlds are never saved to disk
+     */
+    public boolean isEphemeralWorlds() {
+        return ephemeralWorlds;
+    }
+    
+    /**
+     * Reads the world template from the config and checks that its folder exists.
+     * 
+     * @return The template world name, or null if template cloning is disabled or unavailable
+     */
+    private String loadTemplateName() {
+        if (!plugin.getConfig().getBoolean("world-template.enabled", false)) {
+            return null;
+        }
+        
+        String name = plugin.getConfig().getString("world-template.name", "manhunt_template");
+        File folder = new File(Bukkit.getWorldContainer(), name);
+        if (!new File(folder, "level.dat").exists()) {
+            logger.warning("World template '" + name + "' not found in the world container. New worlds will be generated instead.");
+            return null;
+        }
+        
+        logger.info("New game worlds will be copied from template '" + name + "'");
+        return name;
     }
     
     /**
@@ -172,7 +378,7 @@ public class WorldManagementService {
      * 
      * @param baseWorldName The base world name (including folder)
      */
-    private void createWorldGroup(String baseWorldName) {
+    public void createWorldGroup(String baseWorldName) {
         // Group inventories to world, netherworld and endworld if MultiverseInventories is available
         if (inventoriesApi != null) {
             try {
@@ -197,7 +403,8 @@ public class WorldManagementService {
     /**
      * Deletes a world and its associated nether and end dimensions.
      * If the worldName doesn't include a folder prefix, assumes it's in the ManhuntWorlds folder.
-     * This operation coordinates between async and sync operations to avoid blocking the main thread unnecessarily.
+     * Unloading and removing the worlds from Multiverse happens on the main thread, while the
+     * world folders are deleted on a background thread.
      *
      * @param worldName The name of the world to delete
      * @return CompletableFuture that completes with true if the world was successfully deleted
@@ -205,56 +412,95 @@ public class WorldManagementService {
     public CompletableFuture<Boolean> deleteWorld(String worldName) {
         CompletableFuture<Boolean> future = new CompletableFuture<>();
         
+        // If the world name doesn't have a folder prefix, assume it's in ManhuntWorlds folder
+        final String finalWorldName;
+        if (!worldName.contains("/")) {
+            finalWorldName = worldsFolder + "/" + worldName;
+        } else {
+            finalWorldName = worldName;
+        }
+        
+        // Get list of worlds to delete: main world, nether, and end
+        String[] worldsToDelete = {
+            finalWorldName,
+            finalWorldName + "_nether",
+            finalWorldName + "_the_end"
+        };
+        
+        // Let a running creation finish its current stage first, so no dimension appears after the deletion
+        WorldCreation creation = creations.get(finalWorldName);
+        if (creation != null && !creation.getReady().isDone() && plugin.isEnabled()) {
+            creation.cancel();
+            creation.getReady().thenRun(() -> deleteWorld(finalWorldName).thenAccept(future::complete));
+            return future;
+        }
+        
+        // The same goes for a nether or end that is being created on demand
+        if (plugin.isEnabled()) {
+            for (String dimensionName : new String[] { worldsToDelete[1], worldsToDelete[2] }) {
+                CompletableFuture<World> dimension = dimensionCreations.get(dimensionName);
+                if (dimension != null && !dimension.isDone()) {
+                    dimension.thenRun(() -> deleteWorld(finalWorldName).thenAccept(future::complete));
+                    return future;
+                }
+            }
+        }
+        
+        // Until the files are gone, a crash leaves the world to the next startup cleanup
+        if (worldJournal.getState(finalWorldName) != null) {
+            worldJournal.record(finalWorldName, WorldLifecycleState.DELETING);
+        }
+        
+        // The scheduler is unavailable while the plugin is disabling, so deregister the worlds
+        // right away and leave the files to the world deletion queue for the next startup
+        if (!plugin.isEnabled()) {
+            try {
+                AtomicBoolean success = new AtomicBoolean(true);
+                removeWorldGroup(finalWorldName);
+                unloadWorlds(worldsToDelete, !ephemeralWorlds, success, () -> {
+                    removeUnloadedWorlds(worldsToDelete, success);
+                    WorldDeletionQueue deletionQueue = plugin.getWorldDeletionQueue();
+                    if (deletionQueue != null) {
+                        deletionQueue.enqueue(finalWorldName);
+                    }
+                });
+                future.complete(success.get());
+            } catch (Exception e) {
+                logger.severe("Error during world deletion: " + e.getMessage());
+                future.complete(false);
+            }
+            return future;
+        }
+        
         // Run preparation asynchronously
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+        scheduler.runAsync(() -> {
             try {
                 final AtomicBoolean success = new AtomicBoolean(true);
                 
-                // If the world name doesn't have a folder prefix, assume it's in ManhuntWorlds folder
-                final String finalWorldName;
-                if (!worldName.contains("/")) {
-                    finalWorldName = worldsFolder + "/" + worldName;
-                } else {
-                    finalWorldName = worldName;
-                }
-                
-                // Get list of worlds to delete: main world, nether, and end
-                String[] worldsToDelete = {
-                    finalWorldName,
-                    finalWorldName + "_nether",
-                    finalWorldName + "_the_end"
-                };
-                
                 // First remove inventory group if it exists (can be done async)
-                if (inventoriesApi != null) {
-                    try {
-                        // Check if group exists and remove it
-                        WorldGroup group = inventoriesApi.getWorldGroupManager().getGroup(finalWorldName);
-                        if (group != null) {
-                            inventoriesApi.getWorldGroupManager().removeGroup(group);
-                            logger.info("Successfully removed inventory group for world '" + finalWorldName + "'");
-                        }
-                    } catch (Exception e) {
-                        logger.warning("Failed to remove inventory group for world '" + finalWorldName + "': " + e.getMessage());
-                        // Continue with deletion even if group removal fails
-                    }
-                }
+                removeWorldGroup(finalWorldName);
                 
                 // World unloading needs to be done on the main thread
-                Bukkit.getScheduler().runTask(plugin, () -> {
+                scheduler.runTask(() -> {
                     // First unload all worlds
                     try {
-                        unloadWorlds(worldsToDelete, success, () -> {
-                            // Then delete all worlds (also needs to be done on the main thread for certain API operations)
-                            Bukkit.getScheduler().runTask(plugin, () -> {
-                                try {
-                                    deleteUnloadedWorlds(worldsToDelete, success);
-                                    future.complete(success.get());
-                                } catch (Exception e) {
-                                    logger.severe("Error during world deletion: " + e.getMessage());
-                                    future.complete(false);
-                                }
-                            });
+                        // Ephemeral worlds are deleted right after unloading, so their chunks aren't saved first
+                        unloadWorlds(worldsToDelete, !ephemeralWorlds, success, () -> {
+                            // Then remove the worlds from Multiverse and delete their folders in the background
+                            try {
+                                List<String> removed = removeUnloadedWorlds(worldsToDelete, success);
+                                worldFileService.deleteWorldFolders(removed)
+                                    .thenAccept(deleted -> {
+                                        if (deleted && success.get()) {
+                                            worldJournal.remove(finalWorldName);
+                                        }
+                                        deleteSnapshots(worldsToDelete);
+                                        future.complete(deleted && success.get());
+                                    });
+                            } catch (Exception e) {
+                                logger.severe("Error during world deletion: " + e.getMessage());
+                                future.complete(false);
+                            }
                         });
                     } catch (Exception e) {
                         logger.severe("Error during world unloading: " + e.getMessage());
@@ -270,14 +516,250 @@ public class WorldManagementService {
         return future;
     }
     
+    /**
+     * Takes a snapshot of the region files and other data of every loaded dimension of a world,
+     * so the world can later be rolled back with {@link #resetWorld(String)}.
+     * Saving a world only queues its chunk writes, so the dimensions are unloaded with saving first,
+     * which waits until every chunk is on disk, then copied in the background and loaded again.
+     * No player may be in the world, and the world objects are replaced, so callers must look the
+     * dimensions up again once the snapshot is done. If a dimension can't be unloaded and saved, or
+     * a copy fails, the world gets no snapshot at all.
+     * Must be called on the main server thread; the returned future completes on it.
+     * 
+     * @param baseWorldName The overworld name (including folder)
+     * @return CompletableFuture that completes with true if every loaded dimension was captured
+     */
+    public CompletableFuture<Boolean> takeSnapshot(String baseWorldName) {
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        
+        List<String> loadedDimensions = new ArrayList<>();
+        for (String worldName : getDimensionNames(baseWorldName)) {
+            if (Bukkit.getWorld(worldName) != null) {
+                loadedDimensions.add(worldName);
+            }
+        }
+        if (loadedDimensions.isEmpty()) {
+            future.complete(false);
+            return future;
+        }
+        String[] worldNames = loadedDimensions.toArray(new String[0]);
+        
+        AtomicBoolean unloaded = new AtomicBoolean(true);
+        unloadWorlds(worldNames, true, unloaded, () -> {
+            List<CompletableFuture<Boolean>> captures = new ArrayList<>();
+            if (unloaded.get()) {
+                for (String worldName : worldNames) {
+                    captures.add(worldFileService.snapshotWorldFolder(worldName, getSnapshotFolder(worldName))
+                        .thenApply(manifest -> {
+                            if (manifest == null) {
+                                return false;
+                            }
+                            snapshots.put(worldName, manifest);
+                            return true;
+                        }));
+                }
+            } else {
+                logger.warning("Could not save world '" + baseWorldName + "' to disk, so it gets no snapshot");
+            }
+            
+            CompletableFuture.allOf(captures.toArray(new CompletableFuture[0])).whenComplete((v, error) -> scheduler.runTask(() -> {
+                boolean captured = unloaded.get() && error == null && captures.stream().allMatch(CompletableFuture::join);
+                if (!captured) {
+                    deleteSnapshots(worldNames);
+                }
+                
+                // Dimensions that failed to unload are still loaded and are skipped
+                List<String> toLoad = new ArrayList<>();
+                for (String worldName : worldNames) {
+                    if (Bukkit.getWorld(worldName) == null) {
+                        toLoad.add(worldName);
+                    }
+                }
+                AtomicBoolean loaded = new AtomicBoolean(true);
+                loadWorlds(toLoad.toArray(new String[0]), loaded, () -> future.complete(captured && loaded.get()));
+            }));
+        });
+        
+        return future;
+    }
+    
+    /**
+     * Checks whether a world has a snapshot it can be reset to.
+     * 
+     * @param baseWorldName The overworld name (including folder)
+     * @return True if the overworld has a snapshot
+     */
+    public boolean hasSnapshot(String baseWorldName) {
+        return getSnapshotManifest(baseWorldName) != null;
+    }
+    
+    /**
+     * Checks whether used game worlds are reset to their snapshot and reused instead of deleted.
+     * 
+     * @return True if world reset is enabled
+     */
+    public boolean isWorldResetEnabled() {
+        return worldResetEnabled;
+    }
+    
+    /**
+     * Resets a world to its snapshot as an alternative to {@link #deleteWorld(String)}.
+     * The dimensions are unloaded without saving, only the files that changed since the snapshot
+     * are restored in the background, and the dimensions are loaded again. A nether or end that
+     * was created after the snapshot is removed, to be created again on demand.
+     * While the reset runs the world is journalled as deleting, so a crash leaves it to the startup
+     * cleanup; once every dimension is loaded again its previous journal state is restored.
+     * Must be called on the main server thread.
+     * 
+     * @param baseWorldName The overworld name (including folder)
+     * @return CompletableFuture containing the reset overworld, or null if the world could not be reset
+     *         and should be deleted instead
+     */
+    public CompletableFuture<World> resetWorld(String baseWorldName) {
+        CompletableFuture<World> future = new CompletableFuture<>();
+        if (!hasSnapshot(baseWorldName)) {
+            future.complete(null);
+            return future;
+        }
+        
+        long start = System.currentTimeMillis();
+        String[] worldNames = getDimensionNames(baseWorldName);
+        
+        // A crash in the middle of a reset leaves a broken world for the startup cleanup
+        WorldLifecycleState previousState = worldJournal.getState(baseWorldName);
+        if (previousState != null) {
+            worldJournal.record(baseWorldName, WorldLifecycleState.DELETING);
+        }
+        
+        AtomicBoolean success = new AtomicBoolean(true);
+        unloadWorlds(worldNames, false, success, () -> {
+            if (!success.get()) {
+                future.complete(null);
+                return;
+            }
+            
+            List<String> snapshotted = new ArrayList<>();
+            List<String> unsnapshotted = new ArrayList<>();
+            for (String worldName : worldNames) {
+                if (getSnapshotManifest(worldName) != null) {
+                    snapshotted.add(worldName);
+                } else {
+                    unsnapshotted.add(worldName);
+                }
+            }
+            
+            List<CompletableFuture<Boolean>> steps = new ArrayList<>();
+            List<String> removed = removeUnloadedWorlds(unsnapshotted.toArray(new String[0]), success);
+            steps.add(worldFileService.deleteWorldFolders(removed));
+            for (String worldName : snapshotted) {
+                steps.add(worldFileService.restoreWorldFolder(worldName, getSnapshotFolder(worldName), getSnapshotManifest(worldName)));
+            }
+            
+            CompletableFuture.allOf(steps.toArray(new CompletableFuture[0])).thenRun(() ->
+                scheduler.runTask(() -> {
+                    if (!steps.stream().allMatch(CompletableFuture::join)) {
+                        future.complete(null);
+                        return;
+                    }
+                    
+                    // The world is only handed out again once every dimension is back
+                    loadWorlds(snapshotted.toArray(new String[0]), success, () -> {
+                        World world = Bukkit.getWorld(baseWorldName);
+                        if (!success.get() || world == null) {
+                            future.complete(null);
+                            return;
+                        }
+                        
+                        if (previousState != null) {
+                            worldJournal.record(baseWorldName, previousState);
+                        }
+                        logger.info("Reset world '" + baseWorldName + "' in " + (System.currentTimeMillis() - start) + "ms");
+                        future.complete(world);
+                    });
+                }));
+        });
+        
+        return future;
+    }
+    
+    /**
+     * Gets the manifest of a dimension's snapshot, loading it from disk if it was taken by a previous run.
+     * 
+     * @param worldName The dimension world name (including folder)
+     * @return The manifest, or null if the dimension has no snapshot
+     */
+    private Map<String, FileStamp> getSnapshotManifest(String worldName) {
+        Map<String, FileStamp> manifest = snapshots.get(worldName);
+        if (manifest == null && worldResetEnabled) {
+            manifest = worldFileService.loadSnapshotManifest(getSnapshotFolder(worldName));
+            if (manifest != null) {
+                snapshots.put(worldName, manifest);
+            }
+        }
+        return manifest;
+    }
+    
+    /**
+     * Deletes the snapshots of deleted worlds.
+     * 
+     * @param worldNames The dimension world names (including folder)
+     */
+    private void deleteSnapshots(String[] worldNames) {
+        for (String worldName : worldNames) {
+            snapshots.remove(worldName);
+            File folder = getSnapshotFolder(worldName);
+            if (folder.exists()) {
+                worldFileService.deleteFolder(folder);
+            }
+        }
+    }
+    
+    /**
+     * Gets the folder in which the snapshot of a dimension is stored.
+     */
+    private File getSnapshotFolder(String worldName) {
+        return new File(snapshotsFolder, worldName.replace('/', '_'));
+    }
+    
+    /**
+     * Gets the names of the overworld, nether and end of a world.
+     */
+    private String[] getDimensionNames(String baseWorldName) {
+        return new String[] { baseWorldName, baseWorldName + "_nether", baseWorldName + "_the_end" };
+    }
+    
+    /**
+     * Removes the Multiverse-Inventories group of a world, if there is one.
+     * 
+     * @param worldName The base world name (including folder)
+     */
+    private void removeWorldGroup(String worldName) {
+        if (inventoriesApi == null) {
+            return;
+        }
+        
+        try {
+            // Check if group exists and remove it
+            WorldGroup group = inventoriesApi.getWorldGroupManager().getGroup(worldName);
+            if (group != null) {
+                inventoriesApi.getWorldGroupManager().removeGroup(group);
+                logger.info("Successfully removed inventory group for world '" + worldName + "'");
+            }
+        } catch (Exception e) {
+            logger.warning("Failed to remove inventory group for world '" + worldName + "': " + e.getMessage());
+            // Continue with deletion even if group removal fails
+        }
+    }
+    
     /**
      * Unloads worlds sequentially on the main thread.
      * 
      * @param worldsToUnload Array of world names to unload
+     * @param save Whether to save the worlds' chunks before unloading
      * @param success AtomicBoolean that tracks success
      * @param onComplete Runnable to execute when all worlds are unloaded
      */
-    private void unloadWorlds(String[] worldsToUnload, AtomicBoolean success, Runnable onComplete) {
+    private void unloadWorlds(String[] worldsToUnload, boolean save, AtomicBoolean success, Runnable onComplete) {
         if (worldsToUnload.length == 0) {
             if (onComplete != null) onComplete.run();
             return;
@@ -293,205 +775,212 @@ public class WorldManagementService {
         if (mvWorldOpt.isDefined()) {
             LoadedMultiverseWorld mvWorld = mvWorldOpt.get();
             // Use the LoadedMultiverseWorld object for unloading
-            coreApi.getWorldManager().unloadWorld(UnloadWorldOptions.world(mvWorld))
+            coreApi.getWorldManager().unloadWorld(UnloadWorldOptions.world(mvWorld).saveBukkitWorld(save))
                 .onFailure(reason -> {
                     logger.warning("Failed to unload world '" + worldToUnload + "': " + reason);
                     success.set(false);
                     
                     // Continue with remaining worlds
-                    unloadWorlds(remainingWorlds, success, onComplete);
+                    unloadWorlds(remainingWorlds, save, success, onComplete);
                 })
                 .onSuccess(unused -> {
                     logger.info("Successfully unloaded world '" + worldToUnload + "'");
                     
                     // Process remaining worlds
-                    unloadWorlds(remainingWorlds, success, onComplete);
+                    unloadWorlds(remainingWorlds, save, success, onComplete);
                 });
         } else {
             logger.warning("World '" + worldToUnload + "' not found, skipping unload");
             // Process remaining worlds
-            unloadWorlds(remainingWorlds, success, onComplete);
+            unloadWorlds(remainingWorlds, save, success, onComplete);
         }
     }
     
     /**
-     * Deletes unloaded worlds.
+     * Loads worlds sequentially on the main thread and applies the game world settings to each.
+     * 
+     * @param worldsToLoad Array of world names to load
+     * @param success AtomicBoolean that tracks success
+     * @param onComplete Runnable to execute when all worlds are loaded
+     */
+    private void loadWorlds(String[] worldsToLoad, AtomicBoolean success, Runnable onComplete) {
+        if (worldsToLoad.length == 0) {
+            if (onComplete != null) onComplete.run();
+            return;
+        }
+        
+        String[] remainingWorlds = new String[worldsToLoad.length - 1];
+        System.arraycopy(worldsToLoad, 1, remainingWorlds, 0, remainingWorlds.length);
+        
+        String worldToLoad = worldsToLoad[0];
+        coreApi.getWorldManager().loadWorld(worldToLoad)
+            .onFailure(reason -> {
+                logger.warning("Failed to load reset world '" + worldToLoad + "': " + reason);
+                success.set(false);
+                
+                // Continue with remaining worlds
+                loadWorlds(remainingWorlds, success, onComplete);
+            })
+            .onSuccess(loaded -> {
+                World world = Bukkit.getWorld(worldToLoad);
+                if (world != null) {
+                    applyWorldSettings(world);
+                } else {
+                    success.set(false);
+                }
+                
+                // Process remaining worlds
+                loadWorlds(remainingWorlds, success, onComplete);
+            });
+    }
+    
+    /**
+     * Removes unloaded worlds from Multiverse without touching their files.
      * This method must be called on the main server thread.
      * 
-     * @param worldsToDelete Array of world names to delete
+     * @param worldsToRemove Array of world names to remove
      * @param success AtomicBoolean that tracks success
+     * @return The names of the worlds whose folders are safe to delete
      */
-    private void deleteUnloadedWorlds(String[] worldsToDelete, AtomicBoolean success) {
+    private List<String> removeUnloadedWorlds(String[] worldsToRemove, AtomicBoolean success) {
+        List<String> removed = new ArrayList<>();
+        
         // This method must be running on the main thread
         if (!Bukkit.isPrimaryThread()) {
-            logger.severe("deleteUnloadedWorlds must be called from the main thread");
+            logger.severe("removeUnloadedWorlds must be called from the main thread");
             success.set(false);
-            return;
+            return removed;
         }
 
-        for (String world : worldsToDelete) {
+        for (String world : worldsToRemove) {
+            // A world that is still loaded in Bukkit must never have its files deleted
+            if (Bukkit.getWorld(world) != null) {
+                logger.warning("World '" + world + "' is still loaded, not deleting its files");
+                success.set(false);
+                continue;
+            }
+            
             // Use MultiverseWorld instead of LoadedMultiverseWorld for unloaded worlds
             Option<org.mvplugins.multiverse.core.world.MultiverseWorld> mvWorldOpt = coreApi.getWorldManager().getUnloadedWorld(world);
             
             if (mvWorldOpt.isDefined()) {
-                org.mvplugins.multiverse.core.world.MultiverseWorld mvWorld = mvWorldOpt.get();
                 try {
-                    // Delete the world files
-                    coreApi.getWorldManager().deleteWorld(DeleteWorldOptions.world(mvWorld))
+                    // Only deregister the world; the files are deleted in the background
+                    coreApi.getWorldManager().removeWorld(RemoveWorldOptions.world(mvWorldOpt.get()))
                         .onFailure(reason -> {
-                            logger.warning("Failed to delete world '" + world + "': " + reason);
+                            logger.warning("Failed to remove world '" + world + "' from Multiverse: " + reason);
                             success.set(false);
                         })
-                        .onSuccess(unused -> logger.info("Successfully deleted world '" + world + "'"));
+                        .onSuccess(unused -> {
+                            logger.info("Removed world '" + world + "' from Multiverse");
+                            removed.add(world);
+                        });
                 } catch (Exception e) {
-                    logger.warning("Error while deleting world '" + world + "': " + e.getMessage());
+                    logger.warning("Error while removing world '" + world + "': " + e.getMessage());
                     e.printStackTrace();
                     success.set(false);
                 }
+            } else if (new File(Bukkit.getWorldContainer(), world).exists()) {
+                // Not known to Multiverse (anymore), but the folder is still there
+                removed.add(world);
             }
         }
+        
+        return removed;
     }
     
     /**
-     * Scans for and cleans up all worlds in the ManhuntWorlds folder.
-     * This is used during plugin startup and shutdown to ensure no stale worlds are kept.
-     * 
-     * @param synchronous If true, will wait for all deletions to complete
+     * Deletes the worlds that the journal shows were abandoned by a previous run: worlds that
+     * were being created, used by a game or deleted when the server stopped. Pooled worlds are
+     * kept for the world pool to adopt, and worlds in the deletion queue are left to the queue.
+     * Folders that are not in the journal are left alone.
+     * The orphans are deleted in parallel batches, and the total time is logged at the end.
      */
-    public void cleanupAllManhuntWorlds(boolean synchronous) {
-        if (synchronous) {
-            cleanupAllManhuntWorldsSync();
-        } else {
-            cleanupAllManhuntWorldsAsync();
-        }
-    }
-
-    private void cleanupAllManhuntWorldsAsync() {
-        logger.info("Cleaning up ALL Manhunt worlds asynchronously...");
-
-        // Locate the worldsFolder
-        File worldContainer = Bukkit.getServer().getWorldContainer();
-        File manhuntFolder = new File(worldContainer, worldsFolder);
-        if (!manhuntFolder.exists() || !manhuntFolder.isDirectory()) {
-            logger.info("No ManhuntWorlds folder found. Nothing to clean up.");
-            return;
+    public void cleanupOrphanedWorlds() {
+        long start = System.currentTimeMillis();
+        boolean keepPooled = plugin.getConfig().getBoolean("world-pool.enabled", true);
+        
+        // Worlds in the deletion queue are deleted by the queue, with retries
+        WorldDeletionQueue deletionQueue = plugin.getWorldDeletionQueue();
+        
+        List<String> orphans = new ArrayList<>();
+        for (Map.Entry<String, WorldLifecycleState> entry : worldJournal.getAll().entrySet()) {
+            if (entry.getValue() == WorldLifecycleState.POOLED && keepPooled) {
+                continue;
+            }
+            if (deletionQueue != null && deletionQueue.contains(entry.getKey())) {
+                continue;
+            }
+            orphans.add(entry.getKey());
         }
-
-        // List all items in the folder
-        File[] entries = manhuntFolder.listFiles();
-        if (entries == null || entries.length == 0) {
-            logger.info("ManhuntWorlds folder is empty. Nothing to delete.");
+        
+        reportUnjournalledFolders();
+        
+        if (orphans.isEmpty()) {
+            logger.info("No orphaned Manhunt worlds to clean up.");
             return;
         }
-
-        List<File> worldFolders = new ArrayList<>(Arrays.asList(entries));
-
-        // The actual cleanup logic needs to run on the main thread for API calls.
-        // We can start it from an async task to not block startup/shutdown.
-        Runnable cleanupTask = () -> processWorldCleanup(worldFolders);
-
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, cleanupTask);
+        
+        int batchSize = Math.max(1, plugin.getConfig().getInt("world-journal.cleanup-batch-size", 4));
+        logger.info("Cleaning up " + orphans.size() + " orphaned Manhunt world(s) in batches of " + batchSize);
+        deleteInBatches(orphans, 0, batchSize, new AtomicInteger(), start);
     }
-
-    private void cleanupAllManhuntWorldsSync() {
-        logger.info("Cleaning up ALL Manhunt worlds synchronously...");
-
-        // Locate the worldsFolder
-        File worldContainer = Bukkit.getServer().getWorldContainer();
-        File manhuntFolder = new File(worldContainer, worldsFolder);
-        if (!manhuntFolder.exists() || !manhuntFolder.isDirectory()) {
-            logger.info("No ManhuntWorlds folder found. Nothing to clean up.");
-            return;
-        }
-
-        // List all items in the folder
-        File[] entries = manhuntFolder.listFiles();
-        if (entries == null || entries.length == 0) {
-            logger.info("ManhuntWorlds folder is empty. Nothing to delete.");
+    
+    /**
+     * Deletes one batch of worlds at the same time and continues with the next batch
+     * once every deletion in the current one has finished.
+     * 
+     * @param worldNames The base world names to delete
+     * @param from The index of the first world of this batch
+     * @param batchSize The number of worlds per batch
+     * @param failures Counter of worlds that could not be deleted
+     * @param start The time the cleanup started
+     */
+    private void deleteInBatches(List<String> worldNames, int from, int batchSize, AtomicInteger failures, long start) {
+        if (from >= worldNames.size()) {
+            logger.info("Cleaned up " + (worldNames.size() - failures.get()) + "/" + worldNames.size() 
+                + " orphaned Manhunt world(s) in " + (System.currentTimeMillis() - start) + "ms");
             return;
         }
-
-        for (File worldFolder : entries) {
-            String worldFolderName = worldFolder.getName();
-            String fullWorldName = worldsFolder + "/" + worldFolderName;
-
-            // First, try to unload the world if it's loaded.
-            coreApi.getWorldManager().getLoadedWorld(fullWorldName).peek(loadedWorld -> {
-                logger.info("Unloading world synchronously: " + fullWorldName);
-                coreApi.getWorldManager().unloadWorld(UnloadWorldOptions.world(loadedWorld));
-            });
-
-            // After unloading (or failure), proceed to delete from Multiverse, which also handles files.
-            coreApi.getWorldManager().getUnloadedWorld(fullWorldName).peek(mvWorld -> {
-                logger.info("Deleting world synchronously: " + fullWorldName);
-                coreApi.getWorldManager().deleteWorld(DeleteWorldOptions.world(mvWorld));
-            });
-
-            // Also try to remove inventory group
-            if (inventoriesApi != null && !worldFolderName.endsWith("_nether") && !worldFolderName.endsWith("_the_end")) {
-                WorldGroup group = inventoriesApi.getWorldGroupManager().getGroup(fullWorldName);
-                if (group != null) {
-                    inventoriesApi.getWorldGroupManager().removeGroup(group);
-                    logger.info("Successfully removed inventory group for world '" + fullWorldName + "'");
+        
+        int to = Math.min(from + batchSize, worldNames.size());
+        List<CompletableFuture<Boolean>> batch = new ArrayList<>();
+        for (String worldName : worldNames.subList(from, to)) {
+            batch.add(deleteWorld(worldName).thenApply(deleted -> {
+                if (!deleted) {
+                    failures.incrementAndGet();
                 }
-            }
+                return deleted;
+            }));
         }
-        logger.info("Synchronous cleanup of Manhunt worlds complete.");
+        
+        CompletableFuture.allOf(batch.toArray(new CompletableFuture[0]))
+            .thenRun(() -> deleteInBatches(worldNames, to, batchSize, failures, start));
     }
- 
+    
     /**
-     * Processes the list of world folders to clean up, one by one.
-     * This method is designed to be called recursively in callbacks to ensure sequential execution.
+     * Logs the world folders in the ManhuntWorlds folder that the journal doesn't know about.
+     * These may belong to an older version of the plugin and have to be removed by hand.
      */
-    private void processWorldCleanup(List<File> worldFolders) {
-        if (worldFolders.isEmpty()) {
-            logger.info("All Manhunt worlds have been cleaned up.");
+    private void reportUnjournalledFolders() {
+        File manhuntFolder = new File(Bukkit.getServer().getWorldContainer(), worldsFolder);
+        File[] entries = manhuntFolder.listFiles(File::isDirectory);
+        if (entries == null) {
             return;
         }
- 
-        File worldFolder = worldFolders.remove(0);
-        String worldFolderName = worldFolder.getName();
-        String fullWorldName = worldsFolder + "/" + worldFolderName;
- 
-        // Schedule the actual unload/delete on the main thread.
-        Bukkit.getScheduler().runTask(plugin, () -> {
-            Runnable deleteAndContinue = () -> {
-                // After unloading (or failure), proceed to delete from Multiverse, which also handles files.
-                coreApi.getWorldManager().getUnloadedWorld(fullWorldName).peek(mvWorld -> {
-                    coreApi.getWorldManager().deleteWorld(DeleteWorldOptions.world(mvWorld))
-                        .onSuccess(v -> logger.info("Successfully deleted world: " + fullWorldName))
-                        .onFailure(r -> logger.warning("Failed to delete world '" + fullWorldName + "': " + r));
-                });
- 
-                // Also try to remove inventory group
-                if (inventoriesApi != null && !worldFolderName.endsWith("_nether") && !worldFolderName.endsWith("_the_end")) {
-                    WorldGroup group = inventoriesApi.getWorldGroupManager().getGroup(fullWorldName);
-                    if (group != null) {
-                        inventoriesApi.getWorldGroupManager().removeGroup(group);
-                        logger.info("Successfully removed inventory group for world '" + fullWorldName + "'");
-                    }
-                }
- 
-                // Process the next world in the list
-                processWorldCleanup(worldFolders);
-            };
- 
-            // First, try to unload the world if it's loaded.
-            Option<LoadedMultiverseWorld> loadedWorldOpt = coreApi.getWorldManager().getLoadedWorld(fullWorldName);
-            if (loadedWorldOpt.isDefined()) {
-                coreApi.getWorldManager().unloadWorld(UnloadWorldOptions.world(loadedWorldOpt.get()))
-                    .onSuccess(v -> {
-                        logger.info("Unloaded world: " + fullWorldName);
-                        deleteAndContinue.run();
-                    })
-                    .onFailure(r -> {
-                        logger.warning("Failed to unload world '" + fullWorldName + "': " + r + ". Forcing deletion.");
-                        deleteAndContinue.run();
-                    });
-            } else {
-                // If not loaded, just delete it.
-                deleteAndContinue.run();
+        
+        int unknown = 0;
+        for (File entry : entries) {
+            String baseName = worldsFolder + "/" + entry.getName()
+                .replaceFirst("_nether$", "")
+                .replaceFirst("_the_end$", "");
+            if (worldJournal.getState(baseName) == null) {
+                unknown++;
             }
-        });
+        }
+        
+        if (unknown > 0) {
+            logger.info("Leaving " + unknown + " world folder(s) in '" + worldsFolder + "' alone because they are not in the world journal");
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,309 @@
+package com.thefallersgames.bettermanhunt.services;
+
+import com.thefallersgames.bettermanhunt.Plugin;
+import com.thefallersgames.bettermanhunt.managers.GameManager;
+import com.thefallersgames.bettermanhunt.models.Game;
+import com.thefallersgames.bettermanhunt.models.GameState;
+import com.thefallersgames.bettermanhunt.models.WorldLifecycleState;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.logging.Logger;
+
+/**
+ * Keeps a warm pool of pre-generated overworld/nether/end triples so that new games
+ * can claim a ready world instantly instead of waiting for world generation.
+ * The pool is refilled one dimension at a time, and only while the server is idle.
+ */
+public class WorldPoolService {
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final Plugin plugin;
+    private final SchedulerService scheduler;
+    private final Logger logger;
+    private final WorldManagementService worldManagementService;
+    private final WorldJournal worldJournal;
+    private final int poolSize;
+    private final long tickBudgetNanos;
+    private final int cooldownTicks;
+
+    // Worlds whose nether, end and inventory group have all been created
+    private final Deque<World> readyWorlds = new ArrayDeque<>();
+
+    // The triple currently being generated
+    private String pendingWorldName;
+    private int pendingStage;
+    private boolean stageInProgress;
+
+    private SchedulerService.Task monitorTask;
+    private long lastTickNanos;
+    private double averageTickNanos;
+    private int ticksUntilNextStage;
+
+    /**
+     * Creates a new WorldPoolService.
+     *
+     * @param plugin The plugin instance
+     * @param worldManagementService The world management service used to create worlds
+     */
+    public WorldPoolService(Plugin plugin, WorldManagementService worldManagementService) {
+        this.plugin = plugin;
+        this.scheduler = plugin.getSchedulerService();
+        this.logger = plugin.getLogger();
+        this.worldManagementService = worldManagementService;
+        this.worldJournal = worldManagementService.getWorldJournal();
+
+        FileConfiguration config = plugin.getConfig();
+        this.poolSize = Math.max(0, config.getInt("world-pool.size", 2));
+        this.tickBudgetNanos = config.getLong("world-pool.tick-budget-ms", 55L) * NANOS_PER_MILLI;
+        this.cooldownTicks = Math.max(1, config.getInt("world-pool.cooldown-ticks", 100));
+    }
+
+    /**
+     * Adopts the pooled worlds of a previous run, then starts monitoring the server tick time
+     * and refilling the pool when idle.
+     */
+    public void start() {
+        if (monitorTask != null) {
+            return;
+        }
+
+        // Also with a pool size of zero, so the pooled worlds of an earlier run are deleted
+        adoptJournalledWorlds();
+        if (poolSize == 0) {
+            return;
+        }
+
+        logger.info("World pool enabled with a target size of " + poolSize);
+        lastTickNanos = System.nanoTime();
+        averageTickNanos = 50 * NANOS_PER_MILLI;
+        ticksUntilNextStage = cooldownTicks;
+        monitorTask = scheduler.runTaskTimer(this::tick, 1L, 1L);
+    }
+
+    /**
+     * Stops refilling the pool. Pooled worlds stay on disk and journalled as pooled, so the next
+     * startup adopts them back into the pool, or deletes them if the pool is disabled or smaller.
+     */
+    public void stop() {
+        if (monitorTask != null) {
+            monitorTask.cancel();
+            monitorTask = null;
+        }
+    }
+
+    /**
+     * Claims a ready world from the pool.
+     *
+     * @return A pre-generated overworld whose nether and end already exist, or null if the pool is empty
+     */
+    public World claimWorld() {
+        while (!readyWorlds.isEmpty()) {
+            World world = readyWorlds.pollFirst();
+            // Skip worlds that were unloaded behind our back
+            if (Bukkit.getWorld(world.getName()) != null) {
+                worldJournal.record(world.getName(), WorldLifecycleState.IN_USE);
+                logger.info("Claimed pooled world '" + world.getName() + "' (" + readyWorlds.size() + " left)");
+                return world;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns a world that was reset after its game to the pool.
+     *
+     * @param world The reset overworld
+     * @return True if the world was pooled, false if the pool is full and the world should be deleted
+     */
+    public boolean returnWorld(World world) {
+        if (monitorTask == null || readyWorlds.size() >= poolSize) {
+            return false;
+        }
+
+        worldJournal.record(world.getName(), WorldLifecycleState.POOLED);
+        readyWorlds.addLast(world);
+        logger.info("Returned world '" + world.getName() + "' to the pool (" + readyWorlds.size() + "/" + poolSize + ")");
+        return true;
+    }
+
+    /**
+     * Gets the number of worlds that are ready to be claimed.
+     *
+     * @return The number of pooled worlds
+     */
+    public int getReadyCount() {
+        return readyWorlds.size();
+    }
+
+    /**
+     * Puts the pooled worlds of a previous run back into the pool.
+     * Worlds that are no longer loaded, or that exceed the pool size, are deleted.
+     */
+    private void adoptJournalledWorlds() {
+        for (String worldName : worldJournal.getWorlds(WorldLifecycleState.POOLED)) {
+            World world = Bukkit.getWorld(worldName);
+            if (world != null && readyWorlds.size() < poolSize) {
+                // Multiverse loaded these worlds at startup with its own settings
+                worldManagementService.applyWorldSettings(world);
+                worldManagementService.applyWorldSettings(Bukkit.getWorld(worldName + "_nether"));
+                worldManagementService.applyWorldSettings(Bukkit.getWorld(worldName + "_the_end"));
+                readyWorlds.addLast(world);
+                logger.info("Adopted pooled world '" + worldName + "' from a previous run");
+            } else {
+                worldManagementService.deleteWorld(worldName);
+            }
+        }
+    }
+    
+    /**
+     * Runs every tick to track the average tick duration and, when the server
+     * has headroom, advances the generation of the next pooled world by one stage.
+     */
+    private void tick() {
+        long now = System.nanoTime();
+        long tickNanos = now - lastTickNanos;
+        lastTickNanos = now;
+
+        // Exponential moving average over roughly the last 20 ticks
+        averageTickNanos += (tickNanos - averageTickNanos) / 20.0;
+
+        if (ticksUntilNextStage > 0) {
+            ticksUntilNextStage--;
+            return;
+        }
+
+        if (stageInProgress || !needsRefill() || !isServerIdle()) {
+            return;
+        }
+
+        runNextStage();
+        ticksUntilNextStage = cooldownTicks;
+    }
+
+    /**
+     * Checks whether the pool is below its target size.
+     */
+    private boolean needsRefill() {
+        return pendingWorldName != null || readyWorlds.size() < poolSize;
+    }
+
+    /**
+     * Checks whether the server has room for a world generation step.
+     * Generation is postponed while the average tick exceeds the budget
+     * or while a game is moving players into its world.
+     */
+    private boolean isServerIdle() {
+        if (averageTickNanos > tickBudgetNanos) {
+            return false;
+        }
+
+        GameManager gameManager = plugin.getGameManager();
+        if (gameManager != null) {
+            for (Game game : gameManager.getAllGames()) {
+                if (game.getState() == GameState.STARTING
+                        || game.getState() == GameState.PREGENERATING
+                        || game.getState() == GameState.TELEPORTING) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Creates the next dimension of the pending world, starting a new triple if needed.
+     * Each call creates at most one dimension so the generation cost is spread out.
+     */
+    private void runNextStage() {
+        if (pendingWorldName == null) {
+            pendingWorldName = worldManagementService.getWorldsFolder() + "/pool_" + System.currentTimeMillis();
+            pendingStage = 0;
+            worldJournal.record(pendingWorldName, WorldLifecycleState.CREATING);
+        }
+
+        // The nether and end of a lazily created world are generated when a portal is first used
+        if (worldManagementService.isLazyDimensions() && (pendingStage == 1 || pendingStage == 2)) {
+            pendingStage = 3;
+        }
+
+        final String baseName = pendingWorldName;
+        switch (pendingStage) {
+            case 0:
+                runDimensionStage(baseName, baseName, World.Environment.NORMAL);
+                break;
+            case 1:
+                runDimensionStage(baseName, baseName + "_nether", World.Environment.NETHER);
+                break;
+            case 2:
+                runDimensionStage(baseName, baseName + "_the_end", World.Environment.THE_END);
+                break;
+            case 3:
+                worldManagementService.createWorldGroup(baseName);
+                if (worldManagementService.isWorldResetEnabled()) {
+                    pendingStage++;
+                } else {
+                    finishPendingWorld(baseName);
+                }
+                break;
+            default:
+                // Snapshot the world so it can be reset and returned to the pool after its game
+                stageInProgress = true;
+                worldManagementService.takeSnapshot(baseName).thenAccept(captured ->
+                    scheduler.runTask(() -> {
+                        stageInProgress = false;
+                        if (!baseName.equals(pendingWorldName)) {
+                            return;
+                        }
+                        if (captured) {
+                            finishPendingWorld(baseName);
+                        } else {
+                            // A world without a snapshot can't be reset after its game, so it isn't pooled
+                            logger.warning("Could not snapshot pooled world '" + baseName + "', deleting it");
+                            pendingWorldName = null;
+                            worldManagementService.deleteWorld(baseName);
+                        }
+                    }));
+                break;
+        }
+    }
+
+    /**
+     * Moves the pending world into the pool once all of its stages are done.
+     */
+    private void finishPendingWorld(String baseName) {
+        World world = Bukkit.getWorld(baseName);
+        if (world != null) {
+            worldJournal.record(baseName, WorldLifecycleState.POOLED);
+            readyWorlds.addLast(world);
+            logger.info("Pooled world '" + baseName + "' is ready (" + readyWorlds.size() + "/" + poolSize + ")");
+        }
+        pendingWorldName = null;
+    }
+
+    /**
+     * Creates one dimension of a pooled world and advances the stage when it succeeds.
+     */
+    private void runDimensionStage(String baseName, String worldName, World.Environment environment) {
+        stageInProgress = true;
+        worldManagementService.createDimension(worldName, environment).thenAccept(world -> {
+            stageInProgress = false;
+            if (!baseName.equals(pendingWorldName)) {
+                return;
+            }
+
+            if (world != null) {
+                pendingStage++;
+            } else {
+                // Abandon this triple and remove whatever was already generated
+                logger.warning("Giving up on pooled world '" + baseName + "'");
+                pendingWorldName = null;
+                worldManagementService.deleteWorld(baseName);
+            }
+        });
+    }
+}
@@ -0,0 +1,198 @@
+package com.thefallersgames.bettermanhunt.tasks;
+
+import com.thefallersgames.bettermanhunt.Plugin;
+import com.thefallersgames.bettermanhunt.models.Game;
+import com.thefallersgames.bettermanhunt.models.GameState;
+import com.thefallersgames.bettermanhunt.services.ChunkTicketService;
+import com.thefallersgames.bettermanhunt.utils.PaperSupport;
+import org.bukkit.World;
+import org.bukkit.boss.BossBar;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Task that generates and loads the chunks around a game's spawn before players are released.
+ * Chunks are visited in a spiral starting at the spawn chunk, and each run only spends
+ * a limited amount of time so other games keep ticking smoothly.
+ * On Paper, chunks are generated asynchronously with a limited number of requests in flight.
+ * Generated chunks stay loaded through the plugin's chunk ticket ledger until the task releases them.
+ * If the game moves on or the task is aborted first, the chunk tickets taken so far are released
+ * and the cancellation callback runs instead of the completion callback.
+ */
+public class ChunkPregenTask extends RepeatingTask {
+    // Maximum number of asynchronous chunk loads waiting at the same time
+    private static final int MAX_ASYNC_REQUESTS = 16;
+
+    private final ChunkTicketService chunkTicketService;
+    private final Game game;
+    private final World world;
+    private final BossBar bossBar;
+    private final Runnable onComplete;
+    private final Runnable onCancel;
+    private final long budgetNanos;
+    private final int centerX;
+    private final int centerZ;
+    private final int totalChunks;
+
+    // Spiral state, relative to the center chunk
+    private int offsetX = 0;
+    private int offsetZ = 0;
+    private int directionX = 0;
+    private int directionZ = -1;
+    private int processedChunks = 0;
+    private int requestedChunks = 0;
+    private int pendingRequests = 0;
+    private boolean finished = false;
+
+    // Chunks this task holds a ticket for, as {x, z}
+    private final List<int[]> ticketedChunks = new ArrayList<>();
+
+    /**
+     * Creates a new chunk pre-generation task.
+     *
+     * @param plugin The plugin instance
+     * @param game The game whose spawn area is being generated
+     * @param radius The radius in chunks around the spawn chunk
+     * @param budgetMillis The maximum time in milliseconds to spend per tick
+     * @param bossBar The boss bar to show progress on (can be null)
+     * @param onComplete Runnable to execute once every chunk has been generated
+     * @param onCancel Runnable to execute if generation stops before every chunk has been generated
+     */
+    public ChunkPregenTask(Plugin plugin, Game game, int radius, long budgetMillis, BossBar bossBar,
+                           Runnable onComplete, Runnable onCancel) {
+        this.chunkTicketService = plugin.getChunkTicketService();
+        this.game = game;
+        this.world = game.getSpawnLocation().getWorld();
+        this.bossBar = bossBar;
+        this.onComplete = onComplete;
+        this.onCancel = onCancel;
+        this.budgetNanos = Math.max(1L, budgetMillis) * 1_000_000L;
+        this.centerX = game.getSpawnLocation().getBlockX() >> 4;
+        this.centerZ = game.getSpawnLocation().getBlockZ() >> 4;
+
+        int side = radius * 2 + 1;
+        this.totalChunks = side * side;
+    }
+
+    @Override
+    public void run() {
+        // Stop if the game was deleted or changed state while we were generating
+        if (game.getState() != GameState.PREGENERATING) {
+            abort();
+            return;
+        }
+
+        long deadline = System.nanoTime() + budgetNanos;
+        if (PaperSupport.isPaper()) {
+            requestChunksAsync(deadline);
+        } else {
+            while (processedChunks < totalChunks && System.nanoTime() < deadline) {
+                int chunkX = centerX + offsetX;
+                int chunkZ = centerZ + offsetZ;
+
+                // Loading the chunk generates it if needed; the ticket keeps it loaded until release
+                world.getChunkAt(chunkX, chunkZ);
+                addTicket(chunkX, chunkZ);
+
+                processedChunks++;
+                requestedChunks++;
+                advanceSpiral();
+            }
+        }
+
+        double progress = processedChunks / (double) totalChunks;
+        if (bossBar != null) {
+            bossBar.setProgress(Math.max(0.0, Math.min(1.0, progress)));
+            bossBar.setTitle("Game starting - Generating terrain... " + (int) (progress * 100) + "%");
+        }
+
+        if (processedChunks >= totalChunks) {
+            finished = true;
+            this.cancel();
+            onComplete.run();
+        }
+    }
+
+    /**
+     * Stops generating before every chunk has been generated, releases the chunk tickets taken
+     * so far and runs the cancellation callback. Does nothing if the task has already finished.
+     */
+    public void abort() {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        this.cancel();
+
+        releaseTickets();
+        onCancel.run();
+    }
+
+    /**
+     * Releases the chunk tickets this task took, so the server can unload the spawn area again.
+     * Chunks that queued teleports still hold stay loaded until those are done.
+     */
+    public void releaseTickets() {
+        for (int[] chunk : ticketedChunks) {
+            chunkTicketService.release(world, chunk[0], chunk[1]);
+        }
+        ticketedChunks.clear();
+    }
+
+    /**
+     * Requests the next chunks of the spiral from Paper's asynchronous chunk loading,
+     * keeping at most {@link #MAX_ASYNC_REQUESTS} requests waiting.
+     */
+    private void requestChunksAsync(long deadline) {
+        while (requestedChunks < totalChunks && pendingRequests < MAX_ASYNC_REQUESTS && System.nanoTime() < deadline) {
+            int chunkX = centerX + offsetX;
+            int chunkZ = centerZ + offsetZ;
+
+            pendingRequests++;
+            requestedChunks++;
+            PaperSupport.getChunkAt(world, chunkX, chunkZ).whenComplete((chunk, error) -> {
+                pendingRequests--;
+                processedChunks++;
+
+                // The ticket keeps the chunk loaded until release, unless generation was aborted
+                if (error == null && !finished) {
+                    addTicket(chunkX, chunkZ);
+                }
+            });
+            advanceSpiral();
+        }
+    }
+
+    /**
+     * Keeps a generated chunk loaded until the pre-generated chunks are released.
+     */
+    private void addTicket(int chunkX, int chunkZ) {
+        chunkTicketService.acquire(world, chunkX, chunkZ);
+        ticketedChunks.add(new int[] {chunkX, chunkZ});
+    }
+
+    /**
+     * Moves to the next chunk of a square spiral around the center.
+     */
+    private void advanceSpiral() {
+        if (offsetX == offsetZ
+                || (offsetX < 0 && offsetX == -offsetZ)
+                || (offsetX > 0 && offsetX == 1 - offsetZ)) {
+            int previousDirectionX = directionX;
+            directionX = -directionZ;
+            directionZ = previousDirectionX;
+        }
+        offsetX += directionX;
+        offsetZ += directionZ;
+    }
+
+    /**
+     * Gets the fraction of chunks that have been generated so far.
+     *
+     * @return The progress between 0.0 and 1.0
+     */
+    public double getProgress() {
+        return processedChunks / (double) totalChunks;
+    }
+}
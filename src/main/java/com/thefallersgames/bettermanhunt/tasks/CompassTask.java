@@ -2,15 +2,15 @@ package com.thefallersgames.bettermanhunt.tasks;
 
 import com.thefallersgames.bettermanhunt.Plugin;
 import com.thefallersgames.bettermanhunt.models.Game;
+import com.thefallersgames.bettermanhunt.models.PluginItem;
+import com.thefallersgames.bettermanhunt.services.ItemClassifier;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
-import org.bukkit.NamespacedKey;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemFlag;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
-import org.bukkit.persistence.PersistentDataType;
 
 import java.util.Arrays;
 import java.util.UUID;
@@ -21,7 +21,7 @@ import java.util.UUID;
  */
 public class CompassTask {
     private final Game game;
-    private final NamespacedKey trackerKey;
+    private final ItemClassifier itemClassifier;
     
     /**
      * Creates a new compass tracking manager.
@@ -31,7 +31,7 @@ public class CompassTask {
      */
     public CompassTask(Plugin plugin, Game game) {
         this.game = game;
-        this.trackerKey = new NamespacedKey(plugin, "runner_tracker");
+        this.itemClassifier = plugin.getItemClassifier();
         
         // Give all hunters a tracking compass
         for (UUID hunterId : game.getHunters()) {
@@ -117,9 +117,7 @@ public class CompassTask {
         // Find compass in inventory
         for (int i = 0; i < hunter.getInventory().getSize(); i++) {
             ItemStack item = hunter.getInventory().getItem(i);
-            if (item != null && item.getType() == Material.COMPASS && 
-                    item.getItemMeta() != null && 
-                    item.getItemMeta().getPersistentDataContainer().has(trackerKey, PersistentDataType.BYTE)) {
+            if (isTrackingCompass(item)) {
                 compass = item;
                 slot = i;
                 break;
@@ -177,8 +175,8 @@ public class CompassTask {
                 "§cThis compass cannot be dropped or transferred."
             ));
             
-            // Make it undroppable by adding an NBT tag
-            meta.getPersistentDataContainer().set(trackerKey, PersistentDataType.BYTE, (byte) 1);
+            // Tag it as the tracking compass, which can't be dropped or moved
+            itemClassifier.tag(meta, PluginItem.TRACKING_COMPASS);
             
             // Add item flags to make it look special
             meta.addItemFlags(ItemFlag.HIDE_ATTRIBUTES);
@@ -200,24 +198,6 @@ public class CompassTask {
      * @return True if it's a tracking compass, false otherwise
      */
     public boolean isTrackingCompass(ItemStack item) {
-        if (item == null || item.getType() != Material.COMPASS) {
-            return false;
-        }
-        
-        ItemMeta meta = item.getItemMeta();
-        if (meta == null) {
-            return false;
-        }
-        
-        return meta.getPersistentDataContainer().has(trackerKey, PersistentDataType.BYTE);
-    }
-    
-    /**
-     * Gets the tracker key used to identify tracking compasses.
-     * 
-     * @return The NamespacedKey for tracker compasses
-     */
-    public NamespacedKey getTrackerKey() {
-        return trackerKey;
+        return itemClassifier.is(item, PluginItem.TRACKING_COMPASS);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,191 @@
+package com.thefallersgames.bettermanhunt.tasks;
+
+import com.thefallersgames.bettermanhunt.models.GameCleanup;
+import com.thefallersgames.bettermanhunt.models.GameCleanup.Stage;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+
+/**
+ * Task that runs the stages of queued game cleanups.
+ * Players are restored in batches shared by every queued game, so games that end together are
+ * spread over several ticks instead of restoring all of their players at once. A game's
+ * registration, boss bar and world are only torn down once every one of its players is restored.
+ * The task stops itself when the queue is empty.
+ */
+public class GameCleanupTask extends RepeatingTask {
+    private final Logger logger;
+    private final Steps steps;
+    private final int maxPlayersPerTick;
+    private final long budgetNanos;
+    private final List<GameCleanup> cleanups = new ArrayList<>();
+
+    /**
+     * Creates a new game cleanup task.
+     *
+     * @param logger The logger to report stage timings to
+     * @param steps The work done in each stage
+     * @param maxPlayersPerTick The maximum number of players restored per tick, over all games
+     * @param budgetMillis The time per tick spent on cleanups, in milliseconds
+     */
+    public GameCleanupTask(Logger logger, Steps steps, int maxPlayersPerTick, long budgetMillis) {
+        this.logger = logger;
+        this.steps = steps;
+        this.maxPlayersPerTick = Math.max(1, maxPlayersPerTick);
+        this.budgetNanos = Math.max(1L, budgetMillis) * 1_000_000L;
+    }
+
+    /**
+     * Queues a cleanup. It starts on the next run.
+     *
+     * @param cleanup The cleanup
+     */
+    public void add(GameCleanup cleanup) {
+        cleanups.add(cleanup);
+    }
+
+    /**
+     * Checks whether a game's cleanup is queued.
+     *
+     * @param gameName The name of the game
+     * @return True if the game is being cleaned up
+     */
+    public boolean contains(String gameName) {
+        for (GameCleanup cleanup : cleanups) {
+            if (cleanup.getGameName().equals(gameName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void run() {
+        long deadline = System.nanoTime() + budgetNanos;
+        int playerBudget = maxPlayersPerTick;
+
+        // Cleanups are advanced in queue order; one that is waiting for its restores lets the next one go on
+        Iterator<GameCleanup> iterator = cleanups.iterator();
+        while (iterator.hasNext() && playerBudget > 0 && System.nanoTime() < deadline) {
+            GameCleanup cleanup = iterator.next();
+            playerBudget -= advance(cleanup, playerBudget, deadline, true);
+            if (cleanup.isFinished()) {
+                iterator.remove();
+                report(cleanup);
+            }
+        }
+
+        if (cleanups.isEmpty()) {
+            cancel();
+        }
+    }
+
+    /**
+     * Runs every queued cleanup to the end right away, without waiting for restores.
+     * Used while the plugin is disabling, when no further ticks will run.
+     */
+    public void completeAll() {
+        for (GameCleanup cleanup : cleanups) {
+            advance(cleanup, Integer.MAX_VALUE, Long.MAX_VALUE, false);
+            report(cleanup);
+        }
+        cleanups.clear();
+        cancel();
+    }
+
+    /**
+     * Advances a cleanup through as many stages as the budgets allow.
+     *
+     * @return The number of players restored
+     */
+    private int advance(GameCleanup cleanup, int playerBudget, long deadline, boolean waitForRestores) {
+        int restored = 0;
+
+        while (!cleanup.isFinished() && System.nanoTime() < deadline) {
+            Stage stage = cleanup.getStage();
+            long start = System.nanoTime();
+            boolean stageDone;
+
+            if (stage == Stage.RESTORE) {
+                while (!cleanup.getPendingPlayers().isEmpty() && restored < playerBudget && System.nanoTime() < deadline) {
+                    UUID playerId = cleanup.getPendingPlayers().poll();
+                    CompletableFuture<Boolean> restore = steps.restorePlayer(cleanup, playerId);
+                    if (restore != null) {
+                        cleanup.addRestore(restore);
+                        restored++;
+                    }
+                }
+                // The world must not be torn down while players are still being teleported out of it
+                stageDone = cleanup.getPendingPlayers().isEmpty() && (!waitForRestores || cleanup.areRestoresDone());
+            } else {
+                switch (stage) {
+                    case UNREGISTER:
+                        steps.unregister(cleanup);
+                        break;
+                    case BOSS_BAR:
+                        steps.removeBossBar(cleanup);
+                        break;
+                    default:
+                        steps.tearDownWorld(cleanup);
+                        break;
+                }
+                stageDone = true;
+            }
+
+            cleanup.recordTick(stage, System.nanoTime() - start);
+            if (!stageDone) {
+                break;
+            }
+            cleanup.nextStage();
+        }
+
+        return restored;
+    }
+
+    /**
+     * Logs how long each stage of a finished cleanup took.
+     */
+    private void report(GameCleanup cleanup) {
+        long total = System.currentTimeMillis() - cleanup.getStartTime();
+        logger.info("Cleaned up game '" + cleanup.getGameName() + "' in " + total + "ms (" + cleanup.formatTimings() + ")");
+    }
+
+    /**
+     * The work done in each stage of a game cleanup.
+     */
+    public interface Steps {
+        /**
+         * Takes a player out of the game and restores their state.
+         *
+         * @param cleanup The cleanup
+         * @param playerId The player
+         * @return The restore, or null if there was nothing to restore
+         */
+        CompletableFuture<Boolean> restorePlayer(GameCleanup cleanup, UUID playerId);
+
+        /**
+         * Removes the game from the registry and everything that lists it.
+         *
+         * @param cleanup The cleanup
+         */
+        void unregister(GameCleanup cleanup);
+
+        /**
+         * Stops the game's tasks and removes its boss bar.
+         *
+         * @param cleanup The cleanup
+         */
+        void removeBossBar(GameCleanup cleanup);
+
+        /**
+         * Resets or deletes the game's world if it was generated for the game.
+         *
+         * @param cleanup The cleanup
+         */
+        void tearDownWorld(GameCleanup cleanup);
+    }
+}
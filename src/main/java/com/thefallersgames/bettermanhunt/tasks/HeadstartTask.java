@@ -7,14 +7,13 @@ import com.thefallersgames.bettermanhunt.services.GameTaskService;
 import org.bukkit.Bukkit;
 import org.bukkit.boss.BossBar;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.UUID;
 
 /**
  * Task that handles the headstart countdown for hunters.
  */
-public class HeadstartTask extends BukkitRunnable {
+public class HeadstartTask extends RepeatingTask {
     private final Game game;
     private final BossBar bossBar;
     private int timeLeft;
@@ -0,0 +1,65 @@
+package com.thefallersgames.bettermanhunt.tasks;
+
+import com.thefallersgames.bettermanhunt.services.SchedulerService;
+import org.bukkit.Location;
+
+/**
+ * Base class for tasks that run repeatedly until they cancel themselves.
+ * Tasks are started through the scheduler service, so they run on the main thread on Paper and Spigot
+ * and on the global region, or the region of a location, on Folia.
+ */
+public abstract class RepeatingTask implements Runnable {
+    private SchedulerService.Task handle;
+    private boolean cancelled = false;
+
+    /**
+     * Starts running the task on the global scheduler.
+     *
+     * @param scheduler The scheduler service
+     * @param delayTicks The delay before the first run in ticks
+     * @param periodTicks The time between runs in ticks
+     */
+    public void runTaskTimer(SchedulerService scheduler, long delayTicks, long periodTicks) {
+        handle = scheduler.runTaskTimer(this::runIfActive, delayTicks, periodTicks);
+    }
+
+    /**
+     * Starts running the task on the thread that owns a location.
+     *
+     * @param scheduler The scheduler service
+     * @param location The location whose region runs the task
+     * @param delayTicks The delay before the first run in ticks
+     * @param periodTicks The time between runs in ticks
+     */
+    public void runTaskTimerAt(SchedulerService scheduler, Location location, long delayTicks, long periodTicks) {
+        handle = scheduler.runAtLocationTimer(location, this::runIfActive, delayTicks, periodTicks);
+    }
+
+    /**
+     * Stops the task. It won't run again.
+     */
+    public void cancel() {
+        cancelled = true;
+        if (handle != null) {
+            handle.cancel();
+        }
+    }
+
+    /**
+     * Checks whether the task was cancelled.
+     *
+     * @return True if the task was cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Runs the task unless it was cancelled since it was last scheduled.
+     */
+    private void runIfActive() {
+        if (!cancelled) {
+            run();
+        }
+    }
+}
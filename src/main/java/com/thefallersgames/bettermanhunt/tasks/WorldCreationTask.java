@@ -0,0 +1,166 @@
+package com.thefallersgames.bettermanhunt.tasks;
+
+import com.thefallersgames.bettermanhunt.models.WorldCreation;
+import com.thefallersgames.bettermanhunt.models.WorldCreation.Stage;
+import com.thefallersgames.bettermanhunt.services.WorldManagementService;
+import org.bukkit.World;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+
+/**
+ * Task that runs the stages of a world creation one at a time.
+ * The task may run all stages, or a single dimension that is created on demand.
+ * The overworld is created right away, since the game is waiting for it. Later stages only
+ * start while the average tick stays within the budget, so the generation of the nether and
+ * end is spread out instead of stalling an already busy server.
+ */
+public class WorldCreationTask extends RepeatingTask {
+    private final Logger logger;
+    private final WorldManagementService worldManagementService;
+    private final WorldCreation creation;
+    private final List<Stage> stages;
+    private final Runnable onFinish;
+    private final long budgetNanos;
+    private final int maxWaitTicks;
+
+    private int stageIndex = 0;
+    private boolean stageInProgress = false;
+    private boolean failed = false;
+    private long lastRunNanos;
+    private double averageTickNanos = 50_000_000.0;
+    private int waitedTicks = 0;
+
+    /**
+     * Creates a new world creation task.
+     *
+     * @param logger The logger to report stage timings to
+     * @param worldManagementService The service that creates the dimensions
+     * @param creation The world creation to advance
+     * @param stages The stages to run, in order
+     * @param budgetMillis Stages after the overworld only start while the average tick takes at most this many milliseconds
+     * @param maxWaitTicks The maximum number of ticks to wait for the average tick to drop within the budget
+     * @param onFinish Runnable to execute right before the creation's ready future completes
+     */
+    public WorldCreationTask(Logger logger, WorldManagementService worldManagementService, WorldCreation creation,
+                             List<Stage> stages, long budgetMillis, int maxWaitTicks, Runnable onFinish) {
+        this.logger = logger;
+        this.worldManagementService = worldManagementService;
+        this.creation = creation;
+        this.stages = stages;
+        this.onFinish = onFinish;
+        this.budgetNanos = Math.max(1L, budgetMillis) * 1_000_000L;
+        this.maxWaitTicks = Math.max(0, maxWaitTicks);
+        this.lastRunNanos = System.nanoTime();
+    }
+
+    @Override
+    public void run() {
+        long now = System.nanoTime();
+        long tickNanos = now - lastRunNanos;
+        lastRunNanos = now;
+
+        // Exponential moving average over roughly the last 20 ticks, like the world pool uses
+        averageTickNanos += (tickNanos - averageTickNanos) / 20.0;
+
+        if (stageInProgress) {
+            return;
+        }
+
+        if (failed || creation.isCancelled() || stageIndex >= stages.size()) {
+            finish();
+            return;
+        }
+
+        // Wait for lighter ticks, but never delay the overworld and never starve the creation
+        Stage stage = stages.get(stageIndex);
+        if (stage != Stage.OVERWORLD && averageTickNanos > budgetNanos && waitedTicks < maxWaitTicks) {
+            waitedTicks++;
+            return;
+        }
+        waitedTicks = 0;
+
+        runStage(stage);
+    }
+
+    /**
+     * Starts a single stage. Dimension stages complete asynchronously; the next
+     * stage is picked up by a later run once the current one has finished.
+     */
+    private void runStage(Stage stage) {
+        String baseName = creation.getBaseWorldName();
+        long start = System.currentTimeMillis();
+
+        if (stage == Stage.INVENTORY_GROUP) {
+            worldManagementService.createWorldGroup(baseName);
+            creation.recordStage(stage, System.currentTimeMillis() - start);
+            stageIndex++;
+            return;
+        }
+
+        String worldName;
+        World.Environment environment;
+        switch (stage) {
+            case NETHER:
+                worldName = baseName + "_nether";
+                environment = World.Environment.NETHER;
+                break;
+            case END:
+                worldName = baseName + "_the_end";
+                environment = World.Environment.THE_END;
+                break;
+            default:
+                worldName = baseName;
+                environment = World.Environment.NORMAL;
+                break;
+        }
+
+        stageInProgress = true;
+        worldManagementService.createDimension(worldName, environment).thenAccept(world -> {
+            creation.recordStage(stage, System.currentTimeMillis() - start);
+            creation.getDimension(stage).complete(world);
+            if (world == null) {
+                failed = true;
+            }
+            stageIndex++;
+            stageInProgress = false;
+        });
+    }
+
+    /**
+     * Stops the task, resolves the futures of stages that never ran and reports the timings.
+     * The creation's ready future completes with true only if every stage of this task succeeded.
+     */
+    private void finish() {
+        this.cancel();
+
+        for (Stage stage : stages) {
+            CompletableFuture<World> dimension = creation.getDimension(stage);
+            if (dimension != null) {
+                dimension.complete(null);
+            }
+        }
+
+        boolean ready = !failed && !creation.isCancelled() && stageIndex >= stages.size();
+
+        StringBuilder timings = new StringBuilder();
+        for (Map.Entry<Stage, Long> entry : creation.getStageTimings().entrySet()) {
+            if (timings.length() > 0) {
+                timings.append(", ");
+            }
+            timings.append(entry.getKey().name().toLowerCase()).append(' ').append(entry.getValue()).append("ms");
+        }
+        long total = System.currentTimeMillis() - creation.getStartTime();
+
+        if (ready) {
+            logger.info("Finished creating world '" + creation.getBaseWorldName() + "' in " + total + "ms (" + timings + ")");
+        } else {
+            logger.warning("Creation of world '" + creation.getBaseWorldName() + "' stopped after " + total + "ms (" + timings + ")");
+        }
+
+        onFinish.run();
+        creation.getReady().complete(ready);
+    }
+}
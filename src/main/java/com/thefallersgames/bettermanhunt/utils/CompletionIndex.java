@@ -0,0 +1,66 @@
+package com.thefallersgames.bettermanhunt.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * A sorted index of names for tab completion.
+ * Names are kept sorted by their lower case form, so the names starting with a prefix form one
+ * contiguous range that is found with a single lookup instead of testing every name.
+ * Names that only differ in case are kept side by side.
+ * Must only be used on the main thread.
+ */
+public class CompletionIndex {
+    // Lower case name, a NUL separator and the exact name -> name as it is shown
+    private final NavigableMap<String, String> names = new TreeMap<>();
+
+    /**
+     * Adds a name.
+     *
+     * @param name The name
+     */
+    public void add(String name) {
+        names.put(key(name), name);
+    }
+
+    /**
+     * Removes a name.
+     *
+     * @param name The name, exactly as it was added
+     */
+    public void remove(String name) {
+        names.remove(key(name));
+    }
+
+    /**
+     * Gets the names that start with a prefix, ignoring case, in alphabetical order.
+     * Names that only differ in case are ordered by their exact form.
+     *
+     * @param prefix The prefix
+     * @return The matching names
+     */
+    public List<String> complete(String prefix) {
+        String from = prefix.toLowerCase(Locale.ROOT);
+        return new ArrayList<>(names.subMap(from, true, from + Character.MAX_VALUE, false).values());
+    }
+
+    /**
+     * Gets the number of names in the index.
+     *
+     * @return The number of names
+     */
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * Gets the key of a name. It starts with the lower case name, so it sorts and matches prefixes
+     * ignoring case, and ends with the exact name, so names that only differ in case don't collide.
+     */
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT) + '\0' + name;
+    }
+}
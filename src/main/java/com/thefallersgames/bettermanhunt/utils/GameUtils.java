@@ -2,8 +2,9 @@ package com.thefallersgames.bettermanhunt.utils;
 
 import com.thefallersgames.bettermanhunt.Plugin;
 import com.thefallersgames.bettermanhunt.models.Game;
+import com.thefallersgames.bettermanhunt.models.PluginItem;
+import com.thefallersgames.bettermanhunt.services.ItemClassifier;
 import org.bukkit.ChatColor;
-import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 
@@ -31,14 +32,16 @@ public class GameUtils {
     }
     
     /**
-     * Checks if a player has a compass in their inventory.
+     * Checks if a player has a tracking compass in their inventory.
+     * Vanilla compasses and other plugin items made from a compass don't count.
      *
      * @param player The player to check
-     * @return True if the player has a compass, false otherwise
+     * @param itemClassifier The classifier that recognises plugin items
+     * @return True if the player has a tracking compass, false otherwise
      */
-    public static boolean hasCompass(Player player) {
+    public static boolean hasTrackingCompass(Player player, ItemClassifier itemClassifier) {
         for (ItemStack item : player.getInventory().getContents()) {
-            if (item != null && item.getType() == Material.COMPASS) {
+            if (itemClassifier.is(item, PluginItem.TRACKING_COMPASS)) {
                 return true;
             }
         }
@@ -57,6 +60,8 @@ public class GameUtils {
                 return ChatColor.GREEN + "LOBBY";
             case STARTING:
                 return ChatColor.YELLOW + "STARTING";
+            case PREGENERATING:
+                return ChatColor.YELLOW + "PREGENERATING";
             case TELEPORTING:
                 return ChatColor.YELLOW + "TELEPORTING";
             case HEADSTART:
@@ -0,0 +1,108 @@
+package com.thefallersgames.bettermanhunt.utils;
+
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * A GUI inventory together with the action of each of its slots.
+ * The menu is the holder of its inventory, so a click is routed by looking up the clicked slot
+ * in the menu's action table, without reading the clicked item.
+ */
+public class GuiMenu implements InventoryHolder {
+    private final Inventory inventory;
+    private final ClickAction[] actions;
+
+    /**
+     * Creates a bordered menu.
+     *
+     * @param title The title, with '&' color codes
+     * @param size The size (must be a multiple of 9)
+     * @param borderMaterial The material to use for the border
+     */
+    public GuiMenu(String title, int size, Material borderMaterial) {
+        this.inventory = Bukkit.createInventory(this, size, ChatColor.translateAlternateColorCodes('&', title));
+        this.actions = new ClickAction[size];
+        GuiUtil.drawBorder(inventory, borderMaterial);
+    }
+
+    /**
+     * Places an item that does something when clicked.
+     *
+     * @param slot The slot
+     * @param item The item
+     * @param action The action to run when the slot is clicked
+     */
+    public void setItem(int slot, ItemStack item, ClickAction action) {
+        inventory.setItem(slot, item);
+        actions[slot] = action;
+    }
+
+    /**
+     * Places an item that does nothing when clicked.
+     *
+     * @param slot The slot
+     * @param item The item
+     */
+    public void setItem(int slot, ItemStack item) {
+        setItem(slot, item, null);
+    }
+
+    /**
+     * Sets what a slot does when clicked, leaving its item as it is.
+     *
+     * @param slot The slot
+     * @param action The action, or null for none
+     */
+    public void setAction(int slot, ClickAction action) {
+        actions[slot] = action;
+    }
+
+    /**
+     * Runs the action of a clicked slot.
+     *
+     * @param player The player who clicked
+     * @param rawSlot The raw slot of the click; slots outside the menu are ignored
+     */
+    public void click(Player player, int rawSlot) {
+        if (rawSlot < 0 || rawSlot >= actions.length) {
+            return;
+        }
+
+        ClickAction action = actions[rawSlot];
+        if (action != null) {
+            action.onClick(player);
+        }
+    }
+
+    /**
+     * Opens the menu for a player.
+     *
+     * @param player The player
+     */
+    public void open(Player player) {
+        player.openInventory(inventory);
+    }
+
+    @Override
+    public Inventory getInventory() {
+        return inventory;
+    }
+
+    /**
+     * What a menu slot does when clicked.
+     */
+    @FunctionalInterface
+    public interface ClickAction {
+        /**
+         * Runs the action.
+         *
+         * @param player The player who clicked
+         */
+        void onClick(Player player);
+    }
+}
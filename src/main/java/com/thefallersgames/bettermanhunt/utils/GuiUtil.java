@@ -91,8 +91,18 @@ public class GuiUtil {
      */
     public static Inventory createBorderedGui(String title, int size, Material borderMaterial) {
         Inventory inv = createGui(title, size);
-        
-        // Create border
+        drawBorder(inv, borderMaterial);
+        return inv;
+    }
+    
+    /**
+     * Draws a border around the edge of an inventory.
+     *
+     * @param inv The inventory
+     * @param borderMaterial The material to use for the border
+     */
+    public static void drawBorder(Inventory inv, Material borderMaterial) {
+        int size = inv.getSize();
         for (int i = 0; i < size; i++) {
             // Top and bottom rows
             if (i < 9 || i >= size - 9) {
@@ -103,7 +113,5 @@ public class GuiUtil {
                 inv.setItem(i, createItem(borderMaterial, " "));
             }
         }
-        
-        return inv;
     }
 } 
\ No newline at end of file
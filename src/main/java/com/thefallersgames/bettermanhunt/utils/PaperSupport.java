@@ -0,0 +1,82 @@
+package com.thefallersgames.bettermanhunt.utils;
+
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Access to Paper's asynchronous teleport and chunk loading API.
+ * The Paper methods are looked up at runtime, so the plugin keeps building against the Spigot API
+ * and falls back to the synchronous Spigot calls when it runs on a server without them.
+ */
+public class PaperSupport {
+    private static final Method TELEPORT_ASYNC = findMethod(Entity.class, "teleportAsync", Location.class);
+    private static final Method GET_CHUNK_AT_ASYNC = findMethod(World.class, "getChunkAtAsync", int.class, int.class);
+
+    /**
+     * Checks whether the server provides Paper's asynchronous teleport and chunk loading.
+     *
+     * @return True when running on Paper
+     */
+    public static boolean isPaper() {
+        return TELEPORT_ASYNC != null && GET_CHUNK_AT_ASYNC != null;
+    }
+
+    /**
+     * Teleports an entity. On Paper the destination chunk is loaded or generated off the main thread
+     * first; otherwise the entity is teleported synchronously.
+     * Must be called on the main thread.
+     *
+     * @param entity The entity to teleport
+     * @param location The destination
+     * @return A CompletableFuture that completes on the main thread with true if the entity was teleported
+     */
+    @SuppressWarnings("unchecked")
+    public static CompletableFuture<Boolean> teleport(Entity entity, Location location) {
+        if (TELEPORT_ASYNC != null) {
+            try {
+                return (CompletableFuture<Boolean>) TELEPORT_ASYNC.invoke(entity, location);
+            } catch (ReflectiveOperationException e) {
+                // Fall through to the synchronous teleport
+            }
+        }
+        return CompletableFuture.completedFuture(entity.teleport(location));
+    }
+
+    /**
+     * Loads a chunk, generating it if needed. On Paper the chunk is loaded off the main thread;
+     * otherwise it is loaded synchronously.
+     * Must be called on the main thread.
+     *
+     * @param world The world of the chunk
+     * @param chunkX The chunk X coordinate
+     * @param chunkZ The chunk Z coordinate
+     * @return A CompletableFuture that completes on the main thread with the loaded chunk
+     */
+    @SuppressWarnings("unchecked")
+    public static CompletableFuture<Chunk> getChunkAt(World world, int chunkX, int chunkZ) {
+        if (GET_CHUNK_AT_ASYNC != null) {
+            try {
+                return (CompletableFuture<Chunk>) GET_CHUNK_AT_ASYNC.invoke(world, chunkX, chunkZ);
+            } catch (ReflectiveOperationException e) {
+                // Fall through to the synchronous load
+            }
+        }
+        return CompletableFuture.completedFuture(world.getChunkAt(chunkX, chunkZ));
+    }
+
+    /**
+     * Looks up a public method, returning null when the server doesn't have it.
+     */
+    private static Method findMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            return type.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.thefallersgames.bettermanhunt.utils;
+
+import com.thefallersgames.bettermanhunt.models.PlayerState;
+import com.thefallersgames.bettermanhunt.models.StoredLocation;
+import org.bukkit.GameMode;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.util.io.BukkitObjectInputStream;
+import org.bukkit.util.io.BukkitObjectOutputStream;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compact binary encoding of player states.
+ * Only occupied item slots are written, together with their slot index, so a mostly empty
+ * inventory or ender chest takes a few bytes. Numbers are written as raw binary values, and
+ * everything after the version header is deflate-compressed.
+ * Locations keep their world by name, so both directions are safe to run off the main thread.
+ */
+public class PlayerStateCodec {
+    private static final int FORMAT_VERSION = 2;
+
+    /**
+     * Encodes a player state. Safe to call off the main thread on a captured state.
+     *
+     * @param state The state to encode
+     * @param output The stream to write to; it is not closed
+     * @throws IOException If the state could not be written
+     */
+    public static void encode(PlayerState state, OutputStream output) throws IOException {
+        DataOutputStream header = new DataOutputStream(output);
+        header.writeInt(FORMAT_VERSION);
+        header.flush();
+
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            DeflaterOutputStream compressed = new DeflaterOutputStream(output, deflater);
+            BukkitObjectOutputStream out = new BukkitObjectOutputStream(new BufferedOutputStream(compressed));
+
+            out.writeUTF(state.getGameMode().name());
+            writeLocation(out, state.getLocation());
+            writeLocation(out, state.getBedSpawn());
+
+            out.writeInt(state.getLevel());
+            out.writeFloat(state.getExp());
+            out.writeInt(state.getTotalExperience());
+            out.writeDouble(state.getHealth());
+            out.writeInt(state.getFoodLevel());
+            out.writeFloat(state.getSaturation());
+            out.writeFloat(state.getExhaustion());
+
+            out.writeShort(state.getPotionEffects().size());
+            for (PotionEffect effect : state.getPotionEffects()) {
+                out.writeObject(effect);
+            }
+
+            writeItems(out, state.getInventory());
+            writeItems(out, state.getEnderChest());
+
+            out.flush();
+            compressed.finish();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Decodes a player state written by {@link #encode(PlayerState, OutputStream)}.
+     * Worlds are not looked up, so this is safe to call off the main thread.
+     *
+     * @param input The stream to read from; it is not closed
+     * @return The decoded state
+     * @throws IOException If the data is not a valid player state, including truncated or corrupt data
+     */
+    public static PlayerState decode(InputStream input) throws IOException {
+        DataInputStream header = new DataInputStream(input);
+        int version = header.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported player state format " + version);
+        }
+
+        BukkitObjectInputStream in = new BukkitObjectInputStream(new BufferedInputStream(new InflaterInputStream(input)));
+        try {
+            GameMode gameMode = GameMode.valueOf(in.readUTF());
+            StoredLocation location = readLocation(in);
+            StoredLocation bedSpawn = readLocation(in);
+
+            int level = in.readInt();
+            float exp = in.readFloat();
+            int totalExperience = in.readInt();
+            double health = in.readDouble();
+            int foodLevel = in.readInt();
+            float saturation = in.readFloat();
+            float exhaustion = in.readFloat();
+
+            int effectCount = in.readShort();
+            List<PotionEffect> effects = new ArrayList<>(effectCount);
+            for (int i = 0; i < effectCount; i++) {
+                effects.add((PotionEffect) in.readObject());
+            }
+
+            ItemStack[] inventory = readItems(in);
+            ItemStack[] enderChest = readItems(in);
+
+            return new PlayerState(inventory, enderChest, gameMode, location, bedSpawn, level, exp,
+                    totalExperience, health, foodLevel, saturation, exhaustion, effects);
+        } catch (ClassNotFoundException | RuntimeException e) {
+            // A truncated or corrupt file can fail anywhere, e.g. with a negative length or a slot out of range
+            throw new IOException("Invalid player state", e);
+        }
+    }
+
+    /**
+     * Writes the occupied slots of an item array.
+     */
+    private static void writeItems(ObjectOutput out, ItemStack[] items) throws IOException {
+        int occupied = 0;
+        for (ItemStack item : items) {
+            if (item != null) {
+                occupied++;
+            }
+        }
+
+        out.writeShort(items.length);
+        out.writeShort(occupied);
+        for (int slot = 0; slot < items.length; slot++) {
+            if (items[slot] != null) {
+                out.writeShort(slot);
+                out.writeObject(items[slot]);
+            }
+        }
+    }
+
+    /**
+     * Reads an item array written by {@link #writeItems(ObjectOutput, ItemStack[])}.
+     */
+    private static ItemStack[] readItems(ObjectInput in) throws IOException, ClassNotFoundException {
+        ItemStack[] items = new ItemStack[in.readShort()];
+        int occupied = in.readShort();
+        for (int i = 0; i < occupied; i++) {
+            int slot = in.readShort();
+            items[slot] = (ItemStack) in.readObject();
+        }
+        return items;
+    }
+
+    /**
+     * Writes a location as its world name and coordinates, or a single flag if there is none.
+     */
+    private static void writeLocation(ObjectOutput out, StoredLocation location) throws IOException {
+        out.writeBoolean(location != null);
+        if (location != null) {
+            out.writeUTF(location.getWorldName());
+            out.writeDouble(location.getX());
+            out.writeDouble(location.getY());
+            out.writeDouble(location.getZ());
+            out.writeFloat(location.getYaw());
+            out.writeFloat(location.getPitch());
+        }
+    }
+
+    /**
+     * Reads a location written by {@link #writeLocation(ObjectOutput, StoredLocation)}.
+     */
+    private static StoredLocation readLocation(ObjectInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+
+        return new StoredLocation(in.readUTF(), in.readDouble(), in.readDouble(), in.readDouble(), in.readFloat(), in.readFloat());
+    }
+}
@@ -0,0 +1,39 @@
+package com.thefallersgames.bettermanhunt.utils;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.generator.ChunkGenerator;
+
+import java.util.Random;
+
+/**
+ * Chunk generator that produces completely empty chunks.
+ * Used for the shared lobby world, which only contains the lobby capsules.
+ */
+public class VoidChunkGenerator extends ChunkGenerator {
+    private final int spawnY;
+
+    /**
+     * Creates a new void chunk generator.
+     *
+     * @param spawnY The height of the world's fixed spawn location
+     */
+    public VoidChunkGenerator(int spawnY) {
+        this.spawnY = spawnY;
+    }
+
+    @Override
+    public ChunkData generateChunkData(World world, Random random, int chunkX, int chunkZ, BiomeGrid biome) {
+        return createChunkData(world);
+    }
+
+    @Override
+    public boolean canSpawn(World world, int x, int z) {
+        return true;
+    }
+
+    @Override
+    public Location getFixedSpawnLocation(World world, Random random) {
+        return new Location(world, 0.5, spawnY, 0.5);
+    }
+}
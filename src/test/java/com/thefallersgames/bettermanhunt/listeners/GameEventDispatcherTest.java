@@ -0,0 +1,143 @@
+package com.thefallersgames.bettermanhunt.listeners;
+
+import com.thefallersgames.bettermanhunt.listeners.GameEventDispatcher.GameContext;
+import com.thefallersgames.bettermanhunt.listeners.GameEventDispatcher.Routes;
+import com.thefallersgames.bettermanhunt.models.Game;
+import com.thefallersgames.bettermanhunt.models.GameState;
+import com.thefallersgames.bettermanhunt.models.PlayerRole;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the route tables of {@link GameEventDispatcher}. Runs without a server, so the
+ * game's owner and world are bare stand-ins.
+ */
+public class GameEventDispatcherTest {
+
+    @Test
+    public void handlersRunInRegistrationOrder() {
+        Routes<TestEvent> routes = new Routes<>();
+        List<String> calls = new ArrayList<>();
+        routes.register(EnumSet.of(GameState.ACTIVE), (event, context) -> calls.add("first"));
+        routes.register(EnumSet.of(GameState.ACTIVE), EnumSet.of(PlayerRole.RUNNER), (event, context) -> calls.add("second"));
+        routes.registerAll((event, context) -> calls.add("third"));
+
+        routes.dispatch(new TestEvent(), context(GameState.ACTIVE, PlayerRole.RUNNER));
+
+        assertEquals(Arrays.asList("first", "second", "third"), calls);
+    }
+
+    @Test
+    public void handlersOnlyRunForTheirStateAndRole() {
+        Routes<TestEvent> routes = new Routes<>();
+        List<String> calls = new ArrayList<>();
+        routes.register(EnumSet.of(GameState.ACTIVE), EnumSet.of(PlayerRole.RUNNER), (event, context) -> calls.add("runner"));
+        routes.register(EnumSet.of(GameState.LOBBY), (event, context) -> calls.add("lobby"));
+
+        routes.dispatch(new TestEvent(), context(GameState.ACTIVE, PlayerRole.HUNTER));
+        routes.dispatch(new TestEvent(), context(GameState.HEADSTART, PlayerRole.RUNNER));
+        assertTrue(calls.isEmpty());
+
+        routes.dispatch(new TestEvent(), context(GameState.LOBBY, PlayerRole.SPECTATOR));
+        assertEquals(Collections.singletonList("lobby"), calls);
+    }
+
+    @Test
+    public void outsideGameHandlersOnlyRunWithoutAGame() {
+        Routes<TestEvent> routes = new Routes<>();
+        List<String> calls = new ArrayList<>();
+        routes.registerOutsideGame((event, context) -> calls.add("outside"));
+        routes.register(EnumSet.allOf(GameState.class), (event, context) -> calls.add("inside"));
+
+        routes.dispatch(new TestEvent(), new GameContext(null, null, PlayerRole.NONE));
+        assertEquals(Collections.singletonList("outside"), calls);
+
+        calls.clear();
+        routes.dispatch(new TestEvent(), context(GameState.ACTIVE, PlayerRole.HUNTER));
+        assertEquals(Collections.singletonList("inside"), calls);
+    }
+
+    @Test
+    public void contextKeepsTheStateAtDispatch() {
+        Game game = game(GameState.ACTIVE);
+        GameContext context = new GameContext(null, game, PlayerRole.RUNNER);
+        game.setState(GameState.RUNNERS_WON);
+
+        assertEquals(GameState.ACTIVE, context.getState());
+    }
+
+    @Test
+    public void routesAreEmptyUntilAHandlerRegisters() {
+        Routes<TestEvent> routes = new Routes<>();
+        assertTrue(routes.isEmpty());
+
+        routes.registerOutsideGame((event, context) -> { });
+        assertFalse(routes.isEmpty());
+    }
+
+    @Test
+    public void protectionPrioritiesHaveTheirOwnRoutes() {
+        GameEventDispatcher dispatcher = new GameEventDispatcher(null);
+
+        assertSame(dispatcher.getPlayerDeathRoutes(), dispatcher.getPlayerDeathRoutes(EventPriority.NORMAL));
+        assertNotSame(dispatcher.getPlayerDeathRoutes(), dispatcher.getPlayerDeathRoutes(EventPriority.HIGH));
+        assertNotSame(dispatcher.getInventoryClickRoutes(), dispatcher.getInventoryClickRoutes(EventPriority.HIGH));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unsupportedPriorityIsRejected() {
+        new GameEventDispatcher(null).getPlayerDeathRoutes(EventPriority.LOWEST);
+    }
+
+    private static GameContext context(GameState state, PlayerRole role) {
+        return new GameContext(null, game(state), role);
+    }
+
+    private static Game game(GameState state) {
+        UUID ownerId = UUID.randomUUID();
+        Player owner = stub(Player.class, "getUniqueId", ownerId);
+        World world = stub(World.class, "getSpawnLocation", new Location(null, 0.0, 64.0, 0.0));
+        Game game = new Game("test", owner, world);
+        game.setState(state);
+        return game;
+    }
+
+    /**
+     * Creates an implementation of an interface that answers one method and returns null for the rest.
+     */
+    private static <T> T stub(Class<T> type, String methodName, Object result) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> method.getName().equals(methodName) ? result : null));
+    }
+
+    /**
+     * A bare event to route.
+     */
+    private static class TestEvent extends Event {
+        private static final HandlerList HANDLERS = new HandlerList();
+
+        @Override
+        public HandlerList getHandlers() {
+            return HANDLERS;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.thefallersgames.bettermanhunt.services;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for the retry backoff of {@link WorldDeletionQueue}.
+ */
+public class WorldDeletionQueueTest {
+    private static final long BASE = 10_000L;
+    private static final long MAX = 600_000L;
+
+    @Test
+    public void firstRetryUsesTheBaseDelay() {
+        assertEquals(BASE, WorldDeletionQueue.retryDelay(0, BASE, MAX));
+    }
+
+    @Test
+    public void delayDoublesAfterEveryFailure() {
+        assertEquals(20_000L, WorldDeletionQueue.retryDelay(1, BASE, MAX));
+        assertEquals(40_000L, WorldDeletionQueue.retryDelay(2, BASE, MAX));
+        assertEquals(320_000L, WorldDeletionQueue.retryDelay(5, BASE, MAX));
+    }
+
+    @Test
+    public void delayIsCappedAtTheMaximum() {
+        assertEquals(MAX, WorldDeletionQueue.retryDelay(6, BASE, MAX));
+        assertEquals(MAX, WorldDeletionQueue.retryDelay(1000, BASE, MAX));
+    }
+
+    @Test
+    public void overflowFallsBackToTheMaximum() {
+        assertEquals(MAX, WorldDeletionQueue.retryDelay(30, Long.MAX_VALUE / 2, MAX));
+    }
+
+    @Test
+    public void negativeFailureCountUsesTheBaseDelay() {
+        assertEquals(BASE, WorldDeletionQueue.retryDelay(-1, BASE, MAX));
+    }
+}
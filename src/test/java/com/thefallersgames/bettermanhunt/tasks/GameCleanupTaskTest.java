@@ -0,0 +1,162 @@
+package com.thefallersgames.bettermanhunt.tasks;
+
+import com.thefallersgames.bettermanhunt.models.Game;
+import com.thefallersgames.bettermanhunt.models.GameCleanup;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the stage order of {@link GameCleanupTask}. Runs without a server, so players and
+ * worlds are bare stand-ins and the stages only record that they ran.
+ */
+public class GameCleanupTaskTest {
+    // Large enough that the time budget never ends a run in these tests
+    private static final long BUDGET_MILLIS = 60_000L;
+
+    @Test
+    public void stagesRunInOrder() {
+        RecordingSteps steps = new RecordingSteps(true);
+        GameCleanupTask task = task(steps, 10);
+        task.add(new GameCleanup(game("a", 2), false));
+
+        task.run();
+
+        assertEquals(Arrays.asList("restore a", "restore a", "unregister a", "bossbar a", "world a"), steps.calls);
+        assertFalse(task.contains("a"));
+        assertTrue(task.isCancelled());
+    }
+
+    @Test
+    public void worldWaitsForRunningRestores() {
+        RecordingSteps steps = new RecordingSteps(false);
+        GameCleanupTask task = task(steps, 10);
+        task.add(new GameCleanup(game("a", 2), false));
+
+        task.run();
+        assertEquals(Arrays.asList("restore a", "restore a"), steps.calls);
+        assertTrue(task.contains("a"));
+
+        // Nothing moves on while a player is still being teleported out of the world
+        steps.restores.get(0).complete(true);
+        task.run();
+        assertEquals(2, steps.calls.size());
+
+        steps.restores.get(1).complete(true);
+        task.run();
+        assertEquals(Arrays.asList("restore a", "restore a", "unregister a", "bossbar a", "world a"), steps.calls);
+        assertFalse(task.contains("a"));
+    }
+
+    @Test
+    public void playerBudgetIsSharedByQueuedGames() {
+        RecordingSteps steps = new RecordingSteps(true);
+        GameCleanupTask task = task(steps, 3);
+        task.add(new GameCleanup(game("a", 2), false));
+        task.add(new GameCleanup(game("b", 2), false));
+
+        task.run();
+        assertEquals(Arrays.asList("restore a", "restore a", "unregister a", "bossbar a", "world a", "restore b"),
+                steps.calls);
+        assertTrue(task.contains("b"));
+
+        steps.calls.clear();
+        task.run();
+        assertEquals(Arrays.asList("restore b", "unregister b", "bossbar b", "world b"), steps.calls);
+        assertFalse(task.contains("b"));
+    }
+
+    @Test
+    public void completeAllDoesNotWaitForRestores() {
+        RecordingSteps steps = new RecordingSteps(false);
+        GameCleanupTask task = task(steps, 1);
+        task.add(new GameCleanup(game("a", 2), false));
+        task.add(new GameCleanup(game("b", 1), false));
+
+        task.completeAll();
+
+        assertEquals(Arrays.asList("restore a", "restore a", "unregister a", "bossbar a", "world a",
+                "restore b", "unregister b", "bossbar b", "world b"), steps.calls);
+        assertFalse(task.contains("a"));
+        assertFalse(task.contains("b"));
+        assertTrue(task.isCancelled());
+    }
+
+    private static GameCleanupTask task(RecordingSteps steps, int maxPlayersPerTick) {
+        Logger logger = Logger.getAnonymousLogger();
+        logger.setLevel(Level.OFF);
+        return new GameCleanupTask(logger, steps, maxPlayersPerTick, BUDGET_MILLIS);
+    }
+
+    private static Game game(String name, int runners) {
+        World world = stub(World.class, "getSpawnLocation", new Location(null, 0.0, 64.0, 0.0));
+        Game game = new Game(name, player(), world);
+        for (int i = 0; i < runners; i++) {
+            game.addRunner(player());
+        }
+        return game;
+    }
+
+    private static Player player() {
+        return stub(Player.class, "getUniqueId", UUID.randomUUID());
+    }
+
+    /**
+     * Creates an implementation of an interface that answers one method and returns null for the rest.
+     */
+    private static <T> T stub(Class<T> type, String methodName, Object result) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> method.getName().equals(methodName) ? result : null));
+    }
+
+    /**
+     * Stages that record the order they ran in.
+     */
+    private static class RecordingSteps implements GameCleanupTask.Steps {
+        private final boolean restoreInstantly;
+        private final List<String> calls = new ArrayList<>();
+        private final List<CompletableFuture<Boolean>> restores = new ArrayList<>();
+
+        private RecordingSteps(boolean restoreInstantly) {
+            this.restoreInstantly = restoreInstantly;
+        }
+
+        @Override
+        public CompletableFuture<Boolean> restorePlayer(GameCleanup cleanup, UUID playerId) {
+            calls.add("restore " + cleanup.getGameName());
+            CompletableFuture<Boolean> restore = restoreInstantly
+                    ? CompletableFuture.completedFuture(true) : new CompletableFuture<>();
+            restores.add(restore);
+            return restore;
+        }
+
+        @Override
+        public void unregister(GameCleanup cleanup) {
+            calls.add("unregister " + cleanup.getGameName());
+        }
+
+        @Override
+        public void removeBossBar(GameCleanup cleanup) {
+            calls.add("bossbar " + cleanup.getGameName());
+        }
+
+        @Override
+        public void tearDownWorld(GameCleanup cleanup) {
+            calls.add("world " + cleanup.getGameName());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.thefallersgames.bettermanhunt.utils;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link CompletionIndex}.
+ */
+public class CompletionIndexTest {
+
+    @Test
+    public void completesPrefixIgnoringCase() {
+        CompletionIndex index = new CompletionIndex();
+        index.add("Steve");
+        index.add("alex");
+        index.add("StevenUniverse");
+        index.add("Notch");
+
+        assertEquals(Arrays.asList("Steve", "StevenUniverse"), index.complete("ste"));
+        assertEquals(Arrays.asList("Steve", "StevenUniverse"), index.complete("STE"));
+        assertEquals(Collections.singletonList("alex"), index.complete("A"));
+        assertTrue(index.complete("x").isEmpty());
+    }
+
+    @Test
+    public void emptyPrefixCompletesEverythingInOrder() {
+        CompletionIndex index = new CompletionIndex();
+        index.add("charlie");
+        index.add("Bravo");
+        index.add("alpha");
+
+        assertEquals(Arrays.asList("alpha", "Bravo", "charlie"), index.complete(""));
+    }
+
+    @Test
+    public void namesThatDifferInCaseCoexist() {
+        CompletionIndex index = new CompletionIndex();
+        index.add("Game");
+        index.add("game");
+
+        assertEquals(2, index.size());
+        assertEquals(Arrays.asList("Game", "game"), index.complete("g"));
+    }
+
+    @Test
+    public void removingOneCaseKeepsTheOther() {
+        CompletionIndex index = new CompletionIndex();
+        index.add("Game");
+        index.add("game");
+
+        index.remove("game");
+
+        assertEquals(1, index.size());
+        assertEquals(Collections.singletonList("Game"), index.complete("GA"));
+    }
+
+    @Test
+    public void removingAnUnknownNameChangesNothing() {
+        CompletionIndex index = new CompletionIndex();
+        index.add("Game");
+
+        index.remove("GAME");
+
+        assertEquals(Collections.singletonList("Game"), index.complete("g"));
+    }
+
+    @Test
+    public void addingTwiceKeepsOneEntry() {
+        CompletionIndex index = new CompletionIndex();
+        index.add("Game");
+        index.add("Game");
+
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void shorterNameComesBeforeLongerNameWithSamePrefix() {
+        CompletionIndex index = new CompletionIndex();
+        index.add("ab");
+        index.add("Ab");
+        index.add("abc");
+
+        assertEquals(Arrays.asList("Ab", "ab", "abc"), index.complete("a"));
+    }
+}
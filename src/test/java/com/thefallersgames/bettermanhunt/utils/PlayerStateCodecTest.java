@@ -0,0 +1,210 @@
+package com.thefallersgames.bettermanhunt.utils;
+
+import com.thefallersgames.bettermanhunt.models.PlayerState;
+import com.thefallersgames.bettermanhunt.models.StoredLocation;
+import org.bukkit.GameMode;
+import org.bukkit.Material;
+import org.bukkit.configuration.serialization.ConfigurationSerialization;
+import org.bukkit.configuration.serialization.SerializableAs;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.util.io.BukkitObjectOutputStream;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for {@link PlayerStateCodec}. Runs without a server, so items are stand-ins that
+ * serialize themselves instead of going through the server's item factory.
+ */
+public class PlayerStateCodecTest {
+
+    @BeforeClass
+    public static void registerTestItem() {
+        ConfigurationSerialization.registerClass(TestItem.class);
+    }
+
+    @Test
+    public void roundTripKeepsEveryValue() throws IOException {
+        StoredLocation location = new StoredLocation("ManhuntWorld/game", 12.5, 64.0, -3.25, 90.0f, -10.0f);
+        PlayerState state = new PlayerState(new ItemStack[41], new ItemStack[27], GameMode.ADVENTURE, location,
+                null, 30, 0.5f, 1395, 17.5, 19, 4.0f, 1.5f, Collections.emptyList());
+
+        PlayerState decoded = roundTrip(state);
+
+        assertEquals(GameMode.ADVENTURE, decoded.getGameMode());
+        assertEquals("ManhuntWorld/game", decoded.getLocation().getWorldName());
+        assertEquals(12.5, decoded.getLocation().getX(), 0.0);
+        assertEquals(64.0, decoded.getLocation().getY(), 0.0);
+        assertEquals(-3.25, decoded.getLocation().getZ(), 0.0);
+        assertEquals(90.0f, decoded.getLocation().getYaw(), 0.0f);
+        assertEquals(-10.0f, decoded.getLocation().getPitch(), 0.0f);
+        assertNull(decoded.getBedSpawn());
+        assertEquals(30, decoded.getLevel());
+        assertEquals(0.5f, decoded.getExp(), 0.0f);
+        assertEquals(1395, decoded.getTotalExperience());
+        assertEquals(17.5, decoded.getHealth(), 0.0);
+        assertEquals(19, decoded.getFoodLevel());
+        assertEquals(4.0f, decoded.getSaturation(), 0.0f);
+        assertEquals(1.5f, decoded.getExhaustion(), 0.0f);
+        assertTrue(decoded.getPotionEffects().isEmpty());
+    }
+
+    @Test
+    public void roundTripKeepsWorldOfMissingWorld() throws IOException {
+        // Worlds are resolved when the state is applied, so a world that isn't loaded must survive decoding
+        StoredLocation bedSpawn = new StoredLocation("deleted_world", 1.0, 2.0, 3.0, 0.0f, 0.0f);
+        PlayerState state = new PlayerState(new ItemStack[41], new ItemStack[27], GameMode.SURVIVAL, null,
+                bedSpawn, 0, 0.0f, 0, 20.0, 20, 5.0f, 0.0f, Collections.emptyList());
+
+        PlayerState decoded = roundTrip(state);
+
+        assertNull(decoded.getLocation());
+        assertNotNull(decoded.getBedSpawn());
+        assertEquals("deleted_world", decoded.getBedSpawn().getWorldName());
+    }
+
+    @Test
+    public void sparseSlotsKeepTheirIndex() throws IOException {
+        ItemStack[] inventory = new ItemStack[41];
+        inventory[7] = new TestItem(3);
+        inventory[40] = new TestItem(1);
+        ItemStack[] enderChest = new ItemStack[27];
+        enderChest[26] = new TestItem(64);
+        PlayerState state = new PlayerState(inventory, enderChest, GameMode.SURVIVAL, null, null,
+                0, 0.0f, 0, 20.0, 20, 5.0f, 0.0f, Collections.emptyList());
+
+        PlayerState decoded = roundTrip(state);
+
+        assertEquals(41, decoded.getInventory().length);
+        assertEquals(27, decoded.getEnderChest().length);
+        for (int slot = 0; slot < 41; slot++) {
+            if (slot == 7) {
+                assertEquals(3, decoded.getInventory()[slot].getAmount());
+            } else if (slot == 40) {
+                assertEquals(1, decoded.getInventory()[slot].getAmount());
+            } else {
+                assertNull("slot " + slot, decoded.getInventory()[slot]);
+            }
+        }
+        assertEquals(64, decoded.getEnderChest()[26].getAmount());
+    }
+
+    @Test
+    public void emptySlotsTakeNoSpace() throws IOException {
+        PlayerState small = new PlayerState(new ItemStack[41], new ItemStack[27], GameMode.SURVIVAL, null, null,
+                0, 0.0f, 0, 20.0, 20, 5.0f, 0.0f, Collections.emptyList());
+        PlayerState large = new PlayerState(new ItemStack[4000], new ItemStack[2700], GameMode.SURVIVAL, null, null,
+                0, 0.0f, 0, 20.0, 20, 5.0f, 0.0f, Collections.emptyList());
+
+        // Only the slot counts differ, so a hundred times the slots costs no more than a few bytes
+        assertTrue(encode(large).length <= encode(small).length + 8);
+    }
+
+    @Test
+    public void truncatedDataIsRejected() throws IOException {
+        ItemStack[] inventory = new ItemStack[41];
+        inventory[3] = new TestItem(5);
+        PlayerState state = new PlayerState(inventory, new ItemStack[27], GameMode.SURVIVAL,
+                new StoredLocation("world", 1.0, 2.0, 3.0, 0.0f, 0.0f), null,
+                0, 0.0f, 0, 20.0, 20, 5.0f, 0.0f, Collections.emptyList());
+        byte[] encoded = encode(state);
+
+        // Cut inside the header, right after it and halfway through the compressed data
+        for (int length : new int[] {0, 2, 4, encoded.length / 2}) {
+            assertRejected(Arrays.copyOf(encoded, length));
+        }
+    }
+
+    @Test
+    public void corruptSlotsAreRejected() throws IOException {
+        // A negative slot count and a slot past the end of the array must both fail as unreadable data
+        assertRejected(withItems(-1, 0, 0));
+        assertRejected(withItems(41, 1, 100));
+        assertRejected(withItems(41, 1, -5));
+    }
+
+    private static void assertRejected(byte[] data) {
+        try {
+            PlayerStateCodec.decode(new ByteArrayInputStream(data));
+            fail("decoded " + data.length + " bytes of invalid data");
+        } catch (IOException expected) {
+            // The only failure a caller has to handle
+        }
+    }
+
+    /**
+     * Writes a state with valid values up to the inventory, followed by the given slot count,
+     * number of occupied slots and first slot index.
+     */
+    private static byte[] withItems(int slots, int occupied, int slot) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new DataOutputStream(output).writeInt(2);
+
+        DeflaterOutputStream compressed = new DeflaterOutputStream(output);
+        BukkitObjectOutputStream out = new BukkitObjectOutputStream(compressed);
+        out.writeUTF(GameMode.SURVIVAL.name());
+        out.writeBoolean(false);
+        out.writeBoolean(false);
+        out.writeInt(0);
+        out.writeFloat(0.0f);
+        out.writeInt(0);
+        out.writeDouble(20.0);
+        out.writeInt(20);
+        out.writeFloat(5.0f);
+        out.writeFloat(0.0f);
+        out.writeShort(0);
+        out.writeShort(slots);
+        out.writeShort(occupied);
+        out.writeShort(slot);
+        out.writeObject(new TestItem(1));
+        out.flush();
+        compressed.finish();
+        return output.toByteArray();
+    }
+
+    private static PlayerState roundTrip(PlayerState state) throws IOException {
+        return PlayerStateCodec.decode(new ByteArrayInputStream(encode(state)));
+    }
+
+    private static byte[] encode(PlayerState state) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PlayerStateCodec.encode(state, output);
+        return output.toByteArray();
+    }
+
+    /**
+     * An item that only remembers its amount.
+     */
+    @SerializableAs("PlayerStateCodecTestItem")
+    public static class TestItem extends ItemStack {
+        public TestItem(int amount) {
+            super(Material.STONE, amount);
+        }
+
+        public static TestItem deserialize(Map<String, Object> args) {
+            return new TestItem(((Number) args.get("amount")).intValue());
+        }
+
+        @Override
+        public Map<String, Object> serialize() {
+            Map<String, Object> result = new HashMap<>();
+            result.put("amount", getAmount());
+            return result;
+        }
+    }
+}